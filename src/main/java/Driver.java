@@ -1,18 +1,30 @@
 import com.sun.javafx.application.PlatformImpl;
 import data.Schedule;
+import data.Task;
 import data.TaskGraph;
 import gui.Visualiser;
+import io.DotGraph;
 import io.IOParser;
 import javafx.stage.Stage;
 import org.apache.commons.cli.*;
-import org.graphstream.graph.Graph;
 
 import solution.Solution;
-import solution.SolutionParallel;
-import solution.SolutionSequential;
+import solution.BatchRunner;
+import solution.ProcessorSweep;
+import solution.SchedulingServer;
+import solution.SolutionPipeline;
 import solution.SolutionThread;
-import solution.helpers.Greedy;
-import solution.helpers.SequentialScheduler;
+import solution.WarmStart;
+import solution.helpers.BloomFilteredIntSet;
+import solution.helpers.IntHashSet;
+import solution.helpers.IntSet;
+import solution.helpers.OffHeapIntSet;
+import solution.helpers.ResultCache;
+import solution.helpers.ScheduleValidator;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
 
 /**
  * The main class of the project. Runs different options of solutions for the task
@@ -21,8 +33,16 @@ import solution.helpers.SequentialScheduler;
 public class Driver {
     static int numProcessors;
     static int numThreads = 1;
+    static long localSearchBudget = 200; // milliseconds spent improving the greedy schedule
     static String fileName;
     static TaskGraph taskGraph;
+    static boolean isParallel = false; // whether the exact search runs on numThreads threads
+    static IntSet seenScheduleTable; // null unless the duplicate detection table is outside the heap or filtered
+    static BloomFilteredIntSet duplicateFilter; // null unless the Bloom filter is enabled
+    static final long DEFAULT_EXPECTED_STATES = 1 << 24; // states the Bloom filter is sized for without a table size
+    static Schedule initialSchedule; // null unless a schedule to start from is given with --initial
+    static ResultCache resultCache; // null unless the optimal schedules are cached in the directory given with -c
+    static final int SERVER_QUEUE_CAPACITY = 1024; // jobs of the scheduling server waiting for a thread
 
     /**
      * Main method of the project from which everything is instantiated and run.
@@ -31,41 +51,122 @@ public class Driver {
      * We use the IOParser to write the schedule to the output dot file.
      * @param args Array of string of inputs, in order: input file name, processor count,
      *             [OPTIONAL]: (-p) number of cores, (-v) visualisation of search,
-     *             (-o) name of output file
+     *             (-o) name of output file, (-l) local search time budget in milliseconds,
+     *             (-t) size of the duplicate detection table outside the heap in megabytes,
+     *             (-f) file to map the duplicate detection table to,
+     *             (-b) false positive rate of a Bloom filter in front of the duplicate detection table,
+     *             (-j) the input is a batch of graphs: a directory, glob or manifest file,
+     *             (-s) schedule on every number of processors from 1 to P,
+     *             (-d) run a scheduling server on the given local port instead, without an input file,
+     *             (-c) directory of the cache of optimal schedules,
+     *             (-w) output file of the previous version of the graph, to start from its schedule,
+     *             (-i, --initial) a schedule of the graph to start the search from
      */
     public static void main(String[] args){
         // Get the input options from the command line
         CommandLine cmd = getCommandLineOptions(args);
+        if (cmd.hasOption('l')) {
+            try {
+                localSearchBudget = Long.parseLong(cmd.getOptionValue('l'));
+            } catch (NumberFormatException e) {
+                System.err.println("Error: local search time budget invalid");
+                System.exit(1);
+            }
+        }
+        if (cmd.hasOption('c')) {
+            try {
+                resultCache = new ResultCache(new File(cmd.getOptionValue('c')));
+            } catch (IOException e) {
+                System.err.println("Error: could not create the result cache directory: " + e.getMessage());
+                System.exit(1);
+            }
+        }
+        if (cmd.hasOption('d')) {
+            runServer(cmd);
+            return;
+        }
         fileName = args[0];
 
         numProcessors = getNumProcessors(args);
+        if (cmd.hasOption('j')) {
+            runBatch(cmd);
+            return;
+        }
         final String outputFilePath = getOutputFilePath(cmd);
 
         // Read input file
-        Graph dotGraph = IOParser.read(fileName);
-        taskGraph = new TaskGraph(dotGraph);
+        DotGraph dotGraph = IOParser.readDotGraph(fileName);
+        taskGraph = dotGraph.getTaskGraph();
 
-        // Choose to run either the sequential or the parallel version.
-        Solution solution;
+        long expectedStates = DEFAULT_EXPECTED_STATES;
+        if (cmd.hasOption('t') || cmd.hasOption('f')) {
+            seenScheduleTable = getSeenScheduleTable(cmd);
+            // a key takes about 4 bytes of the table
+            expectedStates = Long.parseLong(cmd.getOptionValue('t', "1024")) << 18;
+        }
+        if (cmd.hasOption('b')) {
+            try {
+                duplicateFilter = new BloomFilteredIntSet(seenScheduleTable != null ? seenScheduleTable :
+                        new IntHashSet(), expectedStates, Double.parseDouble(cmd.getOptionValue('b')));
+                seenScheduleTable = duplicateFilter;
+            } catch (IllegalArgumentException e) {
+                System.err.println("Error: duplicate filter false positive rate invalid");
+                System.exit(1);
+            } catch (OutOfMemoryError e) {
+                System.err.println("Error: not enough heap for the duplicate filter, increase -Xmx or its false " +
+                        "positive rate");
+                System.exit(1);
+            }
+        }
         if(cmd.hasOption("p")){
-            solution = new SolutionParallel(taskGraph, numProcessors);
             try {
                 numThreads = Integer.parseInt(cmd.getOptionValue('p'));
-                ((SolutionParallel) solution).setNumCores(numThreads);
+                isParallel = true;
             } catch(NumberFormatException e) {
                 System.err.println("Error: number of threads invalid");
                 System.exit(1);
             }
-        } else {
-            solution = new SolutionSequential(taskGraph, numProcessors);
         }
 
-        // Choose whether to run visualisation.
+        if (cmd.hasOption('i')) {
+            if (cmd.hasOption('s') || cmd.hasOption('w')) {
+                System.err.println("Error: --initial cannot be used with -s or -w");
+                System.exit(1);
+            }
+            initialSchedule = readInitialSchedule(cmd.getOptionValue('i'), dotGraph);
+        }
+
+        // Choose whether to run visualisation, or a sweep over the numbers of processors.
         if(cmd.hasOption('v')) {
-            runVisual(solution, outputFilePath, dotGraph);
+            runVisual(createPipeline(numProcessors).createSolution(taskGraph), outputFilePath, dotGraph);
+        } else if (cmd.hasOption('s')) {
+            runSweep(outputFilePath, dotGraph);
+        } else if (cmd.hasOption('w')) {
+            runWarmStart(cmd.getOptionValue('w'), outputFilePath, dotGraph);
         } else {
-            runNonVisual(solution, outputFilePath, dotGraph);
+            runNonVisual(createPipeline(numProcessors), outputFilePath, dotGraph);
+        }
+    }
+
+    /**
+     * Creates the pipeline with the options from the command line, running either the sequential or the parallel
+     * version of the search.
+     * @param numProcessors The number of processors to schedule the tasks on.
+     * @return The pipeline.
+     */
+    private static SolutionPipeline createPipeline(int numProcessors) {
+        SolutionPipeline pipeline = new SolutionPipeline(numProcessors);
+        pipeline.setLocalSearchBudget(localSearchBudget);
+        if (seenScheduleTable != null) {
+            pipeline.setSeenScheduleTable(seenScheduleTable);
+        }
+        if (isParallel) {
+            pipeline.setNumCores(numThreads);
+        }
+        if (resultCache != null) {
+            pipeline.setResultCache(resultCache);
         }
+        return pipeline;
     }
 
     /**
@@ -73,6 +174,16 @@ public class Driver {
      * -p: number of cores/threads.
      * -v: if visualisation is required.
      * -o: name of output file.
+     * -l: time budget of the local search in milliseconds.
+     * -t: size of the duplicate detection table outside the heap in megabytes.
+     * -f: file to map the duplicate detection table to.
+     * -b: false positive rate of a Bloom filter in front of the duplicate detection table.
+     * -j: if the input is a batch of graphs.
+     * -s: if the graph is scheduled on every number of processors up to the given one.
+     * -d: port of the scheduling server to run.
+     * -c: directory of the cache of optimal schedules.
+     * -w: output file of the previous version of the graph.
+     * -i, --initial: schedule of the graph to start the search from.
      * @param args The command line arguments.
      * @return A CommandLine object containing the results of the command line
      * arguments.
@@ -91,6 +202,46 @@ public class Driver {
         o.setRequired(false);
         options.addOption(o);
 
+        Option l = new Option("l", true, "local search time budget in milliseconds");
+        l.setRequired(false);
+        options.addOption(l);
+
+        Option t = new Option("t", true, "size of the duplicate detection table outside the heap in megabytes");
+        t.setRequired(false);
+        options.addOption(t);
+
+        Option f = new Option("f", true, "file to map the duplicate detection table to, it is overwritten");
+        f.setRequired(false);
+        options.addOption(f);
+
+        Option b = new Option("b", true, "false positive rate of a Bloom filter in front of the duplicate detection table");
+        b.setRequired(false);
+        options.addOption(b);
+
+        Option j = new Option("j", false, "batch of graphs given by a directory, glob or manifest file");
+        j.setRequired(false);
+        options.addOption(j);
+
+        Option sweep = new Option("s", false, "sweep over the numbers of processors from 1 to P");
+        sweep.setRequired(false);
+        options.addOption(sweep);
+
+        Option d = new Option("d", true, "run a scheduling server on the given local port");
+        d.setRequired(false);
+        options.addOption(d);
+
+        Option c = new Option("c", true, "directory of the cache of optimal schedules, shared between runs");
+        c.setRequired(false);
+        options.addOption(c);
+
+        Option w = new Option("w", true, "output file of the previous version of the graph, to start from its schedule");
+        w.setRequired(false);
+        options.addOption(w);
+
+        Option i = new Option("i", "initial", true, "schedule of the graph to start the search from, e.g. an output file");
+        i.setRequired(false);
+        options.addOption(i);
+
         CommandLineParser parser = new DefaultParser();
         CommandLine cmd = null;
         try {
@@ -120,6 +271,70 @@ public class Driver {
         return -1;
     }
 
+    /**
+     * Creates the duplicate detection table outside the heap, in direct memory or mapped to the file given with -f.
+     * @param cmd The CommandLine object that contains input arguments.
+     * @return The table, of the size given with -t, or 1024 megabytes by default.
+     */
+    private static IntSet getSeenScheduleTable(CommandLine cmd) {
+        long megabytes = 0;
+        try {
+            megabytes = Long.parseLong(cmd.getOptionValue('t', "1024"));
+        } catch (NumberFormatException e) {
+            System.err.println("Error: duplicate detection table size invalid");
+            System.exit(1);
+        }
+        if (megabytes <= 0) {
+            System.err.println("Error: duplicate detection table size invalid");
+            System.exit(1);
+        }
+
+        try {
+            if (cmd.hasOption('f')) {
+                return OffHeapIntSet.map(new File(cmd.getOptionValue('f')), megabytes << 20);
+            }
+            return OffHeapIntSet.allocate(megabytes << 20);
+        } catch (IOException | OutOfMemoryError e) {
+            System.err.println("Error: could not create the duplicate detection table: " + e.getMessage());
+            System.exit(1);
+        }
+        return null;
+    }
+
+    /**
+     * Reads a schedule of the graph from a dot file with the Start and Processor of every task, like an output file,
+     * matching the tasks by their ids, and exits with an error unless it is a valid schedule on P processors.
+     * @param filePath The dot file of the schedule.
+     * @param dotGraph The input graph.
+     * @return The schedule, with the tasks of the input graph.
+     */
+    private static Schedule readInitialSchedule(String filePath, DotGraph dotGraph) {
+        DotGraph scheduled = IOParser.readDotGraph(filePath);
+        if (scheduled.getSchedule() == null) {
+            System.err.println("Error: " + filePath + " has no Start and Processor on every task");
+            System.exit(1);
+        }
+
+        Task[] scheduledTasks = scheduled.getSchedule().getTasks();
+        Task[] tasks = new Task[taskGraph.getNumberOfTasks()];
+        for (int task = 0; task < tasks.length; task++) {
+            int scheduledTask = scheduled.getTask(dotGraph.getTaskId(task));
+            if (scheduledTask == -1) {
+                System.err.println("Error: task " + dotGraph.getTaskId(task) + " is not in " + filePath);
+                System.exit(1);
+            }
+            tasks[task] = scheduledTasks[scheduledTask];
+        }
+        Schedule schedule = new Schedule(tasks, scheduled.getSchedule().getFinishTime());
+
+        String error = ScheduleValidator.findError(taskGraph, numProcessors, schedule, dotGraph::getTaskId);
+        if (error != null) {
+            System.err.println("Error: " + filePath + " is not a valid schedule of the graph, " + error);
+            System.exit(1);
+        }
+        return schedule;
+    }
+
     /**
      * @param cmd The CommandLine object that contains input arguments.
      * @return The output file path to write to.
@@ -134,16 +349,161 @@ public class Driver {
         return outputFilePath;
     }
 
+    /**
+     * Schedules a batch of graphs in this JVM, on a pool of the number of threads given with -p, or all cores by
+     * default. The output files are written to the directory given with -o, or next to the input files by default.
+     * There is no local search unless -l is given, as a batch is usually of many small graphs, where it costs more
+     * than it saves. Exits with an error if any graph could not be scheduled.
+     * @param cmd The CommandLine object that contains input arguments.
+     */
+    private static void runBatch(CommandLine cmd) {
+        if (cmd.hasOption('v') || cmd.hasOption('t') || cmd.hasOption('f') || cmd.hasOption('b')
+                || cmd.hasOption('s') || cmd.hasOption('w') || cmd.hasOption('i')) {
+            System.err.println("Error: -v, -t, -f, -b, -s, -w and --initial cannot be used with a batch of graphs");
+            System.exit(1);
+        }
+        int batchThreads = Runtime.getRuntime().availableProcessors();
+        if (cmd.hasOption('p')) {
+            try {
+                batchThreads = Integer.parseInt(cmd.getOptionValue('p'));
+            } catch (NumberFormatException e) {
+                System.err.println("Error: number of threads invalid");
+                System.exit(1);
+            }
+        }
+        File outputDirectory = null;
+        if (cmd.hasOption('o')) {
+            outputDirectory = new File(cmd.getOptionValue('o'));
+            if (!outputDirectory.isDirectory() && !outputDirectory.mkdirs()) {
+                System.err.println("Error: could not create the output directory");
+                System.exit(1);
+            }
+        }
+
+        List<BatchRunner.Job> jobs = null;
+        try {
+            jobs = BatchRunner.listJobs(fileName, numProcessors);
+        } catch (IOException e) {
+            System.err.println("Error reading the batch: " + e.getMessage());
+            System.exit(1);
+        }
+
+        long startTime = System.currentTimeMillis();
+        long batchLocalSearchBudget = cmd.hasOption('l') ? localSearchBudget : 0;
+        BatchRunner batchRunner = new BatchRunner(jobs, batchThreads, batchLocalSearchBudget, outputDirectory);
+        batchRunner.setResultCache(resultCache);
+        try {
+            batchRunner.run();
+        } catch (IOException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.exit(1);
+        }
+        batchRunner.printSummary(System.out);
+        System.out.println("Program ran in: " + (System.currentTimeMillis() - startTime) + "ms");
+        if (batchRunner.getNumberOfFailedJobs() > 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Runs a scheduling server on the local port given with -d until the JVM is stopped. It runs as many jobs at once
+     * as the number of threads given with -p, or all cores by default. The local search time budget given with -l is
+     * the default of the requests, which is no local search if it is not given, like a batch.
+     * @param cmd The CommandLine object that contains input arguments.
+     */
+    private static void runServer(CommandLine cmd) {
+        int serverThreads = Runtime.getRuntime().availableProcessors();
+        int port = 0;
+        try {
+            port = Integer.parseInt(cmd.getOptionValue('d'));
+            if (cmd.hasOption('p')) {
+                serverThreads = Integer.parseInt(cmd.getOptionValue('p'));
+            }
+        } catch (NumberFormatException e) {
+            System.err.println("Error: port or number of threads invalid");
+            System.exit(1);
+        }
+
+        try {
+            SchedulingServer server = new SchedulingServer(port, serverThreads, SERVER_QUEUE_CAPACITY,
+                    cmd.hasOption('l') ? localSearchBudget : 0);
+            server.setResultCache(resultCache);
+            server.start();
+            System.out.println("Scheduling server listening on http://localhost:" + server.getPort());
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Error: could not start the scheduling server: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Finds an optimal schedule on every number of processors from 1 to P, each starting from the schedule on one
+     * processor fewer, and writes each one to the output file path with the number of processors added, e.g.
+     * INPUT-output-3.dot.
+     * @param outputFilePath The path of the output files, before the number of processors is added.
+     * @param dotGraph The input graph.
+     */
+    private static void runSweep(String outputFilePath, DotGraph dotGraph) {
+        long startTime = System.currentTimeMillis();
+        ProcessorSweep sweep = new ProcessorSweep(numProcessors, Driver::createPipeline);
+        Schedule[] results = sweep.run(taskGraph);
+
+        if (sweep.getReduction().isReduced()) {
+            System.out.println(sweep.getReduction().getSummary());
+        }
+        sweep.printSummary(System.out);
+        System.out.println("Program ran in: " + (System.currentTimeMillis() - startTime) + "ms");
+
+        String outputFileBase = outputFilePath.substring(0, outputFilePath.length() - 4);
+        for (int p = 1; p <= numProcessors; p++) {
+            IOParser.write(outputFileBase + "-" + p + ".dot", dotGraph, results[p - 1]);
+        }
+    }
+
+    /**
+     * Schedules the graph again after a small change, starting from the schedule in the output file of its previous
+     * version, which holds both the previous graph and its schedule.
+     * @param previousFilePath The output file of the previous version of the graph.
+     * @param outputFilePath The path to write the output file to.
+     * @param dotGraph The changed graph.
+     */
+    private static void runWarmStart(String previousFilePath, String outputFilePath, DotGraph dotGraph) {
+        DotGraph previous = IOParser.readDotGraph(previousFilePath);
+        if (previous.getSchedule() == null) {
+            System.err.println("Error: " + previousFilePath + " is not an output file, it has no schedule");
+            System.exit(1);
+        }
+
+        long startTime = System.currentTimeMillis();
+        SolutionPipeline pipeline = createPipeline(numProcessors);
+        WarmStart warmStart = new WarmStart(pipeline, numProcessors);
+        Schedule result = warmStart.run(previous, dotGraph);
+
+        warmStart.printSummary(System.out);
+        if (pipeline.getReduction().isReduced()) {
+            System.out.println(pipeline.getReduction().getSummary());
+        }
+        if (duplicateFilter != null) {
+            System.out.println(duplicateFilter.getSummary());
+        }
+        System.out.println("Program ran in: " + (System.currentTimeMillis() - startTime) + "ms");
+        System.out.println("Best schedule has finishing time of " + result.getFinishTime());
+
+        IOParser.write(outputFilePath, dotGraph, result);
+    }
+
     /**
      * Runs the visualisation of the project.
      * @param solution The solution to visualise.
      * @param outputFilePath The path to write the output file to.
      * @param dotGraph The input graph.
      */
-    private static void runVisual(Solution solution, String outputFilePath, Graph dotGraph) {
+    private static void runVisual(Solution solution, String outputFilePath, DotGraph dotGraph) {
         PlatformImpl.startup(() -> {
             Visualiser visualiser = new Visualiser();
-            SolutionThread solutionThread = new SolutionThread(solution, taskGraph, numProcessors, outputFilePath, dotGraph);
+            SolutionThread solutionThread = new SolutionThread(solution, taskGraph, numProcessors, outputFilePath, dotGraph,
+                    localSearchBudget);
+            solutionThread.setInitialSchedule(initialSchedule);
             try {
                 visualiser.start(new Stage());
             } catch (Exception e) {
@@ -155,33 +515,22 @@ public class Driver {
 
     /**
      * Runs the project without visualisation.
-     * @param solution The solution to run.
+     * @param pipeline The pipeline which finds the optimal schedule.
      * @param outputFilePath The path to write the output file to.
      * @param dotGraph The input graph.
      */
-    private static void runNonVisual(Solution solution, String outputFilePath, Graph dotGraph) {
-        Schedule result;
-
-        // if the number of processors is one, then the optimal solution is just everything run
-        // sequentially.
-        if (numProcessors == 1) {
-            SequentialScheduler scheduler = new SequentialScheduler(taskGraph);
-            result = scheduler.getSchedule();
-            solution.setInitialSchedule(result);
-        } else {
-            // Run greedy algorithm to determine lower bound of optimal solution
-            Greedy g = new Greedy();
-            result = g.run(taskGraph, numProcessors);
-            solution.setInitialSchedule(result);
-
-            // Run algorithm to find optimal schedule
-            long startTime = System.currentTimeMillis();
-            Schedule optimalResult = solution.run();
+    private static void runNonVisual(SolutionPipeline pipeline, String outputFilePath, DotGraph dotGraph) {
+        long startTime = System.currentTimeMillis();
+        Schedule result = pipeline.run(taskGraph, initialSchedule);
 
-            if (optimalResult.getFinishTime() < result.getFinishTime()) {
-                result = optimalResult;
+        if (numProcessors > 1) {
+            if (pipeline.getReduction().isReduced()) {
+                System.out.println(pipeline.getReduction().getSummary());
             }
-
+            if (duplicateFilter != null) {
+                System.out.println(duplicateFilter.getSummary());
+            }
+            pipeline.getGreedy().printSummary(System.out);
             System.out.println("Program ran in: " + (System.currentTimeMillis() - startTime) + "ms");
             System.out.println("Best schedule has finishing time of " + result.getFinishTime());
         }
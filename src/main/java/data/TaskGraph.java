@@ -1,21 +1,36 @@
 package data;
 
+import org.graphstream.graph.Edge;
 import org.graphstream.graph.Graph;
-import org.graphstream.graph.Node;
 
-import java.util.ArrayList;
+import java.util.AbstractList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.RandomAccess;
 
 /**
  * The TaskGraph class encapsulates tasks and their dependencies.
+ * Edges are stored in compressed sparse rows: the children of task i are children[childOffsets[i]] up to
+ * children[childOffsets[i + 1] - 1], sorted by task, with the communication costs at the same indices of
+ * childCommCosts. Parents are stored the same way. The graph takes O(n + e) memory.
  */
 public class TaskGraph {
     private final int numberOfTasks;
 
-    private List<Integer>[] parentsList;
-    private List<Integer>[] childrenList;
-    private int[] durations;
-    private int[][] commCosts;
+    private final int[] durations;
+    private int[] parentOffsets;
+    private int[] parents;
+    private int[] parentCommCosts;
+    private int[] childOffsets;
+    private int[] children;
+    private int[] childCommCosts;
+
+    // Derived from the graph the first time one of them is needed, and shared by everything that schedules it.
+    // The arrays must not be modified.
+    private int[] topologicalOrder; // every task after all of its parents
+    private int[] inDegrees; // inDegrees[i] => number of parents of task i
+    private int[] bLevels; // bLevels[i] => length of the longest path from task i to an exit task, without comm costs
+    private int[] tLevels; // tLevels[i] => length of the longest path from an entry task to task i, excluding task i
 
     /**
      * Transforms the original dot file data into data structures that we use.
@@ -23,21 +38,70 @@ public class TaskGraph {
      */
     public TaskGraph(Graph dotGraph){
         numberOfTasks = dotGraph.getNodeCount();
-        initializeDataStructures(numberOfTasks);
-
+        durations = new int[numberOfTasks];
         for(int i = 0; i < numberOfTasks; i++){
-            Node node = dotGraph.getNode(i);
-            durations[i] = ((Double)node.getAttribute("Weight")).intValue();
+            durations[i] = ((Double)dotGraph.getNode(i).getAttribute("Weight")).intValue();
+        }
 
-            node.enteringEdges().forEach(e -> {
-                int s = e.getSourceNode().getIndex();
-                int t = e.getTargetNode().getIndex();
-                int commCost = ((Double)e.getAttribute("Weight")).intValue();
-                parentsList[t].add(s);
-                childrenList[s].add(t);
-                commCosts[s][t] = commCost;
-            });
+        int numberOfEdges = dotGraph.getEdgeCount();
+        int[] sources = new int[numberOfEdges];
+        int[] targets = new int[numberOfEdges];
+        int[] commCosts = new int[numberOfEdges];
+        for(int i = 0; i < numberOfEdges; i++){
+            Edge e = dotGraph.getEdge(i);
+            sources[i] = e.getSourceNode().getIndex();
+            targets[i] = e.getTargetNode().getIndex();
+            commCosts[i] = ((Double)e.getAttribute("Weight")).intValue();
         }
+        initializeEdges(sources, targets, commCosts);
+    }
+
+    /**
+     * Initializes a data.TaskGraph object from a list of edges.
+     * @param durations The duration of each task.
+     * @param sources The parent task of each edge.
+     * @param targets The child task of each edge.
+     * @param commCosts The communication cost of each edge.
+     */
+    public TaskGraph(int[] durations, int[] sources, int[] targets, int[] commCosts) {
+        this.numberOfTasks = durations.length;
+        this.durations = durations;
+        initializeEdges(sources, targets, commCosts);
+    }
+
+    /**
+     * Initializes a data.TaskGraph object from the rows of children, which only needs the rows of parents to be built.
+     * The arrays are used by the task graph, and must not be modified afterwards.
+     * @param durations The duration of each task.
+     * @param childOffsets The index of the first child of each task, followed by the number of edges.
+     * @param children The children of each task, sorted by task within each row.
+     * @param childCommCosts The communication cost of each edge.
+     * @return The task graph.
+     */
+    public static TaskGraph fromChildRows(int[] durations, int[] childOffsets, int[] children, int[] childCommCosts) {
+        TaskGraph taskGraph = new TaskGraph(durations);
+        taskGraph.childOffsets = childOffsets;
+        taskGraph.children = children;
+        taskGraph.childCommCosts = childCommCosts;
+
+        // the parents are visited in order, so each row of parents is sorted
+        taskGraph.parentOffsets = taskGraph.offsets(children);
+        int[] next = Arrays.copyOf(taskGraph.parentOffsets, durations.length);
+        taskGraph.parents = new int[children.length];
+        taskGraph.parentCommCosts = new int[children.length];
+        for (int parent = 0; parent < durations.length; parent++) {
+            for (int i = childOffsets[parent]; i < childOffsets[parent + 1]; i++) {
+                int edge = next[children[i]]++;
+                taskGraph.parents[edge] = parent;
+                taskGraph.parentCommCosts[edge] = childCommCosts[i];
+            }
+        }
+        return taskGraph;
+    }
+
+    private TaskGraph(int[] durations) {
+        this.numberOfTasks = durations.length;
+        this.durations = durations;
     }
 
     /**
@@ -47,28 +111,92 @@ public class TaskGraph {
     public TaskGraph(List<Integer>[] parentsList, List<Integer>[] childrenList,
                      int[] durations, int[][] commCosts){
         this.numberOfTasks = parentsList.length;
-        this.parentsList = parentsList;
-        this.childrenList = childrenList;
         this.durations = durations;
-        this.commCosts = commCosts;
+
+        int numberOfEdges = 0;
+        for (List<Integer> taskChildren : childrenList) {
+            numberOfEdges += taskChildren.size();
+        }
+        int[] sources = new int[numberOfEdges];
+        int[] targets = new int[numberOfEdges];
+        int[] costs = new int[numberOfEdges];
+        int edge = 0;
+        for (int i = 0; i < numberOfTasks; i++) {
+            for (int child : childrenList[i]) {
+                sources[edge] = i;
+                targets[edge] = child;
+                costs[edge++] = commCosts[i][child];
+            }
+        }
+        initializeEdges(sources, targets, costs);
     }
 
     /**
-     * Initializes all data structures which store the input graphs information.
-     * @param n Number of nodes in the input graph.
+     * Builds the parent and child rows from a list of edges.
      */
-    private void initializeDataStructures(int n) {
-        parentsList = new List[n];
-        childrenList = new List[n];
-        durations = new int[n];
-        commCosts = new int[n][n];
+    private void initializeEdges(int[] sources, int[] targets, int[] commCosts) {
+        int numberOfEdges = sources.length;
+
+        // the sorts are stable, so sorting by target and then by source sorts each row of children, and sorting
+        // that order by target sorts each row of parents
+        int[] bySource = countingSort(sources, countingSort(targets, identity(numberOfEdges)));
+        int[] byTarget = countingSort(targets, bySource);
+
+        childOffsets = offsets(sources);
+        children = new int[numberOfEdges];
+        childCommCosts = new int[numberOfEdges];
+        for (int i = 0; i < numberOfEdges; i++) {
+            children[i] = targets[bySource[i]];
+            childCommCosts[i] = commCosts[bySource[i]];
+        }
+
+        parentOffsets = offsets(targets);
+        parents = new int[numberOfEdges];
+        parentCommCosts = new int[numberOfEdges];
+        for (int i = 0; i < numberOfEdges; i++) {
+            parents[i] = sources[byTarget[i]];
+            parentCommCosts[i] = commCosts[byTarget[i]];
+        }
+    }
+
+    /**
+     * @return The array 0, 1, ..., n - 1.
+     */
+    private static int[] identity(int n) {
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        return order;
+    }
 
-        for(int i = 0; i < n; i++) {
-            parentsList[i] = new ArrayList<Integer>();
-            childrenList[i] = new ArrayList<Integer>();
+    /**
+     * Stably sorts the edges in the given order by their key.
+     * @return The edges ordered by key.
+     */
+    private int[] countingSort(int[] keys, int[] order) {
+        int[] next = offsets(keys);
+        int[] sorted = new int[order.length];
+        for (int edge : order) {
+            sorted[next[keys[edge]]++] = edge;
         }
+        return sorted;
     }
 
+    /**
+     * @return The index of the first edge of each task if the edges are sorted by the given keys, followed by the
+     * number of edges.
+     */
+    private int[] offsets(int[] keys) {
+        int[] offsets = new int[numberOfTasks + 1];
+        for (int key : keys) {
+            offsets[key + 1]++;
+        }
+        for (int i = 0; i < numberOfTasks; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+        return offsets;
+    }
 
     /**
      * @return The number of tasks in the task graph.
@@ -78,17 +206,82 @@ public class TaskGraph {
     }
 
     /**
-     * @return A list of the parents of the input task.
+     * @return The number of edges in the task graph.
+     */
+    public int getNumberOfEdges() {
+        return children.length;
+    }
+
+    /**
+     * @return A read only list of the parents of the input task. The loops which run often should use the
+     * parent arrays instead, which do not box the tasks.
      */
     public List<Integer> getParentsList(int task) {
-        return parentsList[task];
+        return new Row(parents, parentOffsets[task], parentOffsets[task + 1]);
     }
 
     /**
-     * @return A list of the children of the input task.
+     * @return A read only list of the children of the input task. The loops which run often should use the
+     * child arrays instead, which do not box the tasks.
      */
     public List<Integer> getChildrenList(int task) {
-        return childrenList[task];
+        return new Row(children, childOffsets[task], childOffsets[task + 1]);
+    }
+
+    /**
+     * @return The index in getParents() of the first parent of each task, followed by the number of edges.
+     */
+    public int[] getParentOffsets() {
+        return parentOffsets;
+    }
+
+    /**
+     * @return The parents of every task, one row per task.
+     */
+    public int[] getParents() {
+        return parents;
+    }
+
+    /**
+     * @return The communication cost from each parent in getParents() to its child.
+     */
+    public int[] getParentCommCosts() {
+        return parentCommCosts;
+    }
+
+    /**
+     * @return The index in getChildren() of the first child of each task, followed by the number of edges.
+     */
+    public int[] getChildOffsets() {
+        return childOffsets;
+    }
+
+    /**
+     * @return The children of every task, one row per task.
+     */
+    public int[] getChildren() {
+        return children;
+    }
+
+    /**
+     * @return The communication cost to each child in getChildren() from its parent.
+     */
+    public int[] getChildCommCosts() {
+        return childCommCosts;
+    }
+
+    /**
+     * @return The number of parents of the input task.
+     */
+    public int getNumberOfParents(int task) {
+        return parentOffsets[task + 1] - parentOffsets[task];
+    }
+
+    /**
+     * @return The number of children of the input task.
+     */
+    public int getNumberOfChildren(int task) {
+        return childOffsets[task + 1] - childOffsets[task];
     }
 
     /**
@@ -105,11 +298,156 @@ public class TaskGraph {
      * from the parent. If (parent is not a parent of child), returns 0.
      */
     public int getCommCost(int parent, int child) {
-        return commCosts[parent][child];
+        int edge = getEdgeIndex(parent, child);
+        return edge == -1 ? 0 : childCommCosts[edge];
+    }
+
+    /**
+     * @return Whether the child depends directly on the parent.
+     */
+    public boolean hasEdge(int parent, int child) {
+        return getEdgeIndex(parent, child) != -1;
+    }
+
+    /**
+     * Looks the edge up in the sorted row of the parent, in O(log d).
+     * @return The index of the child in getChildren(), or -1 if there is no such edge.
+     */
+    public int getEdgeIndex(int parent, int child) {
+        int low = childOffsets[parent];
+        int high = childOffsets[parent + 1] - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (children[middle] < child) {
+                low = middle + 1;
+            } else if (children[middle] > child) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
     }
 
      /**
      * @return The duration of all input tasks.
      */
     public int[] getDurations() { return durations; }
-}
\ No newline at end of file
+
+    /**
+     * @return The tasks in topological order, where every task comes after all of its parents.
+     */
+    public synchronized int[] getTopologicalOrder() {
+        if (topologicalOrder == null) {
+            calculateLevels();
+        }
+        return topologicalOrder;
+    }
+
+    /**
+     * @return The number of parents of each task.
+     */
+    public synchronized int[] getInDegrees() {
+        if (inDegrees == null) {
+            calculateLevels();
+        }
+        return inDegrees;
+    }
+
+    /**
+     * @return The b-level of each task: its duration plus the longest path of durations to an exit task.
+     */
+    public synchronized int[] getBLevels() {
+        if (bLevels == null) {
+            calculateLevels();
+        }
+        return bLevels;
+    }
+
+    /**
+     * @return The t-level of each task: the longest path of durations from an entry task, excluding the task itself.
+     */
+    public synchronized int[] getTLevels() {
+        if (tLevels == null) {
+            calculateLevels();
+        }
+        return tLevels;
+    }
+
+    /**
+     * Finds a topological order, and the in-degrees, b-levels and t-levels from it without recursion.
+     */
+    private void calculateLevels() {
+        int[] order = new int[numberOfTasks];
+        int[] degrees = new int[numberOfTasks];
+        int[] remainingParents = new int[numberOfTasks];
+        int tail = 0;
+        for (int i = 0; i < numberOfTasks; i++) {
+            degrees[i] = parentOffsets[i + 1] - parentOffsets[i];
+            remainingParents[i] = degrees[i];
+            if (degrees[i] == 0) {
+                order[tail++] = i;
+            }
+        }
+        // the order array is also the queue of tasks whose parents have all been taken
+        for (int head = 0; head < tail; head++) {
+            int task = order[head];
+            for (int i = childOffsets[task]; i < childOffsets[task + 1]; i++) {
+                int child = children[i];
+                remainingParents[child]--;
+                if (remainingParents[child] == 0) {
+                    order[tail++] = child;
+                }
+            }
+        }
+
+        int[] tops = new int[numberOfTasks];
+        for (int task : order) {
+            for (int i = childOffsets[task]; i < childOffsets[task + 1]; i++) {
+                tops[children[i]] = Math.max(tops[children[i]], tops[task] + durations[task]);
+            }
+        }
+        int[] bottoms = new int[numberOfTasks];
+        for (int i = numberOfTasks - 1; i >= 0; i--) {
+            int task = order[i];
+            int maxLength = 0;
+            for (int j = childOffsets[task]; j < childOffsets[task + 1]; j++) {
+                maxLength = Math.max(maxLength, bottoms[children[j]]);
+            }
+            bottoms[task] = maxLength + durations[task];
+        }
+
+        topologicalOrder = order;
+        inDegrees = degrees;
+        bLevels = bottoms;
+        tLevels = tops;
+    }
+
+    /**
+     * A read only view of one row of the parent or child arrays.
+     */
+    private static class Row extends AbstractList<Integer> implements RandomAccess {
+        private final int[] tasks;
+        private final int start;
+        private final int end;
+
+        private Row(int[] tasks, int start, int end) {
+            this.tasks = tasks;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public Integer get(int index) {
+            if (index < 0 || index >= end - start) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + (end - start));
+            }
+            return tasks[start + index];
+        }
+
+        @Override
+        public int size() {
+            return end - start;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package io;
+
+import data.TaskGraph;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads a task graph from a binary task graph file, which is much smaller and faster to read than a dot file, e.g. to
+ * schedule the same graph many times. The file is memory mapped, and its arrays are copied into the TaskGraph with
+ * bulk transfers, so there is nothing to parse.
+ *
+ * A file holds little endian ints, written by BinaryGraphWriter:
+ * <ul>
+ *     <li>the header: MAGIC, VERSION, the number of tasks n, the number of edges e and the length of the names</li>
+ *     <li>the duration of each task (n ints)</li>
+ *     <li>the edges in compressed sparse rows: the child offsets (n + 1 ints), the children (e ints) and the
+ *     communication costs (e ints), as in TaskGraph</li>
+ *     <li>the offsets of the names (n + 2 ints), where name 0 is the name of the graph and name i + 1 is the id of
+ *     task i in the dot file, followed by the names in UTF-8</li>
+ * </ul>
+ */
+public class BinaryGraphReader {
+    static final int MAGIC = 0x46524754; // "TGRF" in little endian
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 5 * 4;
+
+    private final FileChannel channel;
+
+    /**
+     * @param channel The task graph file, which is memory mapped. It can be closed after reading, and must not be
+     *                changed while it is read.
+     */
+    public BinaryGraphReader(FileChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * @param channel An open file, which is read from its start. Its position is not changed.
+     * @return Whether the file starts like a binary task graph file, rather than a dot file.
+     * @throws IOException If the file cannot be read.
+     */
+    public static boolean isBinaryGraph(FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+        int read = 0;
+        while (header.hasRemaining() && read >= 0) {
+            read = channel.read(header, header.position());
+        }
+        return !header.hasRemaining() && header.getInt(0) == MAGIC;
+    }
+
+    /**
+     * Reads the whole file.
+     * @return The graph, with the names needed to write the output file.
+     * @throws IOException If the file cannot be read, or is not a valid task graph file of this version.
+     */
+    public DotGraph read() throws IOException {
+        long size = channel.size();
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Task graph files over 2 GB are not supported");
+        }
+        if (size < HEADER_SIZE) {
+            throw new IOException("Not a task graph file");
+        }
+        ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a task graph file");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("Unsupported task graph file version " + buffer.getInt(4));
+        }
+        int numberOfTasks = buffer.getInt(8);
+        int numberOfEdges = buffer.getInt(12);
+        int nameLength = buffer.getInt(16);
+        long namesStart = HEADER_SIZE + 4L * ((long) numberOfTasks * 3 + 3 + (long) numberOfEdges * 2);
+        if (numberOfTasks < 0 || numberOfEdges < 0 || nameLength < 0 || namesStart + nameLength != size) {
+            throw new IOException("Task graph file is truncated or corrupt");
+        }
+
+        buffer.position(HEADER_SIZE);
+        IntBuffer ints = buffer.asIntBuffer();
+        int[] durations = new int[numberOfTasks];
+        int[] childOffsets = new int[numberOfTasks + 1];
+        int[] children = new int[numberOfEdges];
+        int[] childCommCosts = new int[numberOfEdges];
+        int[] nameOffsets = new int[numberOfTasks + 2];
+        ints.get(durations);
+        ints.get(childOffsets);
+        ints.get(children);
+        ints.get(childCommCosts);
+        ints.get(nameOffsets);
+        checkOffsets(childOffsets, numberOfEdges);
+        checkOffsets(nameOffsets, nameLength);
+
+        // TaskGraph looks edges up by binary search, so each row of children must be sorted
+        for (int task = 0; task < numberOfTasks; task++) {
+            for (int i = childOffsets[task]; i < childOffsets[task + 1]; i++) {
+                boolean sorted = i == childOffsets[task] || children[i - 1] <= children[i];
+                if (children[i] < 0 || children[i] >= numberOfTasks || !sorted) {
+                    throw new IOException("Task graph file is truncated or corrupt");
+                }
+            }
+        }
+
+        byte[] names = new byte[nameLength];
+        buffer.position((int) namesStart);
+        buffer.get(names);
+        String name = new String(names, nameOffsets[0], nameOffsets[1] - nameOffsets[0], StandardCharsets.UTF_8);
+        String[] taskIds = new String[numberOfTasks];
+        for (int i = 0; i < numberOfTasks; i++) {
+            taskIds[i] = new String(names, nameOffsets[i + 1], nameOffsets[i + 2] - nameOffsets[i + 1],
+                    StandardCharsets.UTF_8);
+        }
+
+        return new DotGraph(name, taskIds, TaskGraph.fromChildRows(durations, childOffsets, children, childCommCosts));
+    }
+
+    /**
+     * Checks that the offsets start at 0, never decrease and end at the given length.
+     */
+    private static void checkOffsets(int[] offsets, int length) throws IOException {
+        boolean valid = offsets[0] == 0 && offsets[offsets.length - 1] == length;
+        for (int i = 1; i < offsets.length && valid; i++) {
+            valid = offsets[i - 1] <= offsets[i];
+        }
+        if (!valid) {
+            throw new IOException("Task graph file is truncated or corrupt");
+        }
+    }
+}
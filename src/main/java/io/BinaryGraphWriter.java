@@ -0,0 +1,91 @@
+package io;
+
+import data.TaskGraph;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes a task graph to a binary task graph file, in the format described in BinaryGraphReader.
+ */
+public class BinaryGraphWriter {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+
+    /**
+     * @param channel The output file, which is written in blocks, so it does not need to be buffered.
+     */
+    public BinaryGraphWriter(WritableByteChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Writes the whole graph.
+     * @param dotGraph The graph, with the names of the graph and its tasks.
+     * @throws IOException If the file cannot be written.
+     */
+    public void write(DotGraph dotGraph) throws IOException {
+        TaskGraph taskGraph = dotGraph.getTaskGraph();
+        int numberOfTasks = taskGraph.getNumberOfTasks();
+
+        byte[][] names = new byte[numberOfTasks + 1][];
+        names[0] = dotGraph.getName().getBytes(StandardCharsets.UTF_8);
+        for (int i = 0; i < numberOfTasks; i++) {
+            names[i + 1] = dotGraph.getTaskId(i).getBytes(StandardCharsets.UTF_8);
+        }
+        int[] nameOffsets = new int[numberOfTasks + 2];
+        for (int i = 0; i < names.length; i++) {
+            nameOffsets[i + 1] = nameOffsets[i] + names[i].length;
+        }
+
+        writeInts(new int[] {BinaryGraphReader.MAGIC, BinaryGraphReader.VERSION, numberOfTasks,
+                taskGraph.getNumberOfEdges(), nameOffsets[names.length]});
+        writeInts(taskGraph.getDurations());
+        writeInts(taskGraph.getChildOffsets());
+        writeInts(taskGraph.getChildren());
+        writeInts(taskGraph.getChildCommCosts());
+        writeInts(nameOffsets);
+        for (byte[] name : names) {
+            writeBytes(name);
+        }
+        flush();
+    }
+
+    private void writeInts(int[] values) throws IOException {
+        int i = 0;
+        while (i < values.length) {
+            if (buffer.remaining() < 4) {
+                flush();
+            }
+            int count = Math.min(values.length - i, buffer.remaining() / 4);
+            buffer.asIntBuffer().put(values, i, count);
+            buffer.position(buffer.position() + count * 4);
+            i += count;
+        }
+    }
+
+    private void writeBytes(byte[] values) throws IOException {
+        int i = 0;
+        while (i < values.length) {
+            if (!buffer.hasRemaining()) {
+                flush();
+            }
+            int count = Math.min(values.length - i, buffer.remaining());
+            buffer.put(values, i, count);
+            i += count;
+        }
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
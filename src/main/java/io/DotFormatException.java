@@ -0,0 +1,17 @@
+package io;
+
+import java.io.IOException;
+
+/**
+ * Thrown by DotReader when a dot file uses syntax it does not support, or is not a valid task graph.
+ */
+public class DotFormatException extends IOException {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * @param message What was wrong, and where.
+     */
+    public DotFormatException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,112 @@
+package io;
+
+import data.Schedule;
+import data.Task;
+import data.TaskGraph;
+import org.graphstream.graph.Graph;
+
+import java.util.HashMap;
+
+/**
+ * A task graph read from a dot file, with the names of the graph and its tasks which are needed to write the output
+ * file. Task i of the task graph is the i-th node of the file.
+ */
+public class DotGraph {
+    private final String name;
+    private final String[] taskIds;
+    private final TaskGraph taskGraph;
+    private final Schedule schedule; // null unless the file is a schedule, e.g. an output file
+    private HashMap<String, Integer> taskIndices; // created when a task is first looked up by its id
+
+    /**
+     * @param name The name of the graph.
+     * @param taskIds The id of each task in the dot file.
+     * @param taskGraph The tasks and their dependencies.
+     */
+    public DotGraph(String name, String[] taskIds, TaskGraph taskGraph) {
+        this(name, taskIds, taskGraph, null);
+    }
+
+    /**
+     * @param name The name of the graph.
+     * @param taskIds The id of each task in the dot file.
+     * @param taskGraph The tasks and their dependencies.
+     * @param schedule The schedule given by the Start and Processor of the tasks, or null if there is none.
+     */
+    public DotGraph(String name, String[] taskIds, TaskGraph taskGraph, Schedule schedule) {
+        this.name = name;
+        this.taskIds = taskIds;
+        this.taskGraph = taskGraph;
+        this.schedule = schedule;
+    }
+
+    /**
+     * Converts a graph parsed by GraphStream.
+     * @param graph The graph, whose nodes and edges have a Weight attribute.
+     */
+    public static DotGraph fromGraph(Graph graph) {
+        String[] taskIds = new String[graph.getNodeCount()];
+        for (int i = 0; i < taskIds.length; i++) {
+            taskIds[i] = graph.getNode(i).getId();
+        }
+        TaskGraph taskGraph = new TaskGraph(graph);
+
+        // the schedule of an output file
+        Task[] tasks = new Task[taskIds.length];
+        int finishTime = 0;
+        for (int i = 0; i < taskIds.length; i++) {
+            Object start = graph.getNode(i).getAttribute("Start");
+            Object processor = graph.getNode(i).getAttribute("Processor");
+            if (!(start instanceof Number) || !(processor instanceof Number)) {
+                return new DotGraph(graph.getId(), taskIds, taskGraph);
+            }
+            int startTime = ((Number) start).intValue();
+            tasks[i] = new Task(startTime, startTime + taskGraph.getDuration(i), ((Number) processor).intValue() - 1);
+            finishTime = Math.max(finishTime, tasks[i].getFinishTime());
+        }
+        return new DotGraph(graph.getId(), taskIds, taskGraph, new Schedule(tasks, finishTime));
+    }
+
+    /**
+     * @return The name of the graph.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return The id of task i in the dot file.
+     */
+    public String getTaskId(int task) {
+        return taskIds[task];
+    }
+
+    /**
+     * @param taskId The id of a task in the dot file.
+     * @return The index of the task, or -1 if there is no task with the id.
+     */
+    public synchronized int getTask(String taskId) {
+        if (taskIndices == null) {
+            taskIndices = new HashMap<>();
+            for (int i = 0; i < taskIds.length; i++) {
+                taskIndices.put(taskIds[i], i);
+            }
+        }
+        return taskIndices.getOrDefault(taskId, -1);
+    }
+
+    /**
+     * @return The schedule given by the Start and Processor attributes of every task, with processors numbered from
+     * 0, or null if the file is not a schedule. It has not been checked to be valid.
+     */
+    public Schedule getSchedule() {
+        return schedule;
+    }
+
+    /**
+     * @return The tasks and their dependencies.
+     */
+    public TaskGraph getTaskGraph() {
+        return taskGraph;
+    }
+}
@@ -0,0 +1,562 @@
+package io;
+
+import data.Schedule;
+import data.Task;
+import data.TaskGraph;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Reads a task graph from a dot file in one pass, straight into the arrays of a TaskGraph, without building the node
+ * and edge objects of a GraphStream graph.
+ *
+ * It supports the subset of the dot language used for task graphs: a digraph of node statements and edge statements
+ * (which may be chained, a -> b -> c) with attribute lists, where every node has a Weight and every edge has a Weight.
+ * The Start and Processor attributes of the nodes of an output file are read as its schedule. Other attributes, and
+ * graph attribute statements, are ignored. Anything else, e.g. subgraphs, default node or edge
+ * attributes or undirected edges, throws a DotFormatException, so the file can be read with GraphStream instead.
+ *
+ * Tasks are numbered in the order they first appear in the file, like the nodes of a GraphStream graph.
+ *
+ * A file can also be read from a FileChannel, which is memory mapped and parsed straight from the mapped bytes
+ * without decoding them into characters. Files over 2 GB are mapped in chunks. Only ASCII is supported this way, other
+ * bytes throw a DotFormatException.
+ */
+public class DotReader {
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int CHUNK_SIZE = 1 << 30; // bytes of a file mapped at once, a buffer holds at most 2 GB
+    private static final int NO_WEIGHT = Integer.MIN_VALUE;
+    private static final int MAX_NUMERIC_ID = 1 << 20; // larger numeric ids are looked up in taskIndices
+
+    // token types
+    private static final int END = 0;
+    private static final int ID = 1; // an identifier, number or quoted string
+    private static final int SYMBOL = 2; // one of { } [ ] = ; , or the edge operator ->
+
+    private final Reader reader; // null if the file is mapped
+    private final char[] buffer;
+    private final FileChannel channel; // null if the file is read from the reader
+    private final int chunkSize;
+    private ByteBuffer bytes; // the chunk of the file that is mapped
+    private long fileOffset = 0; // position in the file of the next chunk to map
+    private int position = 0;
+    private int limit = 0;
+    private boolean isAtEnd = false; // the end of the file was read, so every later character is -1
+    private int line = 1;
+
+    private int tokenType;
+    private char[] token = new char[64];
+    private int tokenLength = 0;
+    private boolean isQuoted = false; // the token is a quoted string, which is never a keyword
+    private char[] firstToken = new char[64]; // the first id of the statement being read
+    private int firstTokenLength = 0;
+    private boolean hasPeeked = false;
+
+    private final HashMap<String, Integer> taskIndices = new HashMap<>();
+    private int[] numericTaskIndices = new int[16]; // numericTaskIndices[i] => 1 + the task with id i, 0 if none
+    private final ArrayList<String> taskIds = new ArrayList<>();
+    private int[] durations = new int[16];
+    private int[] startTimes = new int[16]; // NO_WEIGHT if the task has no Start
+    private int[] processors = new int[16]; // NO_WEIGHT if the task has no Processor
+    private int start; // the Start of the last attribute list read, or NO_WEIGHT
+    private int processor; // the Processor of the last attribute list read, or NO_WEIGHT
+    private int numberOfEdges = 0;
+    private int[] sources = new int[16];
+    private int[] targets = new int[16];
+    private int[] commCosts = new int[16];
+
+    /**
+     * @param reader The dot file, which is read in blocks, so it does not need to be buffered.
+     */
+    public DotReader(Reader reader) {
+        this.reader = reader;
+        buffer = new char[BUFFER_SIZE];
+        channel = null;
+        chunkSize = 0;
+    }
+
+    /**
+     * @param channel The dot file, which is memory mapped. It can be closed after reading, and must not be changed
+     *                while it is read.
+     */
+    public DotReader(FileChannel channel) {
+        this(channel, CHUNK_SIZE);
+    }
+
+    /**
+     * Only used for testing purposes, to map a file in small chunks.
+     */
+    DotReader(FileChannel channel, int chunkSize) {
+        reader = null;
+        buffer = null;
+        this.channel = channel;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Reads the whole graph.
+     * @return The task graph with the names of its tasks.
+     * @throws DotFormatException If the file uses syntax that is not supported, or a weight is missing.
+     * @throws IOException If the file cannot be read.
+     */
+    public DotGraph read() throws IOException {
+        String name = "";
+        next();
+        if (isKeyword("strict")) {
+            next();
+        }
+        if (!isKeyword("digraph")) {
+            throw error("expected digraph");
+        }
+        next();
+        if (tokenType == ID) {
+            name = tokenString();
+            next();
+        }
+        if (!isSymbol("{")) {
+            throw error("expected {");
+        }
+
+        while (true) {
+            next();
+            if (isSymbol("}")) {
+                break;
+            } else if (isSymbol(";")) {
+                continue;
+            } else if (tokenType != ID) {
+                throw error("expected a statement");
+            } else if (isKeyword("graph")) {
+                // attributes of the graph are ignored
+                readAttributes();
+                continue;
+            } else if (isKeyword("node") || isKeyword("edge") || isKeyword("subgraph")) {
+                throw error("unsupported statement " + tokenString());
+            }
+            readStatement();
+        }
+        next();
+        if (tokenType != END) {
+            throw error("expected the end of the file");
+        }
+
+        String[] ids = taskIds.toArray(new String[0]);
+        int[] taskDurations = Arrays.copyOf(durations, ids.length);
+        for (int i = 0; i < ids.length; i++) {
+            if (taskDurations[i] == NO_WEIGHT) {
+                throw new DotFormatException("Task " + ids[i] + " has no Weight");
+            }
+        }
+        TaskGraph taskGraph = new TaskGraph(taskDurations, Arrays.copyOf(sources, numberOfEdges),
+                Arrays.copyOf(targets, numberOfEdges), Arrays.copyOf(commCosts, numberOfEdges));
+        return new DotGraph(name, ids, taskGraph, readSchedule(taskDurations));
+    }
+
+    /**
+     * @return The schedule given by the Start and Processor of every task, or null unless every task has both.
+     */
+    private Schedule readSchedule(int[] taskDurations) throws DotFormatException {
+        Task[] tasks = new Task[taskDurations.length];
+        int finishTime = 0;
+        for (int i = 0; i < tasks.length; i++) {
+            if (startTimes[i] == NO_WEIGHT || processors[i] == NO_WEIGHT) {
+                return null;
+            }
+            // processors are numbered from 1 in the file
+            if (startTimes[i] < 0 || processors[i] < 1) {
+                throw new DotFormatException("Task " + taskIds.get(i) + " has an invalid Start or Processor");
+            }
+            tasks[i] = new Task(startTimes[i], startTimes[i] + taskDurations[i], processors[i] - 1);
+            finishTime = Math.max(finishTime, tasks[i].getFinishTime());
+        }
+        return new Schedule(tasks, finishTime);
+    }
+
+    /**
+     * Reads a node statement, an edge statement or a graph attribute, starting from its first id.
+     */
+    private void readStatement() throws IOException {
+        if (firstToken.length < tokenLength) {
+            firstToken = new char[token.length];
+        }
+        System.arraycopy(token, 0, firstToken, 0, tokenLength);
+        firstTokenLength = tokenLength;
+        next();
+
+        // a graph attribute, e.g. rankdir = LR
+        if (isSymbol("=")) {
+            next();
+            if (tokenType != ID) {
+                throw error("expected a value");
+            }
+            return;
+        }
+
+        int task = getTask(firstToken, firstTokenLength);
+        if (!isSymbol("->")) {
+            hasPeeked = true;
+            int weight = readAttributes();
+            if (weight != NO_WEIGHT) {
+                durations[task] = weight;
+            }
+            if (start != NO_WEIGHT) {
+                startTimes[task] = start;
+            }
+            if (processor != NO_WEIGHT) {
+                processors[task] = processor;
+            }
+            return;
+        }
+
+        // an edge statement, whose attributes apply to every edge in the chain
+        int firstEdge = numberOfEdges;
+        while (isSymbol("->")) {
+            next();
+            if (tokenType != ID) {
+                throw error("expected a node");
+            }
+            int child = getTask(token, tokenLength);
+            addEdge(task, child);
+            task = child;
+            next();
+        }
+        hasPeeked = true;
+        int weight = readAttributes();
+        if (weight == NO_WEIGHT) {
+            throw error("edge has no Weight");
+        }
+        for (int edge = firstEdge; edge < numberOfEdges; edge++) {
+            commCosts[edge] = weight;
+        }
+    }
+
+    /**
+     * Reads any attribute lists after a statement, keeping the Start and Processor attributes in start and processor.
+     * @return The Weight attribute, or NO_WEIGHT if there is none.
+     */
+    private int readAttributes() throws IOException {
+        int weight = NO_WEIGHT;
+        start = NO_WEIGHT;
+        processor = NO_WEIGHT;
+        next();
+        while (isSymbol("[")) {
+            next();
+            while (!isSymbol("]")) {
+                if (tokenType != ID) {
+                    throw error("expected an attribute");
+                }
+                boolean isWeight = tokenEquals("Weight");
+                boolean isStart = tokenEquals("Start");
+                boolean isProcessor = tokenEquals("Processor");
+                expectSymbol("=");
+                next();
+                if (tokenType != ID) {
+                    throw error("expected a value");
+                }
+                if (isWeight) {
+                    weight = parseWeight("Weight");
+                } else if (isStart) {
+                    start = parseWeight("Start");
+                } else if (isProcessor) {
+                    processor = parseWeight("Processor");
+                }
+                next();
+                if (isSymbol(",") || isSymbol(";")) {
+                    next();
+                }
+            }
+            next();
+        }
+        if (!isSymbol(";")) {
+            hasPeeked = true;
+        }
+        return weight;
+    }
+
+    /**
+     * @return The index of the task with the id, adding the task if it has not appeared before.
+     */
+    private int getTask(char[] id, int length) {
+        // ids are usually small numbers, which are looked up in an array without creating a string
+        int number = parseNumericId(id, length);
+        if (number != -1) {
+            if (number >= numericTaskIndices.length) {
+                numericTaskIndices = Arrays.copyOf(numericTaskIndices,
+                        Math.max(number + 1, Math.min(MAX_NUMERIC_ID, numericTaskIndices.length * 2)));
+            }
+            if (numericTaskIndices[number] == 0) {
+                numericTaskIndices[number] = addTask(new String(id, 0, length)) + 1;
+            }
+            return numericTaskIndices[number] - 1;
+        }
+
+        String key = new String(id, 0, length);
+        Integer task = taskIndices.get(key);
+        if (task == null) {
+            task = addTask(key);
+            taskIndices.put(key, task);
+        }
+        return task;
+    }
+
+    /**
+     * @return The id as a number if it is written without leading zeros and is less than MAX_NUMERIC_ID, otherwise -1.
+     */
+    private static int parseNumericId(char[] id, int length) {
+        if (length == 0 || length > 7 || (id[0] == '0' && length > 1)) {
+            return -1;
+        }
+        int number = 0;
+        for (int i = 0; i < length; i++) {
+            char c = id[i];
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            number = number * 10 + c - '0';
+        }
+        return number < MAX_NUMERIC_ID ? number : -1;
+    }
+
+    private int addTask(String id) {
+        int task = taskIds.size();
+        taskIds.add(id);
+        if (task == durations.length) {
+            durations = Arrays.copyOf(durations, task * 2);
+            startTimes = Arrays.copyOf(startTimes, task * 2);
+            processors = Arrays.copyOf(processors, task * 2);
+        }
+        durations[task] = NO_WEIGHT;
+        startTimes[task] = NO_WEIGHT;
+        processors[task] = NO_WEIGHT;
+        return task;
+    }
+
+    private void addEdge(int source, int target) {
+        if (numberOfEdges == sources.length) {
+            sources = Arrays.copyOf(sources, numberOfEdges * 2);
+            targets = Arrays.copyOf(targets, numberOfEdges * 2);
+            commCosts = Arrays.copyOf(commCosts, numberOfEdges * 2);
+        }
+        sources[numberOfEdges] = source;
+        targets[numberOfEdges] = target;
+        numberOfEdges++;
+    }
+
+    private boolean isKeyword(String keyword) {
+        if (tokenType != ID || isQuoted || tokenLength != keyword.length()) {
+            return false;
+        }
+        for (int i = 0; i < keyword.length(); i++) {
+            if (Character.toLowerCase(token[i]) != keyword.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isSymbol(String symbol) {
+        return tokenType == SYMBOL && tokenEquals(symbol);
+    }
+
+    private boolean tokenEquals(String text) {
+        if (tokenLength != text.length()) {
+            return false;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            if (token[i] != text.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param attribute The name of the attribute, for the error message.
+     * @return The current token as a number, truncated to an int like the weights read by GraphStream.
+     */
+    private int parseWeight(String attribute) throws DotFormatException {
+        // most weights are small integers, which are parsed without creating a string
+        int value = 0;
+        int start = tokenLength > 0 && token[0] == '-' ? 1 : 0;
+        boolean isInteger = tokenLength > start && tokenLength <= 9;
+        for (int i = start; i < tokenLength && isInteger; i++) {
+            char c = token[i];
+            isInteger = c >= '0' && c <= '9';
+            value = value * 10 + c - '0';
+        }
+        if (isInteger) {
+            return start == 1 ? -value : value;
+        }
+
+        try {
+            return (int) Double.parseDouble(tokenString());
+        } catch (NumberFormatException e) {
+            throw error("invalid " + attribute + " " + tokenString());
+        }
+    }
+
+    private void expectSymbol(String symbol) throws IOException {
+        next();
+        if (!isSymbol(symbol)) {
+            throw error("expected " + symbol);
+        }
+    }
+
+    private DotFormatException error(String message) {
+        return new DotFormatException("Line " + line + ": " + message + (tokenType == END ? "" : " at " + tokenString()));
+    }
+
+    /**
+     * Reads the next token, unless the current token has been pushed back.
+     */
+    private void next() throws IOException {
+        if (hasPeeked) {
+            hasPeeked = false;
+            return;
+        }
+        tokenLength = 0;
+        isQuoted = false;
+
+        // skip whitespace and comments
+        int c = readChar();
+        while (true) {
+            if (c == '\n') {
+                line++;
+                c = readChar();
+            } else if (c == ' ' || c == '\t' || c == '\r' || c == '\f' || (c > 127 && Character.isWhitespace(c))) {
+                c = readChar();
+            } else if (c == '#') {
+                c = skipLine();
+            } else if (c == '/' && peek() == '/') {
+                c = skipLine();
+            } else if (c == '/' && peek() == '*') {
+                readChar();
+                int previous = 0;
+                c = readChar();
+                while (!(previous == '*' && c == '/')) {
+                    if (c == -1) {
+                        tokenType = END;
+                        throw error("unterminated comment");
+                    } else if (c == '\n') {
+                        line++;
+                    }
+                    previous = c;
+                    c = readChar();
+                }
+                c = readChar();
+            } else {
+                break;
+            }
+        }
+
+        if (c == -1) {
+            tokenType = END;
+        } else if (c == '"') {
+            tokenType = ID;
+            isQuoted = true;
+            c = readChar();
+            while (c != '"') {
+                if (c == -1) {
+                    throw error("unterminated string");
+                } else if (c == '\\') {
+                    int escaped = readChar();
+                    if (escaped != '"') {
+                        append('\\');
+                    }
+                    c = escaped;
+                } else if (c == '\n') {
+                    line++;
+                }
+                append(c);
+                c = readChar();
+            }
+        } else if (c == '-' && peek() == '>') {
+            readChar();
+            tokenType = SYMBOL;
+            append('-');
+            append('>');
+        } else if ("{}[]=;,".indexOf(c) != -1) {
+            tokenType = SYMBOL;
+            append(c);
+        } else if (isIdCharacter(c) || (c == '-' && (Character.isDigit(peek()) || peek() == '.'))) {
+            tokenType = ID;
+            append(c);
+            while (isIdCharacter(peek())) {
+                append(readChar());
+            }
+        } else {
+            // e.g. the undirected edge operator, HTML strings or ports
+            throw error("unsupported character '" + (char) c + "'");
+        }
+    }
+
+    private static boolean isIdCharacter(int c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_' || c == '.'
+                || (c > 127 && Character.isLetterOrDigit(c));
+    }
+
+    private void append(int c) {
+        if (tokenLength == token.length) {
+            token = Arrays.copyOf(token, tokenLength * 2);
+        }
+        token[tokenLength++] = (char) c;
+    }
+
+    private String tokenString() {
+        return new String(token, 0, tokenLength);
+    }
+
+    private int skipLine() throws IOException {
+        int c = readChar();
+        while (c != '\n' && c != -1) {
+            c = readChar();
+        }
+        return c;
+    }
+
+    private int readChar() throws IOException {
+        int c = peek();
+        if (c != -1) {
+            position++;
+        }
+        return c;
+    }
+
+    private int peek() throws IOException {
+        if (position == limit && (isAtEnd || !fill())) {
+            isAtEnd = true;
+            return -1;
+        }
+        if (buffer != null) {
+            return buffer[position];
+        }
+        byte b = bytes.get(position);
+        if (b < 0) {
+            throw new DotFormatException("Line " + line + ": only ASCII is supported in mapped files");
+        }
+        return b;
+    }
+
+    /**
+     * Reads the next block of characters, or maps the next chunk of the file.
+     * @return false at the end of the file.
+     */
+    private boolean fill() throws IOException {
+        position = 0;
+        limit = 0;
+        if (reader != null) {
+            limit = Math.max(0, reader.read(buffer, 0, BUFFER_SIZE));
+        } else if (fileOffset < channel.size()) {
+            long size = Math.min(chunkSize, channel.size() - fileOffset);
+            bytes = channel.map(FileChannel.MapMode.READ_ONLY, fileOffset, size);
+            fileOffset += size;
+            limit = (int) size;
+        }
+        return limit > 0;
+    }
+}
@@ -0,0 +1,178 @@
+package io;
+
+import data.Schedule;
+import data.Task;
+import data.TaskGraph;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes a schedule to a dot file in one pass, from the task graph and the tasks of the schedule, without building a
+ * GraphStream graph. Every task is written with its Weight, Start and Processor, followed by every edge with its
+ * Weight, e.g.
+ *
+ *     digraph example {
+ *         a [Weight=2,Start=0,Processor=1];
+ *         b [Weight=3,Start=2,Processor=1];
+ *         a -> b [Weight=1];
+ *     }
+ *
+ * The tasks are written in the order of the input. The edges are written by parent, and by child within a parent, as
+ * they are stored in the task graph, so they may be in another order than in the input.
+ *
+ * Numbers are formatted into the buffer directly, so writing a schedule allocates almost nothing.
+ */
+public class DotWriter {
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final String[] KEYWORDS = {"node", "edge", "graph", "digraph", "subgraph", "strict"};
+
+    private final Writer writer;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int position = 0;
+    private final char[] digits = new char[10]; // scratch area for formatting numbers
+
+    /**
+     * @param writer The output file, which is written in blocks, so it does not need to be buffered.
+     */
+    public DotWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    /**
+     * Writes the whole schedule and flushes the writer.
+     * @param dotGraph The input graph.
+     * @param schedule The schedule of the tasks of the graph.
+     * @throws IOException If the file cannot be written.
+     */
+    public void write(DotGraph dotGraph, Schedule schedule) throws IOException {
+        write(dotGraph, schedule.getTasks());
+    }
+
+    /**
+     * Writes the graph without a schedule, where every task only has a Weight, and flushes the writer.
+     * @param dotGraph The graph.
+     * @throws IOException If the file cannot be written.
+     */
+    public void write(DotGraph dotGraph) throws IOException {
+        write(dotGraph, (Task[]) null);
+    }
+
+    /**
+     * @param tasks The scheduled tasks, or null to only write the durations.
+     */
+    private void write(DotGraph dotGraph, Task[] tasks) throws IOException {
+        TaskGraph taskGraph = dotGraph.getTaskGraph();
+        int[] childOffsets = taskGraph.getChildOffsets();
+        int[] children = taskGraph.getChildren();
+        int[] childCommCosts = taskGraph.getChildCommCosts();
+
+        append("digraph ");
+        appendId(dotGraph.getName());
+        append(" {\n");
+        // the tasks come before the edges, so a reader adds them in the same order as the input
+        for (int task = 0; task < taskGraph.getNumberOfTasks(); task++) {
+            append('\t');
+            appendId(dotGraph.getTaskId(task));
+            append("\t [Weight=");
+            if (tasks == null) {
+                append(taskGraph.getDuration(task));
+            } else {
+                append(tasks[task].getFinishTime() - tasks[task].getStartTime());
+                append(",Start=");
+                append(tasks[task].getStartTime());
+                // the output uses processor numbers from 1, but the data is stored from 0
+                append(",Processor=");
+                append(tasks[task].getProcessor() + 1);
+            }
+            append("];\n");
+        }
+        for (int parent = 0; parent < taskGraph.getNumberOfTasks(); parent++) {
+            for (int i = childOffsets[parent]; i < childOffsets[parent + 1]; i++) {
+                append('\t');
+                appendId(dotGraph.getTaskId(parent));
+                append(" -> ");
+                appendId(dotGraph.getTaskId(children[i]));
+                append("\t [Weight=");
+                append(childCommCosts[i]);
+                append("];\n");
+            }
+        }
+        append("}\n");
+
+        writer.write(buffer, 0, position);
+        position = 0;
+        writer.flush();
+    }
+
+    /**
+     * Appends the id, quoted unless it is a plain name, which is not a keyword, or number.
+     */
+    private void appendId(String id) throws IOException {
+        if (isPlainId(id)) {
+            append(id);
+            return;
+        }
+        append('"');
+        for (int i = 0; i < id.length(); i++) {
+            char c = id.charAt(i);
+            if (c == '"') {
+                append('\\');
+            }
+            append(c);
+        }
+        append('"');
+    }
+
+    private static boolean isPlainId(String id) {
+        if (id.isEmpty()) {
+            return false;
+        }
+        // keywords are not case sensitive
+        for (String keyword : KEYWORDS) {
+            if (keyword.equalsIgnoreCase(id)) {
+                return false;
+            }
+        }
+        boolean isName = !Character.isDigit(id.charAt(0));
+        for (int i = 0; i < id.length(); i++) {
+            char c = id.charAt(i);
+            boolean isNameCharacter = c == '_' || (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+            if (!(c >= '0' && c <= '9') && !(isName && isNameCharacter)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void append(String text) throws IOException {
+        for (int i = 0; i < text.length(); i++) {
+            append(text.charAt(i));
+        }
+    }
+
+    private void append(int number) throws IOException {
+        long value = number;
+        if (value < 0) {
+            append('-');
+            value = -value;
+        }
+        // write the digits from the back of the scratch area, then copy them in order
+        int start = digits.length;
+        do {
+            digits[--start] = (char) ('0' + value % 10);
+            value /= 10;
+        } while (value > 0);
+        for (int i = start; i < digits.length; i++) {
+            append(digits[i]);
+        }
+    }
+
+    private void append(char c) throws IOException {
+        if (position == BUFFER_SIZE) {
+            writer.write(buffer, 0, position);
+            position = 0;
+        }
+        buffer[position++] = c;
+    }
+}
@@ -0,0 +1,47 @@
+package io;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Converts task graphs between dot files and binary task graph files, which can be given to the scheduler instead of a
+ * dot file and are much faster to read. Run like:
+ *
+ *     java -cp scheduler.jar io.GraphConverter INPUT OUTPUT
+ *
+ * The input can be either kind of file. The output is a dot file if its name ends with .dot, and a binary task graph
+ * file otherwise, e.g. INPUT.tgf.
+ */
+public class GraphConverter {
+
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            System.err.println("Please ensure that the converter is run like: java -cp scheduler.jar " +
+                    "io.GraphConverter INPUT OUTPUT");
+            System.exit(1);
+        }
+
+        DotGraph dotGraph = IOParser.readDotGraph(args[0]);
+        try {
+            if (args[1].endsWith(".dot")) {
+                try (Writer writer = new OutputStreamWriter(new FileOutputStream(args[1]), StandardCharsets.UTF_8)) {
+                    new DotWriter(writer).write(dotGraph);
+                }
+            } else {
+                try (FileChannel channel = FileChannel.open(Paths.get(args[1]), StandardOpenOption.WRITE,
+                        StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                    new BinaryGraphWriter(channel).write(dotGraph);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error writing file: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
@@ -1,14 +1,17 @@
 package io;
 
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 
 import data.Schedule;
-import data.Task;
 import org.graphstream.graph.Graph;
-import org.graphstream.graph.Node;
 import org.graphstream.graph.implementations.DefaultGraph;
-import org.graphstream.stream.file.FileSink;
-import org.graphstream.stream.file.FileSinkDOT;
 import org.graphstream.stream.file.FileSource;
 import org.graphstream.stream.file.FileSourceDOT;
 
@@ -43,27 +46,83 @@ public class IOParser {
         return graph;
     }
 
+    /**
+     * Reads a dot file into a task graph with DotReader, which maps the file into memory and is much faster and
+     * smaller than a GraphStream graph. Files using syntax that DotReader does not support, or characters that are not
+     * ASCII, are read with GraphStream instead. Binary task graph files are read with BinaryGraphReader.
+     * Exits if the file cannot be read.
+     * @param inputFileName The name of the input dot file, or binary task graph file.
+     * @return The tasks and their dependencies, with the names needed to write the output file.
+     */
+    public static DotGraph readDotGraph(String inputFileName) {
+        try {
+            return readGraph(inputFileName);
+        } catch (IOException e) {
+            System.err.println("Error reading file: " + e.getMessage());
+            System.exit(1);
+        }
+        return null;
+    }
+
+    /**
+     * Reads a dot file or binary task graph file like readDotGraph, but throws an exception instead of exiting if
+     * the file cannot be read, e.g. to carry on with the other files of a batch.
+     * @param inputFileName The name of the input dot file, or binary task graph file.
+     * @return The tasks and their dependencies, with the names needed to write the output file.
+     * @throws IOException If the file cannot be read, or is not a valid task graph.
+     */
+    public static DotGraph readGraph(String inputFileName) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(inputFileName), StandardOpenOption.READ)) {
+            if (BinaryGraphReader.isBinaryGraph(channel)) {
+                return new BinaryGraphReader(channel).read();
+            }
+            return new DotReader(channel).read();
+        } catch (DotFormatException e) {
+            // fall back to GraphStream below
+        }
+
+        Graph graph = new DefaultGraph("tempGraph");
+        FileSource fileSource = new FileSourceDOT();
+        try {
+            fileSource.addSink(graph);
+            fileSource.readAll(inputFileName);
+        } catch (Exception e) {
+            throw new IOException("the dot file could not be parsed", e);
+        } finally {
+            fileSource.removeSink(graph);
+        }
+        try {
+            return DotGraph.fromGraph(graph);
+        } catch (RuntimeException e) {
+            throw new IOException("every task and dependency needs a Weight", e);
+        }
+    }
+
     /**
      * Writes a set of results to the output dot file.
      * @param outputFileName The name of the output dot file.
-     * @param dotGraph Graph object that encapsulates the initial tasks and their dependencies.
+     * @param dotGraph The input graph.
      * @param schedule Schedule to write to file.
      */
-    public static void write(String outputFileName, Graph dotGraph, Schedule schedule) {
-        Task[] tasks = schedule.getTasks();
-        for(int i = 0; i < dotGraph.getNodeCount(); i++){
-            Node node = dotGraph.getNode(i);
-            Task task = tasks[i];
-            node.setAttribute("Weight", task.getFinishTime() - task.getStartTime());
-            node.setAttribute("Start", task.getStartTime());
-            // the output uses processor numbers from 1, but the data is stored from 0
-            node.setAttribute("Processor", task.getProcessor() + 1);
-        }
-        FileSink file = new FileSinkDOT(true);
+    public static void write(String outputFileName, DotGraph dotGraph, Schedule schedule) {
         try {
-            file.writeAll(dotGraph, outputFileName);
+            writeSchedule(outputFileName, dotGraph, schedule);
         } catch (IOException e) {
             e.printStackTrace();
         }
     }
+
+    /**
+     * Writes a set of results to the output dot file like write, but throws an exception if the file cannot be
+     * written.
+     * @param outputFileName The name of the output dot file.
+     * @param dotGraph The input graph.
+     * @param schedule Schedule to write to file.
+     * @throws IOException If the file cannot be written.
+     */
+    public static void writeSchedule(String outputFileName, DotGraph dotGraph, Schedule schedule) throws IOException {
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(outputFileName), StandardCharsets.UTF_8)) {
+            new DotWriter(writer).write(dotGraph, schedule);
+        }
+    }
 }
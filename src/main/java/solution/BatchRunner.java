@@ -0,0 +1,310 @@
+package solution;
+
+import data.Schedule;
+import io.DotGraph;
+import io.IOParser;
+import solution.helpers.Greedy;
+import solution.helpers.ResultCache;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Schedules many graphs in one JVM, so the start up, class loading and JIT warm up are paid once instead of for every
+ * graph. The jobs are run on a shared pool of threads, where each thread reads a graph, runs the sequential search
+ * and writes the output file, so reading and writing overlap with the searches of the other threads.
+ *
+ * The jobs are given by one of:
+ * <ul>
+ *     <li>a directory, where every dot file and binary task graph file is scheduled</li>
+ *     <li>a glob such as graphs/*.dot, relative to the directory before the first wildcard</li>
+ *     <li>a manifest file with a graph on each line, optionally followed by its number of processors. Paths are
+ *     relative to the manifest, and lines starting with # are ignored</li>
+ * </ul>
+ * Output files are named like those of a single graph, INPUT-output.dot, with the number of processors added if a
+ * graph is scheduled on more than one number of processors. Graphs whose names only differ in their extension, e.g.
+ * a.dot and a.tgf, keep the extension in the name of the output file, e.g. a.tgf-output.dot. A batch where two jobs
+ * would still write the same output file, e.g. a graph listed twice in a manifest, or graphs of the same name in two
+ * directories written to one output directory, is not run.
+ */
+public class BatchRunner {
+    private final List<Job> jobs;
+    private final int numThreads;
+    private final long localSearchBudget;
+    private final File outputDirectory; // null to write each output file next to its input
+    private ResultCache resultCache; // null unless the graphs are looked up in a cache
+
+    /**
+     * @param jobs The graphs to schedule, e.g. from listJobs.
+     * @param numThreads The number of graphs scheduled at once.
+     * @param localSearchBudget Time in milliseconds spent improving the greedy schedule before each exact search.
+     * @param outputDirectory The directory to write the output files to, or null to write them next to the inputs.
+     */
+    public BatchRunner(List<Job> jobs, int numThreads, long localSearchBudget, File outputDirectory) {
+        this.jobs = jobs;
+        this.numThreads = numThreads;
+        this.localSearchBudget = localSearchBudget;
+        this.outputDirectory = outputDirectory;
+    }
+
+    /**
+     * @param resultCache The cache of optimal schedules shared by the jobs, or null to search every graph.
+     */
+    public void setResultCache(ResultCache resultCache) {
+        this.resultCache = resultCache;
+    }
+
+    /**
+     * Lists the jobs given by a directory, glob or manifest file.
+     * @param input The directory, glob or manifest file.
+     * @param numProcessors The number of processors of the graphs that do not have their own.
+     * @return The jobs, sorted by path for directories and globs, and in the order of the manifest otherwise.
+     * @throws IOException If the directory or manifest cannot be read, or a line of the manifest is invalid.
+     */
+    public static List<Job> listJobs(String input, int numProcessors) throws IOException {
+        List<Job> jobs = new ArrayList<>();
+        int wildcard = firstWildcard(input);
+        if (wildcard != -1 || new File(input).isDirectory()) {
+            Path directory;
+            PathMatcher matcher;
+            if (wildcard == -1) {
+                directory = Paths.get(input);
+                matcher = FileSystems.getDefault().getPathMatcher("glob:*.{dot,tgf}");
+            } else {
+                int separator = input.lastIndexOf(File.separatorChar, wildcard);
+                directory = Paths.get(separator == -1 ? "." : input.substring(0, separator + 1));
+                matcher = FileSystems.getDefault().getPathMatcher("glob:" + input.substring(separator + 1));
+            }
+
+            List<Path> paths;
+            try (Stream<Path> stream = wildcard == -1 ? Files.list(directory) : Files.walk(directory)) {
+                paths = stream.filter(path -> Files.isRegularFile(path)
+                        && matcher.matches(directory.relativize(path))
+                        && !path.getFileName().toString().endsWith("-output.dot"))
+                        .sorted()
+                        .collect(Collectors.toList());
+            }
+            for (Path path : paths) {
+                jobs.add(new Job(path.toString(), numProcessors));
+            }
+        } else {
+            File manifest = new File(input);
+            int lineNumber = 0;
+            for (String line : Files.readAllLines(manifest.toPath())) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] fields = line.split("\\s+");
+                try {
+                    File graph = new File(fields[0]);
+                    if (!graph.isAbsolute()) {
+                        graph = new File(manifest.getAbsoluteFile().getParentFile(), fields[0]);
+                    }
+                    int jobProcessors = fields.length > 1 ? Integer.parseInt(fields[1]) : numProcessors;
+                    if (fields.length > 2 || jobProcessors <= 0) {
+                        throw new NumberFormatException();
+                    }
+                    jobs.add(new Job(graph.getPath(), jobProcessors));
+                } catch (NumberFormatException e) {
+                    throw new IOException("Invalid job on line " + lineNumber + " of " + input +
+                            ", expected: GRAPH [P]");
+                }
+            }
+        }
+        return jobs;
+    }
+
+    /**
+     * @return The index of the first glob wildcard in the input, or -1 if there is none.
+     */
+    private static int firstWildcard(String input) {
+        for (int i = 0; i < input.length(); i++) {
+            if ("*?[{".indexOf(input.charAt(i)) != -1) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Schedules every job and writes its output file. A job that fails does not stop the others, its error is
+     * kept in the job instead.
+     * @throws IOException If two jobs would write the same output file, in which case no job is run.
+     */
+    public void run() throws IOException {
+        Path[] outputFiles = getOutputFiles();
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, numThreads));
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < jobs.size(); i++) {
+                Job job = jobs.get(i);
+                String outputFile = outputFiles[i].toString();
+                futures.add(executor.submit(() -> run(job, outputFile)));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    futures.get(i).get();
+                } catch (ExecutionException e) {
+                    // e.g. an OutOfMemoryError of a graph that is too large
+                    jobs.get(i).error = e.getCause().toString();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void run(Job job, String outputFile) {
+        long startTime = System.currentTimeMillis();
+        try {
+            DotGraph dotGraph = IOParser.readGraph(job.inputFile);
+            SolutionPipeline pipeline = new SolutionPipeline(job.numProcessors);
+            pipeline.setLocalSearchBudget(localSearchBudget);
+            // the graphs are already scheduled in parallel, so the heuristics of each graph run on its own thread
+            pipeline.setGreedy(new Greedy(Greedy.defaultHeuristics(), 1));
+            pipeline.setResultCache(resultCache);
+            Schedule schedule = pipeline.run(dotGraph.getTaskGraph());
+            IOParser.writeSchedule(outputFile, dotGraph, schedule);
+
+            job.finishTime = schedule.getFinishTime();
+            job.stateCount = pipeline.getStateCount();
+        } catch (NoSuchFileException e) {
+            job.error = "file not found";
+        } catch (IOException | RuntimeException e) {
+            job.error = e.getMessage() == null ? e.toString() : e.getMessage();
+        }
+        job.time = System.currentTimeMillis() - startTime;
+    }
+
+    /**
+     * @return The output file of each job.
+     * @throws IOException If two jobs would write the same output file.
+     */
+    private Path[] getOutputFiles() throws IOException {
+        Map<Path, Integer> jobsPerGraph = new HashMap<>();
+        for (Job job : jobs) {
+            jobsPerGraph.merge(getPath(job.inputFile), 1, Integer::sum);
+        }
+        Path[] outputFiles = new Path[jobs.size()];
+        Map<Path, Integer> jobsPerOutputFile = new HashMap<>();
+        for (int i = 0; i < jobs.size(); i++) {
+            outputFiles[i] = getOutputFile(jobs.get(i), jobsPerGraph.get(getPath(jobs.get(i).inputFile)) > 1, false);
+            jobsPerOutputFile.merge(outputFiles[i], 1, Integer::sum);
+        }
+
+        Map<Path, Job> jobsByOutputFile = new HashMap<>();
+        for (int i = 0; i < jobs.size(); i++) {
+            Job job = jobs.get(i);
+            if (jobsPerOutputFile.get(outputFiles[i]) > 1) {
+                outputFiles[i] = getOutputFile(job, jobsPerGraph.get(getPath(job.inputFile)) > 1, true);
+            }
+            Job other = jobsByOutputFile.putIfAbsent(outputFiles[i], job);
+            if (other != null) {
+                throw new IOException(other.inputFile + " on " + other.numProcessors + " processors and " +
+                        job.inputFile + " on " + job.numProcessors + " processors would both be written to " +
+                        outputFiles[i]);
+            }
+        }
+        return outputFiles;
+    }
+
+    private static Path getPath(String file) {
+        return Paths.get(file).toAbsolutePath().normalize();
+    }
+
+    /**
+     * @param addProcessors Whether to add the number of processors to the name, as the graph has other jobs.
+     * @param keepExtension Whether to keep the extension of the input in the name, as another graph only differs
+     *                      from it in its extension.
+     * @return The output file of the job.
+     */
+    private Path getOutputFile(Job job, boolean addProcessors, boolean keepExtension) {
+        Path input = getPath(job.inputFile);
+        String name = input.getFileName().toString();
+        int extension = name.lastIndexOf('.');
+        if (extension > 0 && !keepExtension) {
+            name = name.substring(0, extension);
+        }
+        name += (addProcessors ? "-" + job.numProcessors : "") + "-output.dot";
+        Path directory = outputDirectory != null ? getPath(outputDirectory.getPath()) : input.getParent();
+        return directory.resolve(name);
+    }
+
+    /**
+     * Prints the finish time, run time and number of states searched of each job, followed by the totals.
+     * @param out The stream to print to, e.g. System.out.
+     */
+    public void printSummary(PrintStream out) {
+        long totalTime = 0;
+        long totalStates = 0;
+        out.println("graph\tprocessors\tfinish time\ttime (ms)\tstates");
+        for (Job job : jobs) {
+            if (job.error != null) {
+                out.println(job.inputFile + "\t" + job.numProcessors + "\terror: " + job.error);
+                continue;
+            }
+            out.println(job.inputFile + "\t" + job.numProcessors + "\t" + job.finishTime + "\t" + job.time + "\t" +
+                    job.stateCount);
+            totalTime += job.time;
+            totalStates += job.stateCount;
+        }
+        out.println("Scheduled " + (jobs.size() - getNumberOfFailedJobs()) + " of " + jobs.size() + " graphs, taking " + totalTime +
+                "ms and " + totalStates + " states in total");
+    }
+
+    /**
+     * @return The number of jobs that failed, after the batch has been run.
+     */
+    public int getNumberOfFailedJobs() {
+        int failed = 0;
+        for (Job job : jobs) {
+            if (job.error != null) {
+                failed++;
+            }
+        }
+        return failed;
+    }
+
+    /**
+     * A graph to schedule on a number of processors, and its result once it has been run.
+     */
+    public static class Job {
+        private final String inputFile;
+        private final int numProcessors;
+        private volatile int finishTime;
+        private volatile long time; // milliseconds taken to read, schedule and write the graph
+        private volatile long stateCount;
+        private volatile String error; // null unless the job failed
+
+        /**
+         * @param inputFile The dot file or binary task graph file of the graph.
+         * @param numProcessors The number of processors to schedule the graph on.
+         */
+        public Job(String inputFile, int numProcessors) {
+            this.inputFile = inputFile;
+            this.numProcessors = numProcessors;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package solution;
+
+import data.Schedule;
+import data.TaskGraph;
+import solution.helpers.GraphReduction;
+import solution.helpers.LowerBound;
+
+import java.io.PrintStream;
+import java.util.function.IntFunction;
+
+/**
+ * Finds an optimal schedule of a task graph on every number of processors from 1 up to a maximum, e.g. for capacity
+ * planning, sharing the work between the numbers of processors.
+ *
+ * The graph is reduced once, and every number of processors is run on the same reduced graph, so the topological
+ * order, b-levels and t-levels cached on it are only calculated once. A schedule on p processors is also a valid
+ * schedule on p + 1 processors, so the optimal schedule on p processors is the initial schedule of the search on
+ * p + 1, and the optimal finish time never increases. Once it meets the lower bound on p + 1 processors, e.g. the
+ * critical path, or there are more processors than tasks, it is optimal there and no search is run.
+ */
+public class ProcessorSweep {
+    private final int maxProcessors;
+    private final IntFunction<SolutionPipeline> pipelines;
+    private GraphReduction reduction;
+    private Schedule[] schedules;
+    private long[] times; // times[p - 1] => milliseconds taken on p processors
+    private long[] stateCounts; // stateCounts[p - 1] => states searched on p processors
+
+    /**
+     * @param maxProcessors The largest number of processors to schedule the task graph on.
+     * @param pipelines Creates the pipeline for a number of processors, with the options of the search.
+     */
+    public ProcessorSweep(int maxProcessors, IntFunction<SolutionPipeline> pipelines) {
+        this.maxProcessors = maxProcessors;
+        this.pipelines = pipelines;
+    }
+
+    /**
+     * @param taskGraph Graph containing tasks as nodes and their dependencies as edges.
+     * @return The optimal schedules, where index p - 1 holds the schedule on p processors.
+     */
+    public Schedule[] run(TaskGraph taskGraph) {
+        reduction = new GraphReduction(taskGraph);
+        TaskGraph reducedGraph = reduction.getReducedGraph();
+        schedules = new Schedule[maxProcessors];
+        times = new long[maxProcessors];
+        stateCounts = new long[maxProcessors];
+
+        Schedule previous = null; // optimal schedule of the reduced graph on one processor fewer
+        for (int p = 1; p <= maxProcessors; p++) {
+            long startTime = System.currentTimeMillis();
+            Schedule schedule;
+            // with more processors than tasks, the extra processors cannot be used
+            if (previous != null && (p > reducedGraph.getNumberOfTasks()
+                    || previous.getFinishTime() <= LowerBound.calculate(reducedGraph, p))) {
+                schedule = previous;
+            } else {
+                SolutionPipeline pipeline = pipelines.apply(p);
+                schedule = pipeline.run(reducedGraph, previous);
+                stateCounts[p - 1] = pipeline.getStateCount();
+            }
+            schedules[p - 1] = reduction.expand(schedule);
+            times[p - 1] = System.currentTimeMillis() - startTime;
+            previous = schedule;
+        }
+        return schedules;
+    }
+
+    /**
+     * @return The reduction of the task graph shared by the searches, or null if the sweep has not been run.
+     */
+    public GraphReduction getReduction() {
+        return reduction;
+    }
+
+    /**
+     * Prints the optimal finish time, run time and number of states searched on each number of processors.
+     * @param out The stream to print to, e.g. System.out.
+     */
+    public void printSummary(PrintStream out) {
+        out.println("processors\tfinish time\ttime (ms)\tstates");
+        for (int p = 1; p <= maxProcessors; p++) {
+            out.println(p + "\t" + schedules[p - 1].getFinishTime() + "\t" + times[p - 1] + "\t" +
+                    stateCounts[p - 1]);
+        }
+    }
+}
@@ -0,0 +1,379 @@
+package solution;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import data.Schedule;
+import io.DotGraph;
+import io.DotReader;
+import io.DotWriter;
+import solution.helpers.Greedy;
+import solution.helpers.ResultCache;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Schedules graphs sent over HTTP on the local machine, so a long running JVM with warm code and a shared pool of
+ * threads serves many small requests, instead of starting a JVM for each graph. The API is:
+ * <ul>
+ *     <li>POST /schedule?processors=P with a dot file as the body schedules the graph on P processors. The optional
+ *     parameter localSearch sets the local search time budget in milliseconds, and timeLimit the time in milliseconds
+ *     after which the job is cancelled if it is not done, counted from the request. By default the request waits for
+ *     the schedule, with wait=false it returns 202 at once, with the job in the Location header</li>
+ *     <li>GET /jobs/ID returns 202 with the state of the job while it is queued or running, and the schedule once it
+ *     is done</li>
+ *     <li>DELETE /jobs/ID cancels the job, stopping its search if it is running</li>
+ * </ul>
+ * A schedule is returned as a dot file, like the output file, with the finish time, run time in milliseconds and
+ * number of states searched in the X-Finish-Time, X-Time and X-States headers. Invalid requests get 400, and 503 is
+ * returned when the queue of jobs is full. A job that was cancelled, or reached its time limit, gets 410.
+ *
+ * At most numThreads jobs run at once, each with the sequential search, and at most queueCapacity more wait for a
+ * thread. The results of the last MAX_FINISHED_JOBS jobs to finish are kept.
+ */
+public class SchedulingServer {
+    private static final int MAX_FINISHED_JOBS = 1024;
+    private static final String DOT_CONTENT_TYPE = "text/vnd.graphviz; charset=utf-8";
+
+    private final HttpServer server;
+    private final ThreadPoolExecutor jobExecutor;
+    private final ExecutorService requestExecutor = Executors.newCachedThreadPool();
+    private final ScheduledThreadPoolExecutor timeLimitExecutor = new ScheduledThreadPoolExecutor(1);
+    private final long localSearchBudget;
+    private volatile ResultCache resultCache; // null unless the graphs are looked up in a cache
+    private final AtomicLong nextJobId = new AtomicLong(1);
+    private final Map<Long, Job> jobs = new ConcurrentHashMap<>();
+    private final Queue<Long> finishedJobs = new ConcurrentLinkedQueue<>(); // in the order they finished
+
+    /**
+     * Creates the server listening on the loopback address, which is started with start.
+     * @param port The port to listen on.
+     * @param numThreads The number of jobs run at once.
+     * @param queueCapacity The number of jobs that can wait for a thread.
+     * @param localSearchBudget The default time in milliseconds spent improving the greedy schedule of each search.
+     * @throws IOException If the port cannot be bound.
+     */
+    public SchedulingServer(int port, int numThreads, int queueCapacity, long localSearchBudget) throws IOException {
+        this.localSearchBudget = localSearchBudget;
+        jobExecutor = new ThreadPoolExecutor(numThreads, numThreads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity));
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.createContext("/schedule", this::handleSchedule);
+        server.createContext("/jobs/", this::handleJob);
+        // requests waiting for their schedule block a thread, so they do not share the threads of the jobs
+        server.setExecutor(requestExecutor);
+        // a job that finishes before its time limit does not keep its graph until then
+        timeLimitExecutor.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * @param resultCache The cache of optimal schedules shared by the jobs, or null to search every graph.
+     */
+    public void setResultCache(ResultCache resultCache) {
+        this.resultCache = resultCache;
+    }
+
+    /**
+     * Starts accepting requests, on threads in the background.
+     */
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Stops accepting requests and cancels the jobs that are queued or running, interrupting their searches.
+     */
+    public void stop() {
+        server.stop(0);
+        for (Job job : new ArrayList<>(jobs.values())) {
+            job.cancel("the server is stopping");
+        }
+        jobExecutor.shutdownNow();
+        timeLimitExecutor.shutdownNow();
+        requestExecutor.shutdownNow();
+    }
+
+    /**
+     * @return The port the server listens on.
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    private void handleSchedule(HttpExchange exchange) throws IOException {
+        try {
+            if (!exchange.getRequestMethod().equals("POST")) {
+                respond(exchange, 405, "Use POST with a dot file as the body\n");
+                return;
+            }
+            Map<String, String> parameters = getParameters(exchange);
+            int numProcessors;
+            long jobLocalSearchBudget;
+            long timeLimit; // 0 for no time limit
+            try {
+                numProcessors = Integer.parseInt(parameters.getOrDefault("processors", ""));
+                jobLocalSearchBudget = Long.parseLong(parameters.getOrDefault("localSearch",
+                        Long.toString(localSearchBudget)));
+                timeLimit = Long.parseLong(parameters.getOrDefault("timeLimit", "0"));
+            } catch (NumberFormatException e) {
+                respond(exchange, 400, "The processors, localSearch and timeLimit parameters must be numbers\n");
+                return;
+            }
+            if (numProcessors <= 0) {
+                respond(exchange, 400, "The number of processors must be positive\n");
+                return;
+            }
+            if (timeLimit < 0) {
+                respond(exchange, 400, "The time limit must not be negative\n");
+                return;
+            }
+
+            DotGraph dotGraph;
+            try {
+                dotGraph = new DotReader(new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8))
+                        .read();
+            } catch (IOException e) {
+                respond(exchange, 400, "Invalid dot file: " + e.getMessage() + "\n");
+                return;
+            }
+
+            Job job = new Job(nextJobId.getAndIncrement(), dotGraph, numProcessors, jobLocalSearchBudget,
+                    resultCache);
+            // kept before it is run, so it is already there when it finishes
+            jobs.put(job.id, job);
+            try {
+                job.future = jobExecutor.submit(job::run);
+            } catch (RejectedExecutionException e) {
+                jobs.remove(job.id);
+                respond(exchange, 503, "The queue of jobs is full\n");
+                return;
+            }
+            if (timeLimit > 0) {
+                job.timeLimit = timeLimitExecutor.schedule(
+                        () -> job.cancel("the time limit of " + timeLimit + " ms was reached"),
+                        timeLimit, TimeUnit.MILLISECONDS);
+            }
+
+            if (parameters.getOrDefault("wait", "true").equals("false")) {
+                exchange.getResponseHeaders().set("Location", "/jobs/" + job.id);
+                respond(exchange, 202, job.id + "\n");
+                return;
+            }
+            job.done.await();
+            respondWithJob(exchange, job);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            respond(exchange, 503, "The server is stopping\n");
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void handleJob(HttpExchange exchange) throws IOException {
+        try {
+            String method = exchange.getRequestMethod();
+            if (!method.equals("GET") && !method.equals("DELETE")) {
+                respond(exchange, 405, "Use GET or DELETE\n");
+                return;
+            }
+            Job job = null;
+            try {
+                job = jobs.get(Long.parseLong(exchange.getRequestURI().getPath().substring("/jobs/".length())));
+            } catch (NumberFormatException e) {
+                // not found below
+            }
+            if (job == null) {
+                respond(exchange, 404, "No such job\n");
+                return;
+            }
+            if (method.equals("DELETE")) {
+                if (job.cancel("the job was cancelled")) {
+                    respond(exchange, 202, "cancelled\n");
+                } else {
+                    respond(exchange, 409, "The job is already done\n");
+                }
+                return;
+            }
+            respondWithJob(exchange, job);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void respondWithJob(HttpExchange exchange, Job job) throws IOException {
+        if (!job.isDone()) {
+            respond(exchange, 202, (job.isRunning ? "running" : "queued") + "\n");
+        } else if (job.cancelReason != null && job.schedule == null) {
+            respond(exchange, 410, "The job was stopped: " + job.cancelReason + "\n");
+        } else if (job.error != null) {
+            respond(exchange, 500, "The graph could not be scheduled: " + job.error + "\n");
+        } else {
+            exchange.getResponseHeaders().set("Content-Type", DOT_CONTENT_TYPE);
+            exchange.getResponseHeaders().set("X-Finish-Time", Integer.toString(job.schedule.getFinishTime()));
+            exchange.getResponseHeaders().set("X-Time", Long.toString(job.time));
+            exchange.getResponseHeaders().set("X-States", Long.toString(job.stateCount));
+            respond(exchange, 200, job.output);
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        if (!exchange.getResponseHeaders().containsKey("Content-Type")) {
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        }
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * @return The parameters of the query of the request, which are not URL encoded as they are all numbers.
+     */
+    private static Map<String, String> getParameters(HttpExchange exchange) {
+        Map<String, String> parameters = new HashMap<>();
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query != null) {
+            for (String parameter : query.split("&")) {
+                int equals = parameter.indexOf('=');
+                if (equals != -1) {
+                    parameters.put(parameter.substring(0, equals), parameter.substring(equals + 1));
+                }
+            }
+        }
+        return parameters;
+    }
+
+    /**
+     * Keeps the job among the last MAX_FINISHED_JOBS jobs to finish, forgetting the oldest.
+     */
+    private void finished(Job job) {
+        finishedJobs.add(job.id);
+        while (finishedJobs.size() > MAX_FINISHED_JOBS) {
+            Long oldest = finishedJobs.poll();
+            if (oldest != null) {
+                jobs.remove(oldest);
+            }
+        }
+    }
+
+    /**
+     * A graph to schedule, and its result once it has been run.
+     */
+    private class Job {
+        private final long id;
+        private final DotGraph dotGraph;
+        private final int numProcessors;
+        private final long localSearchBudget;
+        private final ResultCache resultCache;
+        private final CountDownLatch done = new CountDownLatch(1);
+        private final AtomicBoolean isStarted = new AtomicBoolean(); // set once it runs, or is cancelled while queued
+        private volatile Future<?> future; // the job in the executor
+        private volatile ScheduledFuture<?> timeLimit; // cancels the job at its time limit, null if it has none
+        private volatile String cancelReason; // null unless the job was cancelled
+        private volatile boolean isRunning = false;
+        private volatile Schedule schedule;
+        private volatile String output; // the schedule as a dot file
+        private volatile long time; // milliseconds taken to schedule the graph
+        private volatile long stateCount;
+        private volatile String error; // null unless the job failed
+
+        private Job(long id, DotGraph dotGraph, int numProcessors, long localSearchBudget, ResultCache resultCache) {
+            this.id = id;
+            this.dotGraph = dotGraph;
+            this.numProcessors = numProcessors;
+            this.localSearchBudget = localSearchBudget;
+            this.resultCache = resultCache;
+        }
+
+        private void run() {
+            if (!isStarted.compareAndSet(false, true)) {
+                return;
+            }
+            isRunning = true;
+            long startTime = System.currentTimeMillis();
+            try {
+                SolutionPipeline pipeline = new SolutionPipeline(numProcessors);
+                pipeline.setLocalSearchBudget(localSearchBudget);
+                // the jobs already run in parallel, so the heuristics of each job run on its own thread
+                pipeline.setGreedy(new Greedy(Greedy.defaultHeuristics(), 1));
+                pipeline.setResultCache(resultCache);
+                Schedule result = pipeline.run(dotGraph.getTaskGraph());
+
+                StringWriter writer = new StringWriter();
+                new DotWriter(writer).write(dotGraph, result);
+                output = writer.toString();
+                stateCount = pipeline.getStateCount();
+                schedule = result;
+            } catch (CancellationException e) {
+                error = cancelReason != null ? cancelReason : e.getMessage();
+            } catch (IOException | RuntimeException | OutOfMemoryError e) {
+                error = e.toString();
+            } finally {
+                time = System.currentTimeMillis() - startTime;
+                isRunning = false;
+                finish();
+            }
+        }
+
+        /**
+         * Removes the job from the queue, or interrupts its search if it is running.
+         * @param reason Why the job is cancelled, returned instead of its schedule.
+         * @return Whether the job was not done yet.
+         */
+        private boolean cancel(String reason) {
+            if (isDone()) {
+                return false;
+            }
+            cancelReason = reason;
+            if (isStarted.compareAndSet(false, true)) {
+                // it may not be submitted yet, in which case it returns at once when it is run
+                if (future != null) {
+                    future.cancel(false);
+                    jobExecutor.purge();
+                }
+                error = reason;
+                finish();
+            } else {
+                future.cancel(true);
+            }
+            return true;
+        }
+
+        private void finish() {
+            if (timeLimit != null) {
+                timeLimit.cancel(false);
+            }
+            done.countDown();
+            finished(this);
+        }
+
+        private boolean isDone() {
+            return done.getCount() == 0;
+        }
+    }
+}
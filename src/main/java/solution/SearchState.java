@@ -12,20 +12,27 @@ public class SearchState {
     protected int[] taskStartTimes; // taskStartTimes[i] => start time of task i
     protected int[] scheduledOn;  // scheduledOn[i] => the processor task i is scheduled on
     protected int[] processorFinishTimes; // processorFinishTimes[i] => finishing time of the last task scheduled on processor i
+    protected int[] processorTaskCounts; // processorTaskCounts[i] => number of tasks on processor i, which may finish at 0
     protected int remainingDuration = 0; // Sum of weights of unscheduled tasks
     protected int previousProcessor;
     protected boolean childAddedLastRound;
+    protected int previousTask; // task scheduled by the previous branching decision, -1 if none
+    protected int previousProcessorFinishTime; // finish time of previousProcessor before previousTask was appended
 
     public SearchState(LinkedList<Integer> candidateTasks, int[] inDegrees, int[] taskStartTimes,
-                       int[] scheduledOn, int[] processorFinishTimes, int remainingDuration, int previousProcessor, boolean childAddedLastRound) {
+                       int[] scheduledOn, int[] processorFinishTimes, int[] processorTaskCounts, int remainingDuration, int previousProcessor,
+                       boolean childAddedLastRound, int previousTask, int previousProcessorFinishTime) {
         this.candidateTasks = candidateTasks;
         this.inDegrees = inDegrees;
         this.taskStartTimes = taskStartTimes;
         this.scheduledOn = scheduledOn;
         this.processorFinishTimes = processorFinishTimes;
+        this.processorTaskCounts = processorTaskCounts;
         this.remainingDuration = remainingDuration;
         this.previousProcessor = previousProcessor;
         this.childAddedLastRound = childAddedLastRound;
+        this.previousTask = previousTask;
+        this.previousProcessorFinishTime = previousProcessorFinishTime;
     }
 
      /**
@@ -38,9 +45,12 @@ public class SearchState {
         int[] taskStartTimesDuplicate = new int[n];
         int[] scheduledOnDuplicate = new int[n];
         int[] processorFinishTimesDuplicate = new int[processorFinishTimes.length];
+        int[] processorTaskCountsDuplicate = new int[processorTaskCounts.length];
         int remainingDurationDuplicate = remainingDuration;
         int duplicatePreviousProcessor = previousProcessor;
         boolean duplicateChildAddedLastRound = childAddedLastRound;
+        int duplicatePreviousTask = previousTask;
+        int duplicatePreviousProcessorFinishTime = previousProcessorFinishTime;
 
 
         for(int i = 0; i < n; i++){
@@ -51,10 +61,12 @@ public class SearchState {
 
         for(int i = 0; i < processorFinishTimes.length; i++){
             processorFinishTimesDuplicate[i] = processorFinishTimes[i];
+            processorTaskCountsDuplicate[i] = processorTaskCounts[i];
         }
         LinkedList<Integer> candidateTasksDuplicate = new LinkedList<>(candidateTasks);
         SearchState duplicate = new SearchState(candidateTasksDuplicate, inDegreeDuplicate, taskStartTimesDuplicate,
-                scheduledOnDuplicate, processorFinishTimesDuplicate, remainingDurationDuplicate, duplicatePreviousProcessor, duplicateChildAddedLastRound);
+                scheduledOnDuplicate, processorFinishTimesDuplicate, processorTaskCountsDuplicate, remainingDurationDuplicate,
+                duplicatePreviousProcessor, duplicateChildAddedLastRound, duplicatePreviousTask, duplicatePreviousProcessorFinishTime);
 
         return duplicate;
     }
@@ -3,14 +3,19 @@ package solution;
 import data.Schedule;
 import data.Task;
 import data.TaskGraph;
+import solution.helpers.IntHashSet;
+import solution.helpers.IntSet;
 
 import java.util.*;
+import java.util.concurrent.CancellationException;
 
 /**
- * Solution abstract class,SolutionParallel and SolutionSequential extends this class and used its methods to communicate
+ * Solution abstract class,SolutionParallel, SolutionSequential and SolutionBitset extends this class and used its methods to communicate
  * with the GUI. Global variables and fields that do not change are kept in this class.
  */
 public abstract class Solution {
+    private static final int INTERRUPT_CHECK_MASK = 1023; // the thread is checked for an interrupt every 1024 states
+
     protected TaskGraph taskGraph; //Contains information about the graph such as the adjacency matrix's
     protected int numProcessors;
     protected int numTasks;
@@ -19,16 +24,27 @@ public abstract class Solution {
     protected int[] nodePriorities; // The priority of a node to be scheduled
     protected ArrayList<Integer>[] equivalentNodesList; // index i contains a list of equivalent nodes for node i.
     protected int[] maxLengthToExitNode; // B levels of each node/task
+    protected int lowerBound; // no schedule can finish before this time, reaching it proves optimality
+
+    // the edges of the task graph in compressed sparse rows, see TaskGraph
+    protected final int[] parentOffsets;
+    protected final int[] parents;
+    protected final int[] parentCommCosts;
+    protected final int[] childOffsets;
+    protected final int[] children;
+    protected final int[] childCommCosts;
 
     protected volatile int[] bestStartTime; // bestStartTime[i] => start time of task i in best schedule found so far
     protected volatile int[] bestScheduledOn; // bestScheduledOn[i] => processor that task i is scheduled on, in best schedule
     protected volatile int bestFinishTime; // earliest finishing time of schedules we have searched
-    protected volatile HashSet<Integer> seenSchedules = new HashSet<>();
+    protected Schedule initialSchedule; // the starting bound of the search, returned if no earlier schedule is found
+    protected volatile IntSet seenSchedules = new IntHashSet(); // hash codes of the partial schedules searched
 
     protected volatile long stateCount = 0; //amount of states that we have searched
     protected volatile boolean isDone;
     protected volatile List<Task>[] bestSchedule; //current best schedule
     protected volatile boolean bestChanged = false;
+    private volatile Thread runningThread; // the thread that called run, which is interrupted to stop the search
 
     /**
      * @param taskGraph a data structure containing vital information about the DAG.
@@ -39,10 +55,18 @@ public abstract class Solution {
     public Solution(TaskGraph taskGraph, int numProcessors) {
         this.taskGraph = taskGraph;
         this.numProcessors = numProcessors;
+        parentOffsets = taskGraph.getParentOffsets();
+        parents = taskGraph.getParents();
+        parentCommCosts = taskGraph.getParentCommCosts();
+        childOffsets = taskGraph.getChildOffsets();
+        children = taskGraph.getChildren();
+        childCommCosts = taskGraph.getChildCommCosts();
     }
 
     /**
      * Main method which runs the algorithm and returns a scheduling of tasks.
+     * @throws CancellationException If the thread running the search is interrupted, e.g. to stop a job of the
+     * server, in which case there is no schedule.
      */
     public abstract Schedule run();
 
@@ -50,8 +74,80 @@ public abstract class Solution {
         this.isVisual = true;
     }
 
+    /**
+     * Replaces the set storing the hash codes of the partial schedules searched, e.g. with a table outside the heap.
+     * Must be called before the solution is run.
+     * @param seenSchedules an empty set.
+     */
+    public void setSeenSchedules(IntSet seenSchedules) {
+        this.seenSchedules = seenSchedules;
+    }
+
+    /**
+     * Keeps the thread that runs the search, so the search can be stopped by interrupting it. Called at the start of
+     * run, as the states may be searched on other threads.
+     */
+    protected void setRunningThread() {
+        runningThread = Thread.currentThread();
+    }
+
+    /**
+     * Counts a state, and stops the search once in a while if the thread running it has been interrupted.
+     */
     protected synchronized void updateStateCount() {
         this.stateCount++;
+        if ((stateCount & INTERRUPT_CHECK_MASK) == 0 && runningThread != null && runningThread.isInterrupted()) {
+            throw new CancellationException("The search was interrupted");
+        }
+    }
+
+    /**
+     * Checks whether the candidate task, appended to the candidate processor right after previousTask, gives a schedule
+     * that is equivalent to or worse than the one where the two tasks are swapped. The swapped schedule is explored
+     * by the branch that chose the candidate task first, so this branch can be pruned. Ties are broken by task index
+     * so exactly one of the two orderings survives. Equivalent tasks are already deduplicated by each search, which
+     * checks them itself before calling this.
+     * @param previousTask the task scheduled by the previous branching decision, on the candidate processor.
+     * @param previousProcessorFinishTime finish time of the candidate processor before previousTask was appended.
+     * @param taskStartTimes taskStartTimes[i] => start time of task i in the partial schedule.
+     * @param scheduledOn scheduledOn[i] => the processor task i is scheduled on in the partial schedule.
+     * @param candidateTask the task to schedule.
+     * @param candidateProcessor the processor previousTask was scheduled on.
+     * @param candidateStartTime start time of the candidate task when appended after previousTask.
+     * @param candidateDataReadyTime time at which all data from the parents of the candidate task is available
+     *                               on the candidate processor.
+     * @return true if swapping the two tasks is no worse.
+     */
+    protected boolean isSwapNoWorse(int previousTask, int previousProcessorFinishTime, int[] taskStartTimes,
+                                    int[] scheduledOn, int candidateTask, int candidateProcessor,
+                                    int candidateStartTime, int candidateDataReadyTime) {
+        // the candidate has to be free when previousTask was chosen
+        if (taskGraph.hasEdge(previousTask, candidateTask)) {
+            return false;
+        }
+
+        int previousTaskDataReadyTime = 0;
+        for (int i = parentOffsets[previousTask]; i < parentOffsets[previousTask + 1]; i++) {
+            int parent = parents[i];
+            int dataArrival = taskStartTimes[parent] + taskGraph.getDuration(parent);
+            if (scheduledOn[parent] != candidateProcessor) {
+                dataArrival += parentCommCosts[i];
+            }
+            previousTaskDataReadyTime = Math.max(previousTaskDataReadyTime, dataArrival);
+        }
+
+        int swappedCandidateStartTime = Math.max(previousProcessorFinishTime, candidateDataReadyTime);
+        int swappedPreviousTaskStartTime = Math.max(swappedCandidateStartTime + taskGraph.getDuration(candidateTask),
+                previousTaskDataReadyTime);
+
+        // previousTask must not be delayed, otherwise tasks depending on it could be affected
+        if (swappedPreviousTaskStartTime > taskStartTimes[previousTask]) {
+            return false;
+        }
+
+        return swappedPreviousTaskStartTime < taskStartTimes[previousTask]
+                || swappedCandidateStartTime < candidateStartTime
+                || candidateTask < previousTask;
     }
 
     protected synchronized void setDone() {
@@ -78,10 +174,12 @@ public abstract class Solution {
     }
 
     /**
-     * Set initial schedule of the solution so that it can be accessed by a poller, if it is being visualised.
+     * Set initial schedule of the solution so that it can be accessed by a poller, if it is being visualised. The
+     * search only looks for schedules that finish before it, and returns it if there are none.
      * @param schedule the initial schedule
      */
     public void setInitialSchedule(Schedule schedule) {
+        this.initialSchedule = schedule;
         this.bestFinishTime = schedule.getFinishTime();
         if (!isVisual) return;  //If the visual is not enabled, we dont do the following computation
 
@@ -0,0 +1,638 @@
+package solution;
+
+import data.Schedule;
+import data.Task;
+import data.TaskGraph;
+import solution.helpers.LowerBound;
+import solution.helpers.PartialScheduleHashGenerator;
+import solution.helpers.PreProcessor;
+
+import java.util.*;
+
+/**
+ * Sequential search for task graphs of at most 128 tasks. It searches the same states as SolutionSequential, in the
+ * same order, so it finds the same schedule, but keeps the sets of scheduled and free tasks as two 64 bit masks instead
+ * of lists and in-degree counters.
+ *
+ * Each task is given a bit position in order of its priority, then of its index, so iterating over the bits of the
+ * free set with Long.numberOfTrailingZeros visits the free tasks in the order SolutionSequential sorts them in. A
+ * child becomes free when the mask of its parents is contained in the scheduled set.
+ */
+public class SolutionBitset extends Solution {
+    public static final int MAX_TASKS = 128;
+
+    private int[] taskAt; // taskAt[i] => the task at bit position i
+    private int[] position; // position[i] => the bit position of task i
+    private long[] parentMaskLow; // parentMaskLow[i] => bits 0 to 63 of the set of parents of task i
+    private long[] parentMaskHigh; // parentMaskHigh[i] => bits 64 to 127 of the set of parents of task i
+    private long[] equivalentMaskLow; // equivalentMaskLow[i] => bits 0 to 63 of the tasks equivalent to task i
+    private long[] equivalentMaskHigh; // equivalentMaskHigh[i] => bits 64 to 127 of the tasks equivalent to task i
+
+    private long scheduledLow = 0; // bits 0 to 63 of the set of scheduled tasks
+    private long scheduledHigh = 0; // bits 64 to 127 of the set of scheduled tasks
+    private int[] taskStartTimes; // taskStartTimes[i] => start time of task i
+    private int[] scheduledOn;  // scheduledOn[i] => the processor task i is scheduled on
+    private int[] processorFinishTimes; // processorFinishTimes[i] => finishing time of the last task scheduled on processor i
+    private int[] processorTaskCounts; // processorTaskCounts[i] => number of tasks on processor i, which may finish at 0
+    private int remainingDuration = 0; // total duration of remaining tasks to be scheduled (used for pruning)
+    private int previousProcessor = -1;
+    private boolean childAddedLastRound = false;
+    private int previousTask = -1; // task scheduled by the previous branching decision, -1 if it was made in FTO order
+    private int previousProcessorFinishTime = 0; // finish time of previousProcessor before previousTask was appended
+
+    /**
+     * @param taskGraph      Graph containing tasks as nodes and their dependencies as edges, with at most 128 tasks.
+     * @param numProcessors  Number of processors to schedule the tasks on.
+     */
+    public SolutionBitset(TaskGraph taskGraph, int numProcessors) {
+        super(taskGraph, numProcessors);
+        if (taskGraph.getNumberOfTasks() > MAX_TASKS) {
+            throw new IllegalArgumentException("SolutionBitset supports at most " + MAX_TASKS + " tasks");
+        }
+    }
+
+    /**
+     * Creates an optimal scheduling of tasks on specified number of processors.
+     * @return optimal schedule found by the run method.
+     */
+    public Schedule run() {
+        setRunningThread();
+        initialize();
+
+        long freeLow = 0;
+        long freeHigh = 0;
+        for (int task = 0; task < numTasks; task++) {
+            if (taskGraph.getNumberOfParents(task) == 0) {
+                if (position[task] < 64) {
+                    freeLow |= 1L << position[task];
+                } else {
+                    freeHigh |= 1L << position[task];
+                }
+            }
+        }
+        recursiveSearch(freeLow, freeHigh);
+        setDone();
+        return createOutput();
+    }
+
+    /**
+     * Helper method to initialize all the fields required for the solution.
+     */
+    private void initialize() {
+        maxLengthToExitNode = PreProcessor.maxLengthToExitNode(taskGraph);
+        lowerBound = LowerBound.calculate(taskGraph, numProcessors, maxLengthToExitNode);
+        numTasks = taskGraph.getNumberOfTasks();
+        nodePriorities = maxLengthToExitNode;
+        equivalentNodesList = PreProcessor.getNodeEquivalence(taskGraph);
+
+        // lower priority tasks get lower bit positions, and equal ones are kept by index by the stable sort, so tasks
+        // are tried in the same order as in SolutionSequential
+        Integer[] byPriority = new Integer[numTasks];
+        for (int i = 0; i < numTasks; i++) {
+            byPriority[i] = i;
+        }
+        Arrays.sort(byPriority, Comparator.comparingInt(a -> nodePriorities[a]));
+        taskAt = new int[numTasks];
+        position = new int[numTasks];
+        for (int i = 0; i < numTasks; i++) {
+            taskAt[i] = byPriority[i];
+            position[byPriority[i]] = i;
+        }
+
+        parentMaskLow = new long[numTasks];
+        parentMaskHigh = new long[numTasks];
+        equivalentMaskLow = new long[numTasks];
+        equivalentMaskHigh = new long[numTasks];
+        for (int task = 0; task < numTasks; task++) {
+            for (int edge = parentOffsets[task]; edge < parentOffsets[task + 1]; edge++) {
+                int bit = position[parents[edge]];
+                if (bit < 64) {
+                    parentMaskLow[task] |= 1L << bit;
+                } else {
+                    parentMaskHigh[task] |= 1L << bit;
+                }
+            }
+            for (int equivalentTask : equivalentNodesList[task]) {
+                int bit = position[equivalentTask];
+                if (bit < 64) {
+                    equivalentMaskLow[task] |= 1L << bit;
+                } else {
+                    equivalentMaskHigh[task] |= 1L << bit;
+                }
+            }
+            remainingDuration += taskGraph.getDuration(task);
+        }
+
+        bestStartTime = new int[numTasks];
+        bestScheduledOn = new int[numTasks];
+        processorFinishTimes = new int[numProcessors];
+        processorTaskCounts = new int[numProcessors];
+        taskStartTimes = new int[numTasks];
+        Arrays.fill(taskStartTimes, -1);
+        scheduledOn = new int[numTasks];
+    }
+
+    /**
+     * This method recursively tries to schedule tasks on processors.
+     *
+     * @param freeLow bits 0 to 63 of the set of tasks that are currently available to be scheduled
+     * @param freeHigh bits 64 to 127 of the set of tasks that are currently available to be scheduled
+     */
+    private void recursiveSearch(long freeLow, long freeHigh) {
+        // The best schedule has reached the lower bound so it is optimal, no need to search further
+        if (bestFinishTime <= lowerBound) {
+            return;
+        }
+        updateStateCount();
+
+        // Base case is when no task is free, i.e. all tasks scheduled.
+        if (freeLow == 0 && freeHigh == 0) {
+            updateBestSchedule();
+            return;
+        }
+
+        // Create a hash code for our partial schedule to check whether we have examined an equivalent schedule before
+        // If we have seen an equivalent schedule we do not need to proceed
+        int hashCode = PartialScheduleHashGenerator.generateHashCode(taskStartTimes, scheduledOn, numProcessors);
+        if (seenSchedules.contains(hashCode)) {
+            return;
+        } else {
+            // Find if we can complete the tasks in Fixed Task Order (FTO)
+            int[] ftoSorted = toFTOList(toTasks(freeLow, freeHigh));
+            if (ftoSorted != null) {
+                getFTOSchedule(ftoSorted, 0);
+                return;
+            }
+            seenSchedules.add(hashCode);
+        }
+
+        // Information we need about the current schedule
+        // minimal remaining time IF all remaining tasks are evenly distributed amongst processors.
+        int loadBalancedRemainingTime = (int) Math.ceil(remainingDuration / (double) numProcessors);
+
+        int earliestProcessorFinishTime = Integer.MAX_VALUE;
+        int latestProcessorFinishTime = 0;
+        for (int l = 0; l < numProcessors; l++) {
+            earliestProcessorFinishTime = Math.min(processorFinishTimes[l], earliestProcessorFinishTime);
+            latestProcessorFinishTime = Math.max(processorFinishTimes[l], latestProcessorFinishTime);
+        }
+
+        int longestCriticalPath = 0;
+        for (int task : toTasks(freeLow, freeHigh)) {
+            longestCriticalPath = Math.max(longestCriticalPath, maxLengthToExitNode[task]);
+        }
+
+        // Iterate through tasks in priority order
+        long triedLow = 0;
+        long triedHigh = 0;
+        long remainingLow = freeLow;
+        long remainingHigh = freeHigh;
+        while (remainingLow != 0 || remainingHigh != 0) {
+            int bit;
+            if (remainingLow != 0) {
+                bit = Long.numberOfTrailingZeros(remainingLow);
+                remainingLow &= remainingLow - 1;
+            } else {
+                bit = 64 + Long.numberOfTrailingZeros(remainingHigh);
+                remainingHigh &= remainingHigh - 1;
+            }
+            int candidateTask = taskAt[bit];
+
+            // check for node duplication
+            if (bit < 64 ? (triedLow & (1L << bit)) != 0 : (triedHigh & (1L << bit)) != 0) {
+                continue;
+            }
+            triedLow |= equivalentMaskLow[candidateTask];
+            triedHigh |= equivalentMaskHigh[candidateTask];
+
+            // if the our schedule can never become an optimal schedule, then there is no need to try any more tasks.
+            // Checked for every task, as the best finish time may have improved while searching the tasks before it.
+            if (!isPotentialOptimal(earliestProcessorFinishTime, loadBalancedRemainingTime, longestCriticalPath,
+                    latestProcessorFinishTime)) {
+                break;
+            }
+
+            // Update state (Location 1: Candidate Task)
+            remainingDuration -= taskGraph.getDuration(candidateTask);
+            if (bit < 64) {
+                scheduledLow |= 1L << bit;
+            } else {
+                scheduledHigh |= 1L << bit;
+            }
+            long nextFreeLow = bit < 64 ? freeLow & ~(1L << bit) : freeLow;
+            long nextFreeHigh = bit < 64 ? freeHigh : freeHigh & ~(1L << bit);
+            boolean childAddedThisRound = false;
+            for (int edge = childOffsets[candidateTask]; edge < childOffsets[candidateTask + 1]; edge++) {
+                int candidateChild = children[edge];
+                if ((parentMaskLow[candidateChild] & ~scheduledLow) == 0
+                        && (parentMaskHigh[candidateChild] & ~scheduledHigh) == 0) {
+                    int childBit = position[candidateChild];
+                    if (childBit < 64) {
+                        nextFreeLow |= 1L << childBit;
+                    } else {
+                        nextFreeHigh |= 1L << childBit;
+                    }
+                    childAddedThisRound = true;
+                }
+            }
+
+            // Calculate information we need about constraints due to communication costs
+            int maxDataArrival = 0;
+            int processorCausingMaxDataArrival = 0;
+            int secondMaxDataArrival = 0;
+            for (int edge = parentOffsets[candidateTask]; edge < parentOffsets[candidateTask + 1]; edge++) {
+                int parent = parents[edge];
+                int dataArrival = taskStartTimes[parent] + taskGraph.getDuration(parent) + parentCommCosts[edge];
+                if (dataArrival >= maxDataArrival) {
+                    if (scheduledOn[parent] != processorCausingMaxDataArrival) {
+                        secondMaxDataArrival = maxDataArrival;
+                    }
+                    maxDataArrival = dataArrival;
+                    processorCausingMaxDataArrival = scheduledOn[parent];
+
+                } else if (dataArrival >= secondMaxDataArrival) {
+                    if (scheduledOn[parent] != processorCausingMaxDataArrival) {
+                        secondMaxDataArrival = dataArrival;
+                    }
+                }
+            }
+
+            boolean hasBeenScheduledAtStart = false;
+            for (int candidateProcessor = 0; candidateProcessor < numProcessors; candidateProcessor++) { // Iterate through processors
+                // Avoid processor isomorphism, an empty processor is the same as any other empty processor, while one
+                // with only tasks of no weight is not
+                if (processorTaskCounts[candidateProcessor] == 0) {
+                    if (hasBeenScheduledAtStart) {
+                        // Skip duplicated search space
+                        continue;
+                    } else {
+                        hasBeenScheduledAtStart = true;
+                    }
+                }
+
+                // Partial duplicate avoidance
+                if (!childAddedLastRound && candidateProcessor < previousProcessor) {
+                    continue;
+                }
+
+                // Find earliest time to schedule candidate task on candidate processor
+                int dataReadyTime = processorCausingMaxDataArrival != candidateProcessor ? maxDataArrival : secondMaxDataArrival;
+                int earliestStartTimeOnCurrentProcessor = Math.max(processorFinishTimes[candidateProcessor], dataReadyTime);
+
+                // Pruning: tighter constraint now that we have selected the processor
+                if (earliestStartTimeOnCurrentProcessor + maxLengthToExitNode[candidateTask] >= bestFinishTime) {
+                    continue;
+                }
+
+                // Equivalent schedule pruning: skip if swapping with the previous task on this processor is no worse,
+                // unless the two tasks are equivalent, which are already deduplicated
+                if (candidateProcessor == previousProcessor && previousTask != -1
+                        && !isEquivalent(candidateTask, previousTask)
+                        && isSwapNoWorse(previousTask, previousProcessorFinishTime, taskStartTimes, scheduledOn,
+                                candidateTask, candidateProcessor, earliestStartTimeOnCurrentProcessor, dataReadyTime)) {
+                    continue;
+                }
+
+                // Update state (Location 2: Processors)
+                int prevFinishTime = processorFinishTimes[candidateProcessor];
+                int oldPreviousProcessor = previousProcessor;
+                boolean oldChildAddedLastRound = childAddedLastRound;
+                int oldPreviousTask = previousTask;
+                int oldPreviousProcessorFinishTime = previousProcessorFinishTime;
+                previousProcessor = candidateProcessor;
+                childAddedLastRound = childAddedThisRound;
+                previousTask = candidateTask;
+                previousProcessorFinishTime = prevFinishTime;
+
+                processorFinishTimes[candidateProcessor] = earliestStartTimeOnCurrentProcessor + taskGraph.getDuration(candidateTask);
+                processorTaskCounts[candidateProcessor]++;
+                scheduledOn[candidateTask] = candidateProcessor;
+                taskStartTimes[candidateTask] = earliestStartTimeOnCurrentProcessor;
+
+                recursiveSearch(nextFreeLow, nextFreeHigh);
+
+                // Backtrack state (Location 2: Processors)
+                processorFinishTimes[candidateProcessor] = prevFinishTime;
+                processorTaskCounts[candidateProcessor]--;
+                previousProcessor = oldPreviousProcessor;
+                childAddedLastRound = oldChildAddedLastRound;
+                previousTask = oldPreviousTask;
+                previousProcessorFinishTime = oldPreviousProcessorFinishTime;
+            }
+
+            // Backtrack state (Location 1: Candidate Task)
+            if (bit < 64) {
+                scheduledLow &= ~(1L << bit);
+            } else {
+                scheduledHigh &= ~(1L << bit);
+            }
+            remainingDuration += taskGraph.getDuration(candidateTask);
+            taskStartTimes[candidateTask] = -1;
+        }
+    }
+
+    /**
+     * @return The tasks in the set, in priority order.
+     */
+    private int[] toTasks(long low, long high) {
+        int[] tasks = new int[Long.bitCount(low) + Long.bitCount(high)];
+        int index = 0;
+        while (low != 0) {
+            tasks[index++] = taskAt[Long.numberOfTrailingZeros(low)];
+            low &= low - 1;
+        }
+        while (high != 0) {
+            tasks[index++] = taskAt[64 + Long.numberOfTrailingZeros(high)];
+            high &= high - 1;
+        }
+        return tasks;
+    }
+
+    /**
+     * Sorts the free tasks into Fixed Task Order if possible. See SolutionSequential for the conditions.
+     * @param candidateTasks the free tasks yet to be scheduled.
+     * @return null if no FTO found, otherwise the FTO.
+     */
+    private int[] toFTOList(int[] candidateTasks) {
+        int child = -1;
+        int parentProcessor = -1;
+
+        for (int task : candidateTasks) {
+            // To be an FTO, every node must have at most one parent and at most one child
+            if (taskGraph.getNumberOfParents(task) > 1 || taskGraph.getNumberOfChildren(task) > 1) {
+                return null;
+            }
+
+            // Every node must have the same child IF they have a child
+            if (taskGraph.getNumberOfChildren(task) > 0) {
+                int taskChild = children[childOffsets[task]];
+                if (child == -1) {
+                    child = taskChild;
+                } else if (child != taskChild) {
+                    return null;
+                }
+            }
+
+            // every node must have their parents on the same processor IF they have a parent.
+            if (taskGraph.getNumberOfParents(task) > 0) {
+                int taskParentProcessor = scheduledOn[parents[parentOffsets[task]]];
+                if (parentProcessor == -1) {
+                    parentProcessor = taskParentProcessor;
+                } else if (parentProcessor != taskParentProcessor) {
+                    return null;
+                }
+            }
+        }
+
+        // sort by non-decreasing data ready time, breaking ties by non-increasing out edge cost
+        Integer[] sorted = new Integer[candidateTasks.length];
+        for (int i = 0; i < sorted.length; i++) {
+            sorted[i] = candidateTasks[i];
+        }
+        Arrays.sort(sorted, Comparator.<Integer>comparingInt(this::dataReadyTime)
+                .thenComparing(Comparator.<Integer>comparingInt(this::outEdgeCost).reversed()));
+
+        // verify if the candidate tasks are ordered by out edge cost in non-increasing order,
+        // if not we do not have a FTO.
+        int[] ftoList = new int[sorted.length];
+        int prevOutEdgeCost = Integer.MAX_VALUE;
+        for (int i = 0; i < sorted.length; i++) {
+            ftoList[i] = sorted[i];
+            int edgeCost = outEdgeCost(ftoList[i]);
+            if (edgeCost > prevOutEdgeCost) {
+                return null;
+            }
+            prevOutEdgeCost = edgeCost;
+        }
+        return ftoList;
+    }
+
+    /**
+     * @return finish time of the only parent of the task plus the communication cost, or 0 without a parent.
+     */
+    private int dataReadyTime(int task) {
+        if (taskGraph.getNumberOfParents(task) == 0) {
+            return 0;
+        }
+        int parent = parents[parentOffsets[task]];
+        return taskStartTimes[parent] + taskGraph.getDuration(parent) + parentCommCosts[parentOffsets[task]];
+    }
+
+    /**
+     * @return communication cost to the only child of the task, or -1 without a child, as a task without a child can
+     * always be moved after one with a child, even one whose edge costs 0.
+     */
+    private int outEdgeCost(int task) {
+        return taskGraph.getNumberOfChildren(task) == 0 ? -1 : childCommCosts[childOffsets[task]];
+    }
+
+    /**
+     * Given a Fixed Task Order, we know that we can safely schedule the next task.
+     * This method will schedule in FTO order.
+     * @param ftoSortedList the FTO sorted list.
+     * @param first index of the next task in the list to schedule.
+     */
+    private void getFTOSchedule(int[] ftoSortedList, int first) {
+        // The best schedule has reached the lower bound so it is optimal, no need to search further
+        if (bestFinishTime <= lowerBound) {
+            return;
+        }
+        updateStateCount();
+
+        // Base case
+        if (first == ftoSortedList.length) {
+            updateBestSchedule();
+            return;
+        }
+
+        // Create a hash code for our partial schedule to check whether we have examined an equivalent schedule before
+        // If we have seen an equivalent schedule we do not need to proceed
+        int hashCode = PartialScheduleHashGenerator.generateHashCode(taskStartTimes, scheduledOn, numProcessors);
+        if (seenSchedules.contains(hashCode)) {
+            return;
+        } else {
+            seenSchedules.add(hashCode);
+        }
+
+        // Information we need about the current schedule
+        int loadBalancedRemainingTime = (int) Math.ceil(remainingDuration / (double) numProcessors);
+
+        int earliestProcessorFinishTime = Integer.MAX_VALUE;
+        int latestProcessorFinishTime = 0;
+        for (int l = 0; l < numProcessors; l++) {
+            earliestProcessorFinishTime = Math.min(processorFinishTimes[l], earliestProcessorFinishTime);
+            latestProcessorFinishTime = Math.max(processorFinishTimes[l], latestProcessorFinishTime);
+        }
+
+        int longestCriticalPath = 0;
+        for (int i = first; i < ftoSortedList.length; i++) {
+            longestCriticalPath = Math.max(longestCriticalPath, maxLengthToExitNode[ftoSortedList[i]]);
+        }
+
+        // Exit conditions 1
+        if (!isPotentialOptimal(earliestProcessorFinishTime, loadBalancedRemainingTime, longestCriticalPath,
+                latestProcessorFinishTime)) {
+            return;
+        }
+
+        // Update the state: Location 1
+        int firstTask = ftoSortedList[first];
+        int firstBit = position[firstTask];
+        remainingDuration -= taskGraph.getDuration(firstTask);
+        if (firstBit < 64) {
+            scheduledLow |= 1L << firstBit;
+        } else {
+            scheduledHigh |= 1L << firstBit;
+        }
+
+        // the free tasks after the first one, and its child if that becomes free
+        long nextFreeLow = 0;
+        long nextFreeHigh = 0;
+        for (int i = first + 1; i < ftoSortedList.length; i++) {
+            int bit = position[ftoSortedList[i]];
+            if (bit < 64) {
+                nextFreeLow |= 1L << bit;
+            } else {
+                nextFreeHigh |= 1L << bit;
+            }
+        }
+        boolean taskChildAdded = false;
+        if (taskGraph.getNumberOfChildren(firstTask) > 0) {
+            int child = children[childOffsets[firstTask]];
+            if ((parentMaskLow[child] & ~scheduledLow) == 0 && (parentMaskHigh[child] & ~scheduledHigh) == 0) {
+                int childBit = position[child];
+                if (childBit < 64) {
+                    nextFreeLow |= 1L << childBit;
+                } else {
+                    nextFreeHigh |= 1L << childBit;
+                }
+                taskChildAdded = true;
+            }
+        }
+
+        // since we have a FTO, we can schedule the first task on all processors.
+        boolean hasBeenScheduledAtStart = false;
+        for (int candidateProcessor = 0; candidateProcessor < numProcessors; candidateProcessor++) {
+            // Avoid processor isomorphism, an empty processor is the same as any other empty processor, while one
+            // with only tasks of no weight is not
+            if (processorTaskCounts[candidateProcessor] == 0) {
+                if (hasBeenScheduledAtStart) {
+                    // Skip duplicated search space
+                    continue;
+                } else {
+                    hasBeenScheduledAtStart = true;
+                }
+            }
+
+            // Find the min start time on this processor
+            int earliestStartTimeOnCurrentProcessor = processorFinishTimes[candidateProcessor];
+            if (taskGraph.getNumberOfParents(firstTask) > 0) {
+                int parent = parents[parentOffsets[firstTask]];
+                int parentFinishTime = taskStartTimes[parent] + taskGraph.getDuration(parent);
+                if (scheduledOn[parent] != candidateProcessor) {
+                    parentFinishTime += parentCommCosts[parentOffsets[firstTask]];
+                }
+                earliestStartTimeOnCurrentProcessor = Math.max(earliestStartTimeOnCurrentProcessor, parentFinishTime);
+            }
+
+            // Exit conditions 2: tighter constraint now that we have selected the processor
+            if (earliestStartTimeOnCurrentProcessor + maxLengthToExitNode[firstTask] >= bestFinishTime) {
+                continue;
+            }
+
+            // Update the state: Location 2
+            int prevFinishTime = processorFinishTimes[candidateProcessor];
+            int oldPreviousProcessor = previousProcessor;
+            boolean oldChildAddedLastRound = childAddedLastRound;
+            int oldPreviousTask = previousTask;
+            previousProcessor = candidateProcessor;
+            childAddedLastRound = taskChildAdded;
+            // the FTO order is fixed, so the next decision must not be swapped with this task
+            previousTask = -1;
+
+            processorFinishTimes[candidateProcessor] = earliestStartTimeOnCurrentProcessor + taskGraph.getDuration(firstTask);
+            processorTaskCounts[candidateProcessor]++;
+            scheduledOn[firstTask] = candidateProcessor;
+            taskStartTimes[firstTask] = earliestStartTimeOnCurrentProcessor;
+
+            if (!taskChildAdded) {
+                // it remains a FTO, we don't have to check again
+                getFTOSchedule(ftoSortedList, first + 1);
+            } else {
+                recursiveSearch(nextFreeLow, nextFreeHigh);
+            }
+
+            // Backtrack: Location 2
+            processorFinishTimes[candidateProcessor] = prevFinishTime;
+            processorTaskCounts[candidateProcessor]--;
+            previousProcessor = oldPreviousProcessor;
+            childAddedLastRound = oldChildAddedLastRound;
+            previousTask = oldPreviousTask;
+        }
+
+        // Backtrack: Location 1
+        if (firstBit < 64) {
+            scheduledLow &= ~(1L << firstBit);
+        } else {
+            scheduledHigh &= ~(1L << firstBit);
+        }
+        remainingDuration += taskGraph.getDuration(firstTask);
+        taskStartTimes[firstTask] = -1;
+    }
+
+    /**
+     * @return Whether the two tasks are equivalent, from the equivalence masks.
+     */
+    private boolean isEquivalent(int task, int otherTask) {
+        int otherBit = position[otherTask];
+        return otherBit < 64 ? (equivalentMaskLow[task] & (1L << otherBit)) != 0
+                : (equivalentMaskHigh[task] & (1L << otherBit)) != 0;
+    }
+
+    /**
+     * Checks if the current schedule can be optimal by comparing against the current best finishing time.
+     */
+    private boolean isPotentialOptimal(int earliestProcessorFinishTime, int loadBalancedRemainingTime,
+                                       int longestCriticalPath, int latestProcessorFinishTime) {
+        return earliestProcessorFinishTime + loadBalancedRemainingTime < bestFinishTime
+                && earliestProcessorFinishTime + longestCriticalPath < bestFinishTime
+                && latestProcessorFinishTime < bestFinishTime;
+    }
+
+    /**
+     * This method should be called when a schedule is created. We will update the best
+     * schedule so far if the schedule is better.
+     */
+    private void updateBestSchedule() {
+        int finishTime = 0;
+        for (int processorFinishTime : processorFinishTimes) {
+            finishTime = Math.max(finishTime, processorFinishTime);
+        }
+
+        //If schedule time is better, update bestFinishTime and best schedule
+        if (finishTime < bestFinishTime) {
+            bestFinishTime = finishTime;
+            System.arraycopy(scheduledOn, 0, bestScheduledOn, 0, numTasks);
+            System.arraycopy(taskStartTimes, 0, bestStartTime, 0, numTasks);
+            updateBestScheduleOnVisual();
+        }
+    }
+
+    /**
+     * Helper method to create the output Schedule.
+     *
+     * @return Optimal Schedule.
+     */
+    private Schedule createOutput() {
+        if (initialSchedule != null && bestFinishTime >= initialSchedule.getFinishTime()) {
+            // no schedule finishing before the initial schedule was found
+            return initialSchedule;
+        }
+        Task[] optimalSchedule = new Task[numTasks];
+        for (int i = 0; i < numTasks; i++) {
+            optimalSchedule[i] = new Task(bestStartTime[i], bestStartTime[i] + taskGraph.getDuration(i),
+                    bestScheduledOn[i]);
+        }
+        return new Schedule(optimalSchedule, bestFinishTime);
+    }
+}
@@ -3,6 +3,7 @@ package solution;
 import data.Schedule;
 import data.Task;
 import data.TaskGraph;
+import solution.helpers.LowerBound;
 import solution.helpers.PartialScheduleHashGenerator;
 import solution.helpers.PreProcessor;
 
@@ -34,6 +35,7 @@ public class SolutionParallel extends Solution {
      * @return optimal schedule found by the run method.
      */
     public Schedule run() {
+        setRunningThread();
         initializeGlobalVars();
         SearchState initialSearchState = initializeState();
 
@@ -63,6 +65,10 @@ public class SolutionParallel extends Solution {
          */
         @Override
         protected void compute() {
+            // The best schedule has reached the lower bound so it is optimal, no need to search further
+            if (bestFinishTime <= lowerBound) {
+                return;
+            }
             updateStateCount();
 
             // Base case is when queue is empty, i.e. all tasks scheduled.
@@ -145,9 +151,9 @@ public class SolutionParallel extends Solution {
 
                 // Update state (Location 1: Candidate data.Task)
                 searchState.remainingDuration -= taskGraph.getDuration(candidateTask);
-                List<Integer> candidateChildren = taskGraph.getChildrenList(candidateTask);
                 boolean childAddedThisRound = false;
-                for (Integer candidateChild : candidateChildren) {
+                for (int edge = childOffsets[candidateTask]; edge < childOffsets[candidateTask + 1]; edge++) {
+                    int candidateChild = children[edge];
                     searchState.inDegrees[candidateChild]--;
                     if (searchState.inDegrees[candidateChild] == 0) {
                         searchState.candidateTasks.add(candidateChild);
@@ -159,9 +165,9 @@ public class SolutionParallel extends Solution {
                 int maxDataArrival = 0;
                 int processorCausingMaxDataArrival = 0;
                 int secondMaxDataArrival = 0;
-                List<Integer> parents = taskGraph.getParentsList(candidateTask);
-                for (int parent : parents) {
-                    int dataArrival = searchState.taskStartTimes[parent] + taskGraph.getDuration(parent) + taskGraph.getCommCost(parent, candidateTask);
+                for (int edge = parentOffsets[candidateTask]; edge < parentOffsets[candidateTask + 1]; edge++) {
+                    int parent = parents[edge];
+                    int dataArrival = searchState.taskStartTimes[parent] + taskGraph.getDuration(parent) + parentCommCosts[edge];
                     if (dataArrival >= maxDataArrival) {
                         if (searchState.scheduledOn[parent] != processorCausingMaxDataArrival) {
                             secondMaxDataArrival = maxDataArrival;
@@ -178,8 +184,9 @@ public class SolutionParallel extends Solution {
 
                 boolean hasBeenScheduledAtStart = false;
                 for (int candidateProcessor = 0; candidateProcessor < numProcessors; candidateProcessor++) { // Iterate through processors
-                    // Avoid processor isomorphism
-                    if (searchState.processorFinishTimes[candidateProcessor] == 0) {
+                    // Avoid processor isomorphism, an empty processor is the same as any other empty processor, while
+                    // one with only tasks of no weight is not
+                    if (searchState.processorTaskCounts[candidateProcessor] == 0) {
                         if (hasBeenScheduledAtStart) {
                             // Skip duplicated search space
                             continue;
@@ -209,13 +216,30 @@ public class SolutionParallel extends Solution {
                         continue;
                     }
 
+                    // Equivalent schedule pruning: skip if swapping with the previous task on this processor is no
+                    // worse, unless the two tasks are equivalent, which are already deduplicated
+                    if (candidateProcessor == searchState.previousProcessor && searchState.previousTask != -1
+                            && !equivalentNodesList[candidateTask].contains(searchState.previousTask)) {
+                        int dataReadyTime = processorCausingMaxDataArrival != candidateProcessor ? maxDataArrival : secondMaxDataArrival;
+                        if (isSwapNoWorse(searchState.previousTask, searchState.previousProcessorFinishTime,
+                                searchState.taskStartTimes, searchState.scheduledOn, candidateTask, candidateProcessor,
+                                earliestStartTimeOnCurrentProcessor, dataReadyTime)) {
+                            continue;
+                        }
+                    }
+
                     // Update state (Location 2: Processors)
                     int prevFinishTime = searchState.processorFinishTimes[candidateProcessor];
                     int oldPreviousProcessor = searchState.previousProcessor;
                     boolean oldChildAddedLastRound = searchState.childAddedLastRound;
+                    int oldPreviousTask = searchState.previousTask;
+                    int oldPreviousProcessorFinishTime = searchState.previousProcessorFinishTime;
                     searchState.previousProcessor = candidateProcessor;
                     searchState.childAddedLastRound = childAddedThisRound;
+                    searchState.previousTask = candidateTask;
+                    searchState.previousProcessorFinishTime = prevFinishTime;
                     searchState.processorFinishTimes[candidateProcessor] = earliestStartTimeOnCurrentProcessor + taskGraph.getDuration(candidateTask);
+                    searchState.processorTaskCounts[candidateProcessor]++;
                     searchState.scheduledOn[candidateTask] = candidateProcessor;
                     searchState.taskStartTimes[candidateTask] = earliestStartTimeOnCurrentProcessor;
 
@@ -225,13 +249,17 @@ public class SolutionParallel extends Solution {
 
                     // Backtrack state (Location 2: Processors)
                     searchState.processorFinishTimes[candidateProcessor] = prevFinishTime;
+                    searchState.processorTaskCounts[candidateProcessor]--;
                     searchState.previousProcessor = oldPreviousProcessor;
                     searchState.childAddedLastRound = oldChildAddedLastRound;
+                    searchState.previousTask = oldPreviousTask;
+                    searchState.previousProcessorFinishTime = oldPreviousProcessorFinishTime;
 
                 }
 
                 // Backtrack state (Location 1: Candidate data.Task)
-                for (Integer candidateChild : candidateChildren) {
+                for (int edge = childOffsets[candidateTask]; edge < childOffsets[candidateTask + 1]; edge++) {
+                    int candidateChild = children[edge];
                     // revert changes made to children
                     searchState.inDegrees[candidateChild]++;
                     if (searchState.inDegrees[candidateChild] == 1) {
@@ -253,6 +281,10 @@ public class SolutionParallel extends Solution {
      * @return Optimal data.Schedule.
      */
     private Schedule createOutput() {
+        if (initialSchedule != null && bestFinishTime >= initialSchedule.getFinishTime()) {
+            // no schedule finishing before the initial schedule was found
+            return initialSchedule;
+        }
         Task[] optimalSchedule = new Task[numTasks];
         for (int i = 0; i < numTasks; i++) {
             Task t = new Task(bestStartTime[i],
@@ -282,6 +314,7 @@ public class SolutionParallel extends Solution {
      */
     private void initializeGlobalVars() {
         maxLengthToExitNode = PreProcessor.maxLengthToExitNode(taskGraph);
+        lowerBound = LowerBound.calculate(taskGraph, numProcessors, maxLengthToExitNode);
         nodePriorities = maxLengthToExitNode;
         numTasks = taskGraph.getNumberOfTasks();
         equivalentNodesList = PreProcessor.getNodeEquivalence(taskGraph);
@@ -294,7 +327,7 @@ public class SolutionParallel extends Solution {
      */
     private SearchState initializeState() {
         LinkedList<Integer> candidateTasks = new LinkedList<>();
-        int[] inDegrees = new int[numTasks];
+        int[] inDegrees = taskGraph.getInDegrees().clone();
         int[] taskStartTimes = new int[numTasks];
         Arrays.fill(taskStartTimes, -1);
         int[] scheduledOn = new int[numTasks];
@@ -303,12 +336,11 @@ public class SolutionParallel extends Solution {
         for (int i = 0; i < numTasks; i++) {
             // calculate remaining duration of tasks to be scheduled
             remainingDuration += taskGraph.getDuration(i);
-            inDegrees[i] = taskGraph.getParentsList(i).size();
             if (inDegrees[i] == 0) {
                 candidateTasks.add(i);
             }
         }
         return new SearchState(candidateTasks, inDegrees, taskStartTimes,
-                scheduledOn, processorFinishTimes, remainingDuration, -1, false);
+                scheduledOn, processorFinishTimes, new int[numProcessors], remainingDuration, -1, false, -1, 0);
     }
 }
\ No newline at end of file
@@ -0,0 +1,268 @@
+package solution;
+
+import data.Schedule;
+import data.TaskGraph;
+import solution.helpers.CanonicalGraph;
+import solution.helpers.Decomposition;
+import solution.helpers.GraphReduction;
+import solution.helpers.IntSet;
+import solution.helpers.Greedy;
+import solution.helpers.LocalSearch;
+import solution.helpers.LowerBound;
+import solution.helpers.PreProcessor;
+import solution.helpers.ResultCache;
+import solution.helpers.SequentialScheduler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Runs all the stages needed to find an optimal schedule of a task graph: graph reduction, decomposition into smaller
+ * graphs, the greedy schedule, local search, the lower bound check and the exact search. The stages are run on each
+ * smaller graph, and their schedules are combined.
+ */
+public class SolutionPipeline {
+    private final int numProcessors;
+    private int numCores = -1; // number of threads of the exact search, -1 for the sequential search
+    private long localSearchBudget = 200; // milliseconds spent improving the greedy schedules of each graph run
+    private long localSearchDeadline; // when the local search budget of the graph being run is used up
+    private int numReducedTasks; // tasks of the reduced graph being run, which the budget is shared between
+    private GraphReduction reduction; // the reduction of the last graph that was run
+    private IntSet seenScheduleTable; // duplicate detection table shared by the exact searches, null for their own
+    private Greedy greedy = new Greedy();
+    private long stateCount = 0; // states searched by the exact searches of the last graph that was run
+    private ResultCache resultCache; // optimal schedules found earlier, null to always search
+
+    /**
+     * @param numProcessors Number of processors to schedule the tasks on.
+     */
+    public SolutionPipeline(int numProcessors) {
+        this.numProcessors = numProcessors;
+    }
+
+    /**
+     * Runs the exact search in parallel.
+     * @param numCores The number of threads of the exact search.
+     */
+    public void setNumCores(int numCores) {
+        this.numCores = numCores;
+    }
+
+    /**
+     * @param localSearchBudget Time in milliseconds spent improving the greedy schedules of a graph. It is shared by
+     *                          the exact searches of the smaller graphs it is decomposed into, each taking at most its
+     *                          share of the tasks.
+     */
+    public void setLocalSearchBudget(long localSearchBudget) {
+        this.localSearchBudget = localSearchBudget;
+    }
+
+    /**
+     * Makes the exact searches use the given table to detect duplicate partial schedules, instead of a set on the
+     * heap of their own. The table is cleared before each search that is run, if the last one added to it.
+     * @param seenScheduleTable The table, e.g. an OffHeapIntSet.
+     */
+    public void setSeenScheduleTable(IntSet seenScheduleTable) {
+        this.seenScheduleTable = seenScheduleTable;
+    }
+
+    /**
+     * @param greedy The heuristics giving the initial schedule of each exact search, e.g. on a single thread when
+     *               many graphs are scheduled at once.
+     */
+    public void setGreedy(Greedy greedy) {
+        this.greedy = greedy;
+    }
+
+    /**
+     * @return The heuristics giving the initial schedule of each exact search, e.g. to print their run times.
+     */
+    public Greedy getGreedy() {
+        return greedy;
+    }
+
+    /**
+     * Looks up each graph in the cache before searching, and keeps the optimal schedules found in it.
+     * @param resultCache The cache, which may be shared by pipelines.
+     */
+    public void setResultCache(ResultCache resultCache) {
+        this.resultCache = resultCache;
+    }
+
+    /**
+     * @param taskGraph Graph containing tasks as nodes and their dependencies as edges.
+     * @return The exact search that would be run on the task graph. It uses the shared table as it is, which is only
+     * cleared when the pipeline runs a search.
+     */
+    public Solution createSolution(TaskGraph taskGraph) {
+        Solution solution;
+        if (numCores == -1) {
+            if (taskGraph.getNumberOfTasks() <= SolutionBitset.MAX_TASKS) {
+                solution = new SolutionBitset(taskGraph, numProcessors);
+            } else {
+                solution = new SolutionSequential(taskGraph, numProcessors);
+            }
+        } else {
+            SolutionParallel solutionParallel = new SolutionParallel(taskGraph, numProcessors);
+            solutionParallel.setNumCores(numCores);
+            solution = solutionParallel;
+        }
+
+        if (seenScheduleTable != null) {
+            solution.setSeenSchedules(seenScheduleTable);
+        }
+        return solution;
+    }
+
+    /**
+     * Finds an optimal schedule of the task graph.
+     * @param taskGraph Graph containing tasks as nodes and their dependencies as edges.
+     * @return an optimal schedule.
+     */
+    public Schedule run(TaskGraph taskGraph) {
+        return run(taskGraph, null);
+    }
+
+    /**
+     * Finds an optimal schedule of the task graph, starting from a known schedule, e.g. the optimal schedule on fewer
+     * processors. The searches are seeded with it, and with its restriction to each smaller graph, wherever it is
+     * better than the greedy schedule.
+     * @param taskGraph Graph containing tasks as nodes and their dependencies as edges.
+     * @param initialSchedule A valid schedule of the task graph on at most this many processors, or null.
+     * @return an optimal schedule.
+     */
+    public Schedule run(TaskGraph taskGraph, Schedule initialSchedule) {
+        reduction = new GraphReduction(taskGraph);
+        stateCount = 0;
+        localSearchDeadline = System.currentTimeMillis() + localSearchBudget;
+        numReducedTasks = reduction.getReducedGraph().getNumberOfTasks();
+        CanonicalGraph canonicalGraph = null;
+        if (resultCache != null) {
+            canonicalGraph = new CanonicalGraph(taskGraph);
+            Schedule cachedSchedule = resultCache.get(canonicalGraph, numProcessors);
+            if (cachedSchedule != null) {
+                return cachedSchedule;
+            }
+        }
+
+        Schedule reducedSchedule = initialSchedule == null ? null : reduction.reduce(initialSchedule);
+        Schedule result = reduction.expand(solve(reduction.getReducedGraph(), reducedSchedule));
+        if (resultCache != null) {
+            resultCache.put(canonicalGraph, numProcessors, result);
+        }
+        return result;
+    }
+
+    /**
+     * @return The reduction of the last graph that was run, or null if no graph has been run.
+     */
+    public GraphReduction getReduction() {
+        return reduction;
+    }
+
+    /**
+     * @return The number of states searched by the exact searches of the last graph that was run.
+     */
+    public long getStateCount() {
+        return stateCount;
+    }
+
+    /**
+     * Finds an optimal schedule of the reduced task graph, splitting it into smaller graphs where possible.
+     * @param taskGraph Graph containing tasks as nodes and their dependencies as edges.
+     * @param knownSchedule A valid schedule of the task graph, or null if there is none.
+     * @return an optimal schedule.
+     */
+    private Schedule solve(TaskGraph taskGraph, Schedule knownSchedule) {
+        int numTasks = taskGraph.getNumberOfTasks();
+
+        // if the number of processors is one, then the optimal solution is just everything run
+        // sequentially.
+        if (numProcessors == 1) {
+            return new SequentialScheduler(taskGraph).getSchedule();
+        }
+
+        // A cut task splits the graph into two graphs which can be solved optimally on their own.
+        int[] order = PreProcessor.topologicalOrder(taskGraph);
+        int cutPosition = Decomposition.findCutPosition(taskGraph, order);
+        if (cutPosition != -1) {
+            int[] upperTasks = Arrays.copyOfRange(order, 0, cutPosition + 1);
+            int[] lowerTasks = Arrays.copyOfRange(order, cutPosition, numTasks);
+            Schedule upperSchedule = solve(Decomposition.createSubgraph(taskGraph, upperTasks, false),
+                    restrict(knownSchedule, upperTasks, false));
+            Schedule lowerSchedule = solve(Decomposition.createSubgraph(taskGraph, lowerTasks, true),
+                    restrict(knownSchedule, lowerTasks, true));
+            return Decomposition.combineSeries(numTasks, upperTasks, upperSchedule, lowerTasks, lowerSchedule);
+        }
+
+        // Independent components are solved on their own. Their combined schedule is optimal if it meets the
+        // lower bound, otherwise it is used as the initial schedule of the search of the whole graph.
+        Schedule initialSchedule = knownSchedule;
+        List<int[]> components = Decomposition.findComponents(taskGraph);
+        if (components.size() > 1) {
+            int lowerBound = LowerBound.calculate(taskGraph, numProcessors);
+            List<Schedule> schedules = new ArrayList<>();
+            for (int[] component : components) {
+                Schedule schedule = solve(Decomposition.createSubgraph(taskGraph, component, false),
+                        restrict(knownSchedule, component, false));
+                schedules.add(schedule);
+                lowerBound = Math.max(lowerBound, schedule.getFinishTime());
+            }
+
+            Schedule combinedSchedule = Decomposition.combineComponents(numTasks, numProcessors, components, schedules);
+            if (initialSchedule == null || combinedSchedule.getFinishTime() < initialSchedule.getFinishTime()) {
+                initialSchedule = combinedSchedule;
+            }
+            if (initialSchedule.getFinishTime() <= lowerBound) {
+                return initialSchedule;
+            }
+        }
+
+        return search(taskGraph, initialSchedule);
+    }
+
+    /**
+     * @return The schedule restricted to the subgraph of the tasks, or null if there is no schedule.
+     */
+    private static Schedule restrict(Schedule schedule, int[] tasks, boolean zeroFirstTask) {
+        return schedule == null ? null : Decomposition.restrictSchedule(schedule, tasks, zeroFirstTask);
+    }
+
+    /**
+     * Runs the greedy schedule, local search and the exact search on the whole task graph.
+     * @param taskGraph Graph containing tasks as nodes and their dependencies as edges.
+     * @param initialSchedule A valid schedule to start from, or null if there is none.
+     * @return an optimal schedule.
+     */
+    private Schedule search(TaskGraph taskGraph, Schedule initialSchedule) {
+        Solution solution = createSolution(taskGraph);
+
+        // Run greedy algorithm to determine lower bound of optimal solution
+        Schedule result = greedy.run(taskGraph, numProcessors);
+        if (initialSchedule != null && initialSchedule.getFinishTime() < result.getFinishTime()) {
+            result = initialSchedule;
+        }
+
+        // Improve the greedy schedule with local search to tighten the initial bound
+        long budget = Math.min(localSearchDeadline - System.currentTimeMillis(),
+                localSearchBudget * taskGraph.getNumberOfTasks() / Math.max(1, numReducedTasks));
+        result = new LocalSearch().run(taskGraph, numProcessors, result, budget);
+        solution.setInitialSchedule(result);
+
+        // Run algorithm to find optimal schedule, unless the greedy schedule already meets the lower bound
+        if (result.getFinishTime() > LowerBound.calculate(taskGraph, numProcessors)) {
+            // most graphs are solved without a search, so the shared table is only cleared when one is run
+            if (seenScheduleTable != null && seenScheduleTable.size() > 0) {
+                seenScheduleTable.clear();
+            }
+            Schedule optimalResult = solution.run();
+            stateCount += solution.stateCount;
+
+            if (optimalResult.getFinishTime() < result.getFinishTime()) {
+                result = optimalResult;
+            }
+        }
+        return result;
+    }
+}
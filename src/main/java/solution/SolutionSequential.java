@@ -3,6 +3,7 @@ package solution;
 import data.Schedule;
 import data.Task;
 import data.TaskGraph;
+import solution.helpers.LowerBound;
 import solution.helpers.PartialScheduleHashGenerator;
 import solution.helpers.PreProcessor;
 
@@ -13,9 +14,12 @@ public class SolutionSequential extends Solution {
     private int[] taskStartTimes; // taskStartTimes[i] => start time of task i
     private int[] scheduledOn;  // scheduledOn[i] => the processor task i is scheduled on
     private int[] processorFinishTimes; // processorFinishTimes[i] => finishing time of the last task scheduled on processor i
+    private int[] processorTaskCounts; // processorTaskCounts[i] => number of tasks on processor i, which may finish at 0
     private int remainingDuration = 0; // total duration of remaining tasks to be scheduled (used for pruning)
     private int previousProcessor = -1;
     private boolean childAddedLastRound = false;
+    private int previousTask = -1; // task scheduled by the previous branching decision, -1 if it was made in FTO order
+    private int previousProcessorFinishTime = 0; // finish time of previousProcessor before previousTask was appended
 
     /**
      * @param taskGraph      Graph containing tasks as nodes and their dependencies as edges.
@@ -30,6 +34,7 @@ public class SolutionSequential extends Solution {
      * @return optimal schedule found by the run method.
      */
     public Schedule run() {
+        setRunningThread();
         LinkedList<Integer> candidateTasks = initialize(taskGraph, numProcessors);
         recursiveSearch(candidateTasks);
         setDone();
@@ -42,6 +47,10 @@ public class SolutionSequential extends Solution {
      * @param candidateTasks a list of tasks that are currently available to be scheduled
      */
     private void recursiveSearch(LinkedList<Integer> candidateTasks) {
+        // The best schedule has reached the lower bound so it is optimal, no need to search further
+        if (bestFinishTime <= lowerBound) {
+            return;
+        }
         updateStateCount();
 
         // Base case is when queue is empty, i.e. all tasks scheduled.
@@ -56,6 +65,10 @@ public class SolutionSequential extends Solution {
         if (seenSchedules.contains(hashCode)) {
             return;
         } else {
+            // Visit tasks in priority order, breaking ties by task so the order does not depend on how the list was
+            // built, and SolutionBitset visits them in the same order
+            candidateTasks.sort(Comparator.comparingInt((Integer a) -> nodePriorities[a]).thenComparingInt(a -> a));
+
             // Find if we can complete the tasks in Fixed data.Task Order (FTO)
             LinkedList<Integer> ftoSorted = toFTOList(new LinkedList<>(candidateTasks));
             if (ftoSorted != null) {
@@ -79,7 +92,6 @@ public class SolutionSequential extends Solution {
         int longestCriticalPath = calculateLongestCriticalPath(candidateTasks);
 
         // Iterate through tasks
-        candidateTasks.sort(Comparator.comparingInt(a -> nodePriorities[a]));
         HashSet<Integer> seenTasks = new HashSet<>();
         for (int i = 0; i < candidateTasks.size(); i++) {
             int candidateTask = candidateTasks.remove();
@@ -104,8 +116,8 @@ public class SolutionSequential extends Solution {
             // Update state (Location 1: Candidate data.Task)
             remainingDuration -= taskGraph.getDuration(candidateTask);
             boolean childAddedThisRound = false;
-            List<Integer> candidateChildren = taskGraph.getChildrenList(candidateTask);
-            for (Integer candidateChild : candidateChildren) {
+            for (int edge = childOffsets[candidateTask]; edge < childOffsets[candidateTask + 1]; edge++) {
+                int candidateChild = children[edge];
                 inDegrees[candidateChild]--;
                 if (inDegrees[candidateChild] == 0) {
                     candidateTasks.add(candidateChild);
@@ -117,9 +129,9 @@ public class SolutionSequential extends Solution {
             int maxDataArrival = 0;
             int processorCausingMaxDataArrival = 0;
             int secondMaxDataArrival = 0;
-            List<Integer> parents = taskGraph.getParentsList(candidateTask);
-            for (int parent : parents) {
-                int dataArrival = taskStartTimes[parent] + taskGraph.getDuration(parent) + taskGraph.getCommCost(parent, candidateTask);
+            for (int edge = parentOffsets[candidateTask]; edge < parentOffsets[candidateTask + 1]; edge++) {
+                int parent = parents[edge];
+                int dataArrival = taskStartTimes[parent] + taskGraph.getDuration(parent) + parentCommCosts[edge];
                 if (dataArrival >= maxDataArrival) {
                     if (scheduledOn[parent] != processorCausingMaxDataArrival) {
                         secondMaxDataArrival = maxDataArrival;
@@ -139,8 +151,9 @@ public class SolutionSequential extends Solution {
             LinkedList<Integer> nextCandidateList = new LinkedList<Integer>(candidateTasks);
             boolean hasBeenScheduledAtStart = false;
             for (int candidateProcessor = 0; candidateProcessor < numProcessors; candidateProcessor++) { // Iterate through processors
-                // Avoid processor isomorphism
-                if (processorFinishTimes[candidateProcessor] == 0) {
+                // Avoid processor isomorphism, an empty processor is the same as any other empty processor, while one
+                // with only tasks of no weight is not
+                if (processorTaskCounts[candidateProcessor] == 0) {
                     if (hasBeenScheduledAtStart) {
                         // Skip duplicated search space
                         continue;
@@ -167,14 +180,30 @@ public class SolutionSequential extends Solution {
                     continue;
                 }
 
+                // Equivalent schedule pruning: skip if swapping with the previous task on this processor is no worse,
+                // unless the two tasks are equivalent, which are already deduplicated
+                if (candidateProcessor == previousProcessor && previousTask != -1
+                        && !equivalentNodesList[candidateTask].contains(previousTask)) {
+                    int dataReadyTime = processorCausingMaxDataArrival != candidateProcessor ? maxDataArrival : secondMaxDataArrival;
+                    if (isSwapNoWorse(previousTask, previousProcessorFinishTime, taskStartTimes, scheduledOn,
+                            candidateTask, candidateProcessor, earliestStartTimeOnCurrentProcessor, dataReadyTime)) {
+                        continue;
+                    }
+                }
+
                 // Update state (Location 2: Processors)
                 int prevFinishTime = processorFinishTimes[candidateProcessor];
                 int oldPreviousProcessor = previousProcessor;
                 boolean oldChildAddedLastRound = childAddedLastRound;
+                int oldPreviousTask = previousTask;
+                int oldPreviousProcessorFinishTime = previousProcessorFinishTime;
                 previousProcessor = candidateProcessor;
                 childAddedLastRound = childAddedThisRound;
+                previousTask = candidateTask;
+                previousProcessorFinishTime = prevFinishTime;
 
                 processorFinishTimes[candidateProcessor] = earliestStartTimeOnCurrentProcessor + taskGraph.getDuration(candidateTask);
+                processorTaskCounts[candidateProcessor]++;
                 scheduledOn[candidateTask] = candidateProcessor;
                 taskStartTimes[candidateTask] = earliestStartTimeOnCurrentProcessor;
 
@@ -182,12 +211,16 @@ public class SolutionSequential extends Solution {
 
                 // Backtrack state (Location 2: Processors)
                 processorFinishTimes[candidateProcessor] = prevFinishTime;
+                processorTaskCounts[candidateProcessor]--;
                 previousProcessor = oldPreviousProcessor;
                 childAddedLastRound = oldChildAddedLastRound;
+                previousTask = oldPreviousTask;
+                previousProcessorFinishTime = oldPreviousProcessorFinishTime;
             }
 
             // Backtrack state (Location 1: Candidate Task)
-            for (Integer candidateChild : candidateChildren) {
+            for (int edge = childOffsets[candidateTask]; edge < childOffsets[candidateTask + 1]; edge++) {
+                int candidateChild = children[edge];
                 // revert changes made to children
                 inDegrees[candidateChild]++;
                 if (inDegrees[candidateChild] == 1) {
@@ -208,15 +241,17 @@ public class SolutionSequential extends Solution {
         this.numProcessors = numProcessors;
 
         maxLengthToExitNode = PreProcessor.maxLengthToExitNode(taskGraph);
+        lowerBound = LowerBound.calculate(taskGraph, numProcessors, maxLengthToExitNode);
         numTasks = taskGraph.getNumberOfTasks();
 
         nodePriorities = maxLengthToExitNode;
         equivalentNodesList = PreProcessor.getNodeEquivalence(taskGraph);
 
-        inDegrees = new int[numTasks];
+        inDegrees = taskGraph.getInDegrees().clone();
         bestStartTime = new int[numTasks];
         bestScheduledOn = new int[numTasks];
         processorFinishTimes = new int[numProcessors];
+        processorTaskCounts = new int[numProcessors];
         taskStartTimes = new int[numTasks];
         Arrays.fill(taskStartTimes, -1);
         scheduledOn = new int[numTasks];
@@ -225,7 +260,6 @@ public class SolutionSequential extends Solution {
         for (int i = 0; i < numTasks; i++) {
             // calculate remaining duration of tasks to be scheduled
             remainingDuration += taskGraph.getDuration(i);
-            inDegrees[i] = taskGraph.getParentsList(i).size();
             if (inDegrees[i] == 0) {
                 candidateTasks.add(i);
             }
@@ -240,6 +274,10 @@ public class SolutionSequential extends Solution {
      * @return Optimal data.Schedule.
      */
     private Schedule createOutput() {
+        if (initialSchedule != null && bestFinishTime >= initialSchedule.getFinishTime()) {
+            // no schedule finishing before the initial schedule was found
+            return initialSchedule;
+        }
         Task[] optimalSchedule = new Task[numTasks];
         for (int i = 0; i < numTasks; i++) {
             Task t = new Task(bestStartTime[i],
@@ -275,13 +313,13 @@ public class SolutionSequential extends Solution {
 
         for (int task : candidateTasks) {
             // To be an FTO, every node must have at most one parent and at most one child
-            if (taskGraph.getParentsList(task).size() > 1 || taskGraph.getChildrenList(task).size() > 1) {
+            if (taskGraph.getNumberOfParents(task) > 1 || taskGraph.getNumberOfChildren(task) > 1) {
                 return null;
             }
 
             // Every node must have the same child IF they have a child
-            if (taskGraph.getChildrenList(task).size() > 0) {
-                int taskChild = taskGraph.getChildrenList(task).get(0);
+            if (taskGraph.getNumberOfChildren(task) > 0) {
+                int taskChild = children[childOffsets[task]];
                 if (child == -1) {
                     child = taskChild;
                 } else if (child != taskChild) {
@@ -290,8 +328,8 @@ public class SolutionSequential extends Solution {
             }
 
             // every node must have their parents on the same processor IF they have a parent.
-            if (taskGraph.getParentsList(task).size() > 0) {
-                int taskParent = taskGraph.getParentsList(task).get(0);
+            if (taskGraph.getNumberOfParents(task) > 0) {
+                int taskParent = parents[parentOffsets[task]];
                 int taskParentProcessor = scheduledOn[taskParent];
                 if (parentProcessor == -1) {
                     parentProcessor = taskParentProcessor;
@@ -309,12 +347,12 @@ public class SolutionSequential extends Solution {
         int prevOutEdgeCost = Integer.MAX_VALUE;
         for (int task : candidateTasks) {
             int edgeCost;
-            if (taskGraph.getChildrenList(task).isEmpty()) {
-                // there is no out edge, cost is 0
-                edgeCost = 0;
+            if (taskGraph.getNumberOfChildren(task) == 0) {
+                // there is no out edge, which is cheaper than any edge, as the task can always be moved after a task
+                // with a child, even one whose edge costs 0
+                edgeCost = -1;
             } else {
-                int taskChild = taskGraph.getChildrenList(task).get(0);
-                edgeCost = taskGraph.getCommCost(task, taskChild);
+                edgeCost = childCommCosts[childOffsets[task]];
             }
 
             // if our current edge is larger than the previous edge, we don't have a FTO.
@@ -334,7 +372,7 @@ public class SolutionSequential extends Solution {
      * Sorts the list of candidate tasks by non-decreasing data ready time. When two data ready times
      * are equal, we use the non-increasing out-edge cost to break this tie.
      * Data ready time = finish time of parent + communication cost between parent and task.
-     * Out-edge cost = communication cost between task and child.
+     * Out-edge cost = communication cost between task and child, or -1 without a child.
      * @param candidateTasks the list of free tasks that are still unscheduled.
      */
     private void sortByDataReadyTime(List<Integer> candidateTasks) {
@@ -342,15 +380,15 @@ public class SolutionSequential extends Solution {
             int task1DataReadyTime = 0;
             int task2DataReadyTime = 0;
 
-            if (!taskGraph.getParentsList(task1).isEmpty()) {
-                int parent = taskGraph.getParentsList(task1).get(0);
-                int commCost = taskGraph.getCommCost(parent, task1);
+            if (taskGraph.getNumberOfParents(task1) > 0) {
+                int parent = parents[parentOffsets[task1]];
+                int commCost = parentCommCosts[parentOffsets[task1]];
                 task1DataReadyTime = taskStartTimes[parent] + taskGraph.getDuration(parent) + commCost;
             }
 
-            if (!taskGraph.getParentsList(task2).isEmpty()) {
-                int parent = taskGraph.getParentsList(task2).get(0);
-                int commCost = taskGraph.getCommCost(parent, task2);
+            if (taskGraph.getNumberOfParents(task2) > 0) {
+                int parent = parents[parentOffsets[task2]];
+                int commCost = parentCommCosts[parentOffsets[task2]];
                 task2DataReadyTime = taskStartTimes[parent] + taskGraph.getDuration(parent) + commCost;
             }
 
@@ -362,15 +400,13 @@ public class SolutionSequential extends Solution {
             }
 
             // Data ready times are equal, break the tie using the out-edge cost
-            int task1OutEdgeCost = 0;
-            int task2OutEdgeCost = 0;
-            if (!taskGraph.getChildrenList(task1).isEmpty()) {
-                int child = taskGraph.getChildrenList(task1).get(0);
-                task1OutEdgeCost = taskGraph.getCommCost(task1, child);
+            int task1OutEdgeCost = -1;
+            int task2OutEdgeCost = -1;
+            if (taskGraph.getNumberOfChildren(task1) > 0) {
+                task1OutEdgeCost = childCommCosts[childOffsets[task1]];
             }
-            if (!taskGraph.getChildrenList(task2).isEmpty()) {
-                int child = taskGraph.getChildrenList(task2).get(0);
-                task2OutEdgeCost = taskGraph.getCommCost(task2, child);
+            if (taskGraph.getNumberOfChildren(task2) > 0) {
+                task2OutEdgeCost = childCommCosts[childOffsets[task2]];
             }
 
             return Integer.compare(task2OutEdgeCost, task1OutEdgeCost);
@@ -383,6 +419,10 @@ public class SolutionSequential extends Solution {
      * @param ftoSortedList the FTO sorted list.
      */
     private void getFTOSchedule(LinkedList<Integer> ftoSortedList) {
+        // The best schedule has reached the lower bound so it is optimal, no need to search further
+        if (bestFinishTime <= lowerBound) {
+            return;
+        }
         updateStateCount();
 
         // Base case
@@ -432,8 +472,8 @@ public class SolutionSequential extends Solution {
 
 
         boolean taskChildAdded = false;
-        if (!taskGraph.getChildrenList(firstTask).isEmpty()) {
-            int child = taskGraph.getChildrenList(firstTask).get(0);
+        if (taskGraph.getNumberOfChildren(firstTask) > 0) {
+            int child = children[childOffsets[firstTask]];
             inDegrees[child]--;
             if (inDegrees[child] == 0) {
                 duplicate.add(child);
@@ -444,8 +484,9 @@ public class SolutionSequential extends Solution {
         // since we have a FTO, we can schedule the first task on all processors.
         boolean hasBeenScheduledAtStart = false;
         for (int candidateProcessor = 0; candidateProcessor < numProcessors; candidateProcessor++) {
-            // Avoid processor isomorphism
-            if (processorFinishTimes[candidateProcessor] == 0) {
+            // Avoid processor isomorphism, an empty processor is the same as any other empty processor, while one
+            // with only tasks of no weight is not
+            if (processorTaskCounts[candidateProcessor] == 0) {
                 if (hasBeenScheduledAtStart) {
                     // Skip duplicated search space
                     continue;
@@ -467,10 +508,14 @@ public class SolutionSequential extends Solution {
             int prevFinishTime = processorFinishTimes[candidateProcessor];
             int oldPreviousProcessor = previousProcessor;
             boolean oldChildAddedLastRound = childAddedLastRound;
+            int oldPreviousTask = previousTask;
             previousProcessor = candidateProcessor;
             childAddedLastRound = taskChildAdded;
+            // the FTO order is fixed, so the next decision must not be swapped with this task
+            previousTask = -1;
 
             processorFinishTimes[candidateProcessor] = earliestStartTimeOnCurrentProcessor + taskGraph.getDuration(firstTask);
+            processorTaskCounts[candidateProcessor]++;
             scheduledOn[firstTask] = candidateProcessor;
             taskStartTimes[firstTask] = earliestStartTimeOnCurrentProcessor;
 
@@ -483,12 +528,14 @@ public class SolutionSequential extends Solution {
 
             // Backtrack: Location 2
             processorFinishTimes[candidateProcessor] = prevFinishTime;
+            processorTaskCounts[candidateProcessor]--;
             previousProcessor = oldPreviousProcessor;
             childAddedLastRound = oldChildAddedLastRound;
+            previousTask = oldPreviousTask;
         }
         // Backtrack: Location 1
-        if(!taskGraph.getChildrenList(firstTask).isEmpty()) {
-            int child = taskGraph.getChildrenList(firstTask).get(0);
+        if(taskGraph.getNumberOfChildren(firstTask) > 0) {
+            int child = children[childOffsets[firstTask]];
             inDegrees[child]++;
         }
         remainingDuration += taskGraph.getDuration(firstTask);
@@ -559,15 +606,15 @@ public class SolutionSequential extends Solution {
      */
     private int findEarliestStartTimeOnCurrentProcessor(int candidateProcessor, int candidateTask) {
         int earliestStartTimeOnCurrentProcessor = processorFinishTimes[candidateProcessor];
-        if (!taskGraph.getParentsList(candidateTask).isEmpty()) {
-            int parent = taskGraph.getParentsList(candidateTask).get(0);
+        if (taskGraph.getNumberOfParents(candidateTask) > 0) {
+            int parent = parents[parentOffsets[candidateTask]];
             if (scheduledOn[parent] == candidateProcessor) {
                 earliestStartTimeOnCurrentProcessor = Math.max(earliestStartTimeOnCurrentProcessor,
                         taskStartTimes[parent] + taskGraph.getDuration(parent));
             } else {
                 earliestStartTimeOnCurrentProcessor = Math.max(earliestStartTimeOnCurrentProcessor,
                         taskStartTimes[parent] + taskGraph.getDuration(parent) +
-                                taskGraph.getCommCost(parent, candidateTask));
+                                parentCommCosts[parentOffsets[candidateTask]]);
             }
         }
 
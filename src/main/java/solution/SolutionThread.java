@@ -3,9 +3,11 @@ package solution;
 import data.Schedule;
 import data.Task;
 import data.TaskGraph;
+import io.DotGraph;
 import io.IOParser;
-import org.graphstream.graph.Graph;
 import solution.helpers.Greedy;
+import solution.helpers.LocalSearch;
+import solution.helpers.LowerBound;
 import solution.helpers.SequentialScheduler;
 
 import java.util.List;
@@ -20,16 +22,20 @@ public class SolutionThread extends Thread {
     private final TaskGraph taskGraph;
     private final int numProcessors;
     private final String outputFilePath;
-    private final Graph dotGraph;
+    private final DotGraph dotGraph;
+    private final long localSearchBudget;
+    private Schedule initialSchedule; // a valid schedule to start from, e.g. given by the user, or null
 
     /**
      * @param solution The solution that runs on this thread.
      * @param taskGraph The input graph on which the solution runs.
      * @param numProcessors The number of processors to schedule tasks on.
      * @param outputFilePath The path to the output file.
-     * @param dotGraph The input graph in dot format.
+     * @param dotGraph The input graph read from the dot file.
+     * @param localSearchBudget Time in milliseconds spent improving the greedy schedule before the search.
      */
-    public SolutionThread(Solution solution, TaskGraph taskGraph, int numProcessors, String outputFilePath, Graph dotGraph) {
+    public SolutionThread(Solution solution, TaskGraph taskGraph, int numProcessors, String outputFilePath, DotGraph dotGraph,
+                          long localSearchBudget) {
         super();
         this.solution = solution;
         solution.setVisual(); // flag the solution as visual
@@ -37,6 +43,15 @@ public class SolutionThread extends Thread {
         this.numProcessors = numProcessors;
         this.outputFilePath = outputFilePath;
         this.dotGraph = dotGraph;
+        this.localSearchBudget = localSearchBudget;
+    }
+
+    /**
+     * @param initialSchedule A valid schedule of the graph, which is the starting bound of the search if it is better
+     *                        than the greedy schedule.
+     */
+    public void setInitialSchedule(Schedule initialSchedule) {
+        this.initialSchedule = initialSchedule;
     }
 
     public void run() {
@@ -53,14 +68,24 @@ public class SolutionThread extends Thread {
             // Run greedy algorithm to determine lower bound of optimal solution
             Greedy g = new Greedy();
             result = g.run(taskGraph, numProcessors);
+            if (initialSchedule != null && initialSchedule.getFinishTime() < result.getFinishTime()) {
+                result = initialSchedule;
+            }
+
+            // Improve the greedy schedule with local search to tighten the initial bound
+            result = new LocalSearch().run(taskGraph, numProcessors, result, localSearchBudget);
             solution.setInitialSchedule(result);
 
-            // Run algorithm to find optimal schedule
+            // Run algorithm to find optimal schedule, unless the greedy schedule already meets the lower bound
             long startTime = System.currentTimeMillis();
-            Schedule optimalResult = solution.run();
-
-            if (optimalResult.getFinishTime() < result.getFinishTime()) {
-                result = optimalResult;
+            if (result.getFinishTime() > LowerBound.calculate(taskGraph, numProcessors)) {
+                Schedule optimalResult = solution.run();
+
+                if (optimalResult.getFinishTime() < result.getFinishTime()) {
+                    result = optimalResult;
+                }
+            } else {
+                solution.setDone();
             }
 
             System.out.println("Program ran in: " + (System.currentTimeMillis() - startTime) + "ms");
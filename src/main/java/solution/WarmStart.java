@@ -0,0 +1,87 @@
+package solution;
+
+import data.Schedule;
+import data.Task;
+import io.DotGraph;
+import solution.helpers.ScheduleRepair;
+
+import java.io.PrintStream;
+
+/**
+ * Schedules a task graph again after a small change, e.g. to the weight of a task or an edge, starting from the
+ * optimal schedule of the previous version instead of from scratch.
+ *
+ * Tasks are matched by their ids. The previous schedule is repaired into a valid schedule of the changed graph, which
+ * is given to the pipeline as the initial schedule, so it is the starting bound of the searches wherever it is better
+ * than the greedy schedule. It is also restricted to each smaller graph the pipeline decomposes the graph into, so a
+ * part of the graph that has not changed starts from its previous schedule, and is not searched again at all if that
+ * meets its lower bound.
+ */
+public class WarmStart {
+    private final SolutionPipeline pipeline;
+    private final int numProcessors;
+    private Schedule repairedSchedule;
+    private int numChangedTasks;
+
+    /**
+     * @param pipeline The pipeline to run on the changed graph.
+     * @param numProcessors The number of processors of the pipeline.
+     */
+    public WarmStart(SolutionPipeline pipeline, int numProcessors) {
+        this.pipeline = pipeline;
+        this.numProcessors = numProcessors;
+    }
+
+    /**
+     * @param previous The previous version of the graph with its schedule, e.g. read from its output file.
+     * @param current The changed graph.
+     * @return An optimal schedule of the changed graph.
+     * @throws IllegalArgumentException If the previous graph has no schedule.
+     */
+    public Schedule run(DotGraph previous, DotGraph current) {
+        Schedule previousSchedule = previous.getSchedule();
+        if (previousSchedule == null) {
+            throw new IllegalArgumentException("The previous graph has no Start and Processor on every task");
+        }
+
+        int numTasks = current.getTaskGraph().getNumberOfTasks();
+        int[] previousStartTimes = new int[numTasks];
+        int[] previousProcessors = new int[numTasks];
+        Task[] previousTasks = previousSchedule.getTasks();
+        numChangedTasks = 0;
+        for (int task = 0; task < numTasks; task++) {
+            int previousTask = previous.getTask(current.getTaskId(task));
+            if (previousTask == -1) {
+                previousStartTimes[task] = ScheduleRepair.NEW_TASK;
+                previousProcessors[task] = ScheduleRepair.NEW_TASK;
+                numChangedTasks++;
+            } else {
+                previousStartTimes[task] = previousTasks[previousTask].getStartTime();
+                previousProcessors[task] = previousTasks[previousTask].getProcessor();
+                if (previous.getTaskGraph().getDuration(previousTask) != current.getTaskGraph().getDuration(task)) {
+                    numChangedTasks++;
+                }
+            }
+        }
+
+        repairedSchedule = ScheduleRepair.repair(current.getTaskGraph(), numProcessors, previousStartTimes,
+                previousProcessors);
+        return pipeline.run(current.getTaskGraph(), repairedSchedule);
+    }
+
+    /**
+     * @return The previous schedule repaired to fit the changed graph, or null if it has not been run.
+     */
+    public Schedule getRepairedSchedule() {
+        return repairedSchedule;
+    }
+
+    /**
+     * Prints the number of tasks that are new or have a new weight, and the finish time of the repaired schedule.
+     * @param out The stream to print to, e.g. System.out.
+     */
+    public void printSummary(PrintStream out) {
+        out.println("Warm start: " + numChangedTasks + " new or changed tasks, repaired schedule finishes at " +
+                repairedSchedule.getFinishTime());
+    }
+}
@@ -0,0 +1,156 @@
+package solution.helpers;
+
+import java.util.Arrays;
+
+/**
+ * Checks a blocked Bloom filter before looking a key up in another set. Most partial schedules the search reaches
+ * have not been seen before, and the filter answers those lookups from one cache line instead of probing a large
+ * table, which may be outside the heap.
+ *
+ * The filter is split into blocks of 512 bits, the size of a cache line. A key sets a number of bits in a single
+ * block, so a lookup reads one cache line. The filter takes about 1.44 * log2(1 / falsePositiveRate) bits of the heap
+ * per expected key, e.g. 1.2 bytes at a rate of 0.01, and at most one array of longs. The number of blocks is not
+ * rounded to a power of two, a block is picked by multiplying the hash by it instead. The counters are kept when the
+ * set is cleared, so they cover every search that used the set.
+ */
+public class BloomFilteredIntSet implements IntSet {
+    private static final int BLOCK_BITS = 512;
+    private static final int LONGS_PER_BLOCK = BLOCK_BITS / 64;
+    private static final int MAX_BLOCKS = (Integer.MAX_VALUE - 8) / LONGS_PER_BLOCK; // the longest array of a JVM
+
+    private final IntSet set;
+    private final long[] filter;
+    private final long numBlocks;
+    private final int numHashes; // bits set per key
+
+    private long filterMisses = 0; // lookups answered by the filter alone
+    private long filterHits = 0; // lookups passed on to the set
+    private long falsePositives = 0; // lookups passed on to the set which did not find the key
+
+    /**
+     * @param set The set holding the keys, which must be empty.
+     * @param expectedKeys The number of keys the filter is sized for.
+     * @param falsePositiveRate The rate of lookups of new keys passed on to the set, once it holds expectedKeys keys.
+     *                          It is higher if the filter for expectedKeys keys is larger than an array can be.
+     * @throws OutOfMemoryError If the heap cannot hold the filter.
+     */
+    public BloomFilteredIntSet(IntSet set, long expectedKeys, double falsePositiveRate) {
+        if (expectedKeys <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("The expected number of keys must be positive, and the false positive " +
+                    "rate between 0 and 1");
+        }
+        this.set = set;
+
+        // the optimal size and number of hashes of a standard Bloom filter
+        double bits = -expectedKeys * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+        numBlocks = Math.max(1, Math.min(MAX_BLOCKS, (long) Math.ceil(bits / BLOCK_BITS)));
+        filter = new long[(int) (numBlocks * LONGS_PER_BLOCK)];
+        numHashes = (int) Math.max(1, Math.min(16, Math.round(-Math.log(falsePositiveRate) / Math.log(2))));
+    }
+
+    @Override
+    public boolean contains(int key) {
+        if (!mightContain(key)) {
+            filterMisses++;
+            return false;
+        }
+        filterHits++;
+        boolean contains = set.contains(key);
+        if (!contains) {
+            falsePositives++;
+        }
+        return contains;
+    }
+
+    @Override
+    public boolean add(int key) {
+        long hash = hash(key);
+        int block = getBlock(hash);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 23) | 1;
+        for (int i = 0; i < numHashes; i++) {
+            int bit = (h1 + i * h2) & (BLOCK_BITS - 1);
+            filter[block + (bit >>> 6)] |= 1L << bit;
+        }
+        return set.add(key);
+    }
+
+    @Override
+    public long size() {
+        return set.size();
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(filter, 0);
+        set.clear();
+    }
+
+    /**
+     * @return false if the key is definitely not in the set.
+     */
+    private boolean mightContain(int key) {
+        long hash = hash(key);
+        int block = getBlock(hash);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 23) | 1;
+        for (int i = 0; i < numHashes; i++) {
+            int bit = (h1 + i * h2) & (BLOCK_BITS - 1);
+            if ((filter[block + (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return The index in the filter of the first long of the block of the hash.
+     */
+    private int getBlock(long hash) {
+        // the upper 32 bits of the hash times the number of blocks, divided by 2^32
+        return (int) (((hash >>> 32) * numBlocks) >>> 32) * LONGS_PER_BLOCK;
+    }
+
+    private static long hash(int key) {
+        long h = (key & 0xFFFFFFFFL) * 0x9E3779B97F4A7C15L;
+        h ^= h >>> 31;
+        h *= 0xBF58476D1CE4E5B9L;
+        return h ^ (h >>> 29);
+    }
+
+    /**
+     * @return The number of lookups answered by the filter alone.
+     */
+    public long getFilterMisses() {
+        return filterMisses;
+    }
+
+    /**
+     * @return The number of lookups passed on to the set.
+     */
+    public long getFilterHits() {
+        return filterHits;
+    }
+
+    /**
+     * @return The number of lookups passed on to the set which did not find the key.
+     */
+    public long getFalsePositives() {
+        return falsePositives;
+    }
+
+    /**
+     * @return The size of the filter in bytes.
+     */
+    public long getSizeInBytes() {
+        return (long) filter.length * Long.BYTES;
+    }
+
+    /**
+     * @return A line summarising the counters, to be printed after the search.
+     */
+    public String getSummary() {
+        return "Duplicate filter of " + (getSizeInBytes() >> 20) + " MB: " + filterMisses + " misses, " + filterHits + " hits, " + falsePositives +
+                " false positives";
+    }
+}
@@ -0,0 +1,211 @@
+package solution.helpers;
+
+import data.TaskGraph;
+
+import java.util.Arrays;
+
+/**
+ * A form of a task graph that does not depend on the names or order of its tasks, so graphs that only differ in their
+ * task ids get the same canonical graph and fingerprint, e.g. to look up a schedule found earlier.
+ *
+ * The tasks are ordered by colour refinement: every task starts with a colour from its duration, and each round a
+ * task's colour is combined with the sorted colours and communication costs of its parents and children, until the
+ * number of colours stops growing. Tasks are then sorted by colour. Tasks that still share a colour, e.g. equivalent
+ * tasks, are ordered by their index, so a relabelled graph with such tasks may get a different canonical graph, which
+ * only loses a cache hit. Two canonical graphs are equal exactly if the graphs are the same up to the order of the
+ * tasks, so a schedule can always be moved from one to the other.
+ */
+public class CanonicalGraph {
+    private static final int MAX_ROUNDS = 32; // a long chain takes as many rounds as its length to be refined
+
+    private final int[] order; // order[i] => the task at position i of the canonical graph
+    private final int[] durations; // durations[i] => the duration of the task at position i
+    private final int[] childOffsets; // the rows of children by position, as in TaskGraph
+    private final long[] children; // each child position in the upper 32 bits and the communication cost in the lower
+    private final long fingerprint;
+
+    /**
+     * @param taskGraph The task graph.
+     */
+    public CanonicalGraph(TaskGraph taskGraph) {
+        int numTasks = taskGraph.getNumberOfTasks();
+        long[] colours = refineColours(taskGraph);
+
+        Integer[] byColour = new Integer[numTasks];
+        for (int i = 0; i < numTasks; i++) {
+            byColour[i] = i;
+        }
+        Arrays.sort(byColour, (a, b) -> colours[a] != colours[b] ? Long.compare(colours[a], colours[b]) : a - b);
+        order = new int[numTasks];
+        int[] positions = new int[numTasks];
+        for (int i = 0; i < numTasks; i++) {
+            order[i] = byColour[i];
+            positions[order[i]] = i;
+        }
+
+        int[] taskChildOffsets = taskGraph.getChildOffsets();
+        int[] taskChildren = taskGraph.getChildren();
+        int[] taskChildCommCosts = taskGraph.getChildCommCosts();
+        durations = new int[numTasks];
+        childOffsets = new int[numTasks + 1];
+        children = new long[taskGraph.getNumberOfEdges()];
+        for (int i = 0; i < numTasks; i++) {
+            int task = order[i];
+            durations[i] = taskGraph.getDuration(task);
+            int edge = childOffsets[i];
+            for (int j = taskChildOffsets[task]; j < taskChildOffsets[task + 1]; j++) {
+                children[edge++] = ((long) positions[taskChildren[j]] << 32) | (taskChildCommCosts[j] & 0xFFFFFFFFL);
+            }
+            childOffsets[i + 1] = edge;
+            Arrays.sort(children, childOffsets[i], edge);
+        }
+
+        long hash = mix(numTasks);
+        for (int duration : durations) {
+            hash = mix(hash ^ duration);
+        }
+        for (int offset : childOffsets) {
+            hash = mix(hash ^ offset);
+        }
+        for (long child : children) {
+            hash = mix(hash ^ child);
+        }
+        fingerprint = hash;
+    }
+
+    /**
+     * @return The colour of each task, which is the same for a task in every relabelling of the graph.
+     */
+    private static long[] refineColours(TaskGraph taskGraph) {
+        int numTasks = taskGraph.getNumberOfTasks();
+        int[] parentOffsets = taskGraph.getParentOffsets();
+        int[] parents = taskGraph.getParents();
+        int[] parentCommCosts = taskGraph.getParentCommCosts();
+        int[] childOffsets = taskGraph.getChildOffsets();
+        int[] children = taskGraph.getChildren();
+        int[] childCommCosts = taskGraph.getChildCommCosts();
+
+        long[] colours = new long[numTasks];
+        for (int task = 0; task < numTasks; task++) {
+            colours[task] = mix(taskGraph.getDuration(task));
+        }
+        int numColours = countDistinct(colours);
+        long[] neighbours = new long[numTasks];
+        for (int round = 0; round < MAX_ROUNDS; round++) {
+            long[] nextColours = new long[numTasks];
+            for (int task = 0; task < numTasks; task++) {
+                long colour = mix(colours[task]);
+                int numParents = parentOffsets[task + 1] - parentOffsets[task];
+                for (int i = 0; i < numParents; i++) {
+                    int edge = parentOffsets[task] + i;
+                    neighbours[i] = mix(colours[parents[edge]] + parentCommCosts[edge]);
+                }
+                Arrays.sort(neighbours, 0, numParents);
+                for (int i = 0; i < numParents; i++) {
+                    colour = mix(colour ^ neighbours[i]);
+                }
+
+                // mark the end of the parents, so a parent is not the same as a child
+                colour = mix(colour + 1);
+                int numChildren = childOffsets[task + 1] - childOffsets[task];
+                for (int i = 0; i < numChildren; i++) {
+                    int edge = childOffsets[task] + i;
+                    neighbours[i] = mix(colours[children[edge]] + childCommCosts[edge]);
+                }
+                Arrays.sort(neighbours, 0, numChildren);
+                for (int i = 0; i < numChildren; i++) {
+                    colour = mix(colour ^ neighbours[i]);
+                }
+                nextColours[task] = colour;
+            }
+
+            int nextNumColours = countDistinct(nextColours);
+            colours = nextColours;
+            if (nextNumColours == numColours) {
+                break;
+            }
+            numColours = nextNumColours;
+        }
+        return colours;
+    }
+
+    private static int countDistinct(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int count = sorted.length == 0 ? 0 : 1;
+        for (int i = 1; i < sorted.length; i++) {
+            if (sorted[i] != sorted[i - 1]) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static long mix(long h) {
+        h *= 0x9E3779B97F4A7C15L;
+        h ^= h >>> 31;
+        h *= 0xBF58476D1CE4E5B9L;
+        return h ^ (h >>> 29);
+    }
+
+    /**
+     * Reads a canonical graph stored with getDurations, getChildOffsets and getChildren.
+     * @param durations The durations by position.
+     * @param childOffsets The rows of children by position.
+     * @param children The children by position, with their communication costs.
+     * @return A canonical graph without an order of tasks, which can only be compared.
+     */
+    static CanonicalGraph fromArrays(int[] durations, int[] childOffsets, long[] children) {
+        return new CanonicalGraph(durations, childOffsets, children);
+    }
+
+    private CanonicalGraph(int[] durations, int[] childOffsets, long[] children) {
+        this.order = null;
+        this.durations = durations;
+        this.childOffsets = childOffsets;
+        this.children = children;
+        this.fingerprint = 0;
+    }
+
+    /**
+     * @return A hash of the canonical graph, which is the same for every relabelling of the graph.
+     */
+    public long getFingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * @return The task of the graph at the position of the canonical graph.
+     */
+    public int getTask(int position) {
+        return order[position];
+    }
+
+    /**
+     * @return The number of tasks.
+     */
+    public int getNumberOfTasks() {
+        return durations.length;
+    }
+
+    int[] getDurations() {
+        return durations;
+    }
+
+    int[] getChildOffsets() {
+        return childOffsets;
+    }
+
+    long[] getChildren() {
+        return children;
+    }
+
+    /**
+     * @return Whether the canonical graphs have the same tasks and edges, i.e. their graphs are the same up to the
+     * order of the tasks.
+     */
+    public boolean isSameGraph(CanonicalGraph other) {
+        return Arrays.equals(durations, other.durations) && Arrays.equals(childOffsets, other.childOffsets)
+                && Arrays.equals(children, other.children);
+    }
+}
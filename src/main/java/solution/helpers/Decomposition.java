@@ -0,0 +1,318 @@
+package solution.helpers;
+
+import data.Schedule;
+import data.Task;
+import data.TaskGraph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * This class splits a task graph into smaller graphs that can be solved separately, and combines their schedules.
+ * Since the search is exponential in the number of tasks, solving two halves is much faster than solving the whole.
+ *
+ * Two kinds of splits are found:
+ * - Weakly connected components, which do not depend on each other. Their schedules are combined by allocating
+ *   processors to each one, which gives an upper bound (components could share processors more cleverly).
+ * - Cut tasks, where every other task is either an ancestor or a descendant of the cut task. The ancestors finish
+ *   before the cut task starts and the descendants start after it finishes, so the graph before and after the cut
+ *   task can be solved optimally on their own and concatenated into an optimal schedule.
+ */
+public class Decomposition {
+
+    /**
+     * Finds the weakly connected components of the graph.
+     *
+     * @param taskGraph an object that contains information about the DAG
+     * @return a list of components, each an array of the tasks in it in increasing order.
+     */
+    public static List<int[]> findComponents(TaskGraph taskGraph) {
+        int numTasks = taskGraph.getNumberOfTasks();
+        int[] component = new int[numTasks];
+        Arrays.fill(component, -1);
+        int[] stack = new int[numTasks];
+        int[] sizes = new int[numTasks];
+        int numComponents = 0;
+
+        for (int start = 0; start < numTasks; start++) {
+            if (component[start] != -1) {
+                continue;
+            }
+            // depth first search in both directions of the edges
+            int top = 0;
+            stack[top++] = start;
+            component[start] = numComponents;
+            while (top > 0) {
+                int task = stack[--top];
+                sizes[numComponents]++;
+                for (int parent : taskGraph.getParentsList(task)) {
+                    if (component[parent] == -1) {
+                        component[parent] = numComponents;
+                        stack[top++] = parent;
+                    }
+                }
+                for (int child : taskGraph.getChildrenList(task)) {
+                    if (component[child] == -1) {
+                        component[child] = numComponents;
+                        stack[top++] = child;
+                    }
+                }
+            }
+            numComponents++;
+        }
+
+        List<int[]> components = new ArrayList<>();
+        int[] filled = new int[numComponents];
+        for (int i = 0; i < numComponents; i++) {
+            components.add(new int[sizes[i]]);
+        }
+        for (int task = 0; task < numTasks; task++) {
+            components.get(component[task])[filled[component[task]]++] = task;
+        }
+        return components;
+    }
+
+    /**
+     * Finds a cut task: a task with at least one ancestor and one descendant, such that every other task is either
+     * one of its ancestors or one of its descendants. A task at position i of a topological order is a cut task if
+     * no edge jumps over position i, every task before it has a child at or before position i, and every task after
+     * it has a parent at or after position i. This takes O(n + e) time.
+     *
+     * @param taskGraph an object that contains information about the DAG
+     * @param order the tasks of the graph in topological order
+     * @return the position of the cut task closest to the middle of the topological order, or -1 if there is none.
+     */
+    public static int findCutPosition(TaskGraph taskGraph, int[] order) {
+        int numTasks = order.length;
+        int[] position = new int[numTasks];
+        for (int i = 0; i < numTasks; i++) {
+            position[order[i]] = i;
+        }
+
+        // jumps[i] => number of edges from a task before position i to a task after position i
+        int[] jumps = new int[numTasks + 1];
+        // earliestChild[i] => position of the earliest child of the task at position i
+        int[] earliestChild = new int[numTasks];
+        // latestParent[i] => position of the latest parent of the task at position i
+        int[] latestParent = new int[numTasks];
+        for (int i = 0; i < numTasks; i++) {
+            int task = order[i];
+            earliestChild[i] = Integer.MAX_VALUE;
+            latestParent[i] = Integer.MIN_VALUE;
+            for (int child : taskGraph.getChildrenList(task)) {
+                int childPosition = position[child];
+                earliestChild[i] = Math.min(earliestChild[i], childPosition);
+                if (childPosition > i + 1) {
+                    jumps[i + 1]++;
+                    jumps[childPosition]--;
+                }
+            }
+            for (int parent : taskGraph.getParentsList(task)) {
+                latestParent[i] = Math.max(latestParent[i], position[parent]);
+            }
+        }
+
+        // minLatestParent[i] => minimum of latestParent over positions after i
+        int[] minLatestParent = new int[numTasks + 1];
+        minLatestParent[numTasks] = Integer.MAX_VALUE;
+        for (int i = numTasks - 1; i >= 0; i--) {
+            minLatestParent[i] = Math.min(minLatestParent[i + 1], latestParent[i]);
+        }
+
+        // take the cut task closest to the middle, so that the two graphs are about the same size
+        int cutPosition = -1;
+        int jumpsOverPosition = 0;
+        int maxEarliestChild = Integer.MIN_VALUE; // maximum of earliestChild over positions before i
+        for (int i = 0; i < numTasks; i++) {
+            jumpsOverPosition += jumps[i];
+            boolean hasAncestors = i > 0;
+            boolean hasDescendants = i < numTasks - 1;
+            if (hasAncestors && hasDescendants && jumpsOverPosition == 0 && maxEarliestChild <= i
+                    && minLatestParent[i + 1] >= i) {
+                if (cutPosition == -1 || Math.abs(2 * i - numTasks) < Math.abs(2 * cutPosition - numTasks)) {
+                    cutPosition = i;
+                }
+            }
+            maxEarliestChild = Math.max(maxEarliestChild, earliestChild[i]);
+        }
+        return cutPosition;
+    }
+
+    /**
+     * Creates the task graph induced by a subset of the tasks. Task tasks[i] of the graph becomes task i of the
+     * subgraph.
+     *
+     * @param taskGraph an object that contains information about the DAG
+     * @param tasks the tasks to keep
+     * @param zeroFirstTask whether the first task should have a duration of 0 in the subgraph
+     * @return the subgraph.
+     */
+    public static TaskGraph createSubgraph(TaskGraph taskGraph, int[] tasks, boolean zeroFirstTask) {
+        int size = tasks.length;
+        int[] index = new int[taskGraph.getNumberOfTasks()];
+        Arrays.fill(index, -1);
+        for (int i = 0; i < size; i++) {
+            index[tasks[i]] = i;
+        }
+
+        int[] durations = new int[size];
+        for (int i = 0; i < size; i++) {
+            durations[i] = taskGraph.getDuration(tasks[i]);
+        }
+        if (zeroFirstTask && size > 0) {
+            durations[0] = 0;
+        }
+
+        // the edges between two kept tasks
+        int[] childOffsets = taskGraph.getChildOffsets();
+        int[] children = taskGraph.getChildren();
+        int[] childCommCosts = taskGraph.getChildCommCosts();
+        int numEdges = 0;
+        for (int task : tasks) {
+            for (int i = childOffsets[task]; i < childOffsets[task + 1]; i++) {
+                if (index[children[i]] != -1) {
+                    numEdges++;
+                }
+            }
+        }
+        int[] sources = new int[numEdges];
+        int[] targets = new int[numEdges];
+        int[] commCosts = new int[numEdges];
+        int edge = 0;
+        for (int task : tasks) {
+            for (int i = childOffsets[task]; i < childOffsets[task + 1]; i++) {
+                if (index[children[i]] != -1) {
+                    sources[edge] = index[task];
+                    targets[edge] = index[children[i]];
+                    commCosts[edge++] = childCommCosts[i];
+                }
+            }
+        }
+        return new TaskGraph(durations, sources, targets, commCosts);
+    }
+
+    /**
+     * Restricts a schedule of a graph to the subgraph made by createSubgraph with the same tasks, e.g. to use a
+     * schedule of the whole graph as the initial schedule of a smaller graph. If the first task has a duration of 0
+     * in the subgraph, the other tasks must run after it, and the schedule is moved to start when it finishes.
+     *
+     * @param schedule a valid schedule of the graph
+     * @param tasks the tasks of the subgraph
+     * @param zeroFirstTask whether the first task has a duration of 0 in the subgraph
+     * @return a valid schedule of the subgraph.
+     */
+    public static Schedule restrictSchedule(Schedule schedule, int[] tasks, boolean zeroFirstTask) {
+        Task[] subgraphTasks = new Task[tasks.length];
+        int offset = zeroFirstTask && tasks.length > 0 ? schedule.getTasks()[tasks[0]].getFinishTime() : 0;
+        int finishTime = 0;
+        for (int i = 0; i < tasks.length; i++) {
+            Task task = schedule.getTasks()[tasks[i]];
+            int startTime = i == 0 && zeroFirstTask ? offset : task.getStartTime();
+            subgraphTasks[i] = new Task(startTime - offset, task.getFinishTime() - offset, task.getProcessor());
+            finishTime = Math.max(finishTime, task.getFinishTime() - offset);
+        }
+        return new Schedule(subgraphTasks, finishTime);
+    }
+
+    /**
+     * Concatenates the schedule of the tasks up to and including a cut task with the schedule of the tasks after it.
+     * The first task of the second graph stands for the cut task with a duration of 0. The processors of the second
+     * schedule are renumbered so that it is on the same processor as the cut task.
+     *
+     * @param numTasks the number of tasks in the whole graph
+     * @param upperTasks the tasks of the first graph, the last one is the cut task
+     * @param upperSchedule the schedule of the first graph
+     * @param lowerTasks the tasks of the second graph, the first one is the cut task
+     * @param lowerSchedule the schedule of the second graph
+     * @return the schedule of the whole graph.
+     */
+    public static Schedule combineSeries(int numTasks, int[] upperTasks, Schedule upperSchedule,
+                                         int[] lowerTasks, Schedule lowerSchedule) {
+        Task[] tasks = new Task[numTasks];
+        for (int i = 0; i < upperTasks.length; i++) {
+            tasks[upperTasks[i]] = upperSchedule.getTasks()[i];
+        }
+
+        Task cutTask = upperSchedule.getTasks()[upperTasks.length - 1];
+        Task cutTaskCopy = lowerSchedule.getTasks()[0];
+        int offset = cutTask.getFinishTime() - cutTaskCopy.getStartTime();
+        int finishTime = upperSchedule.getFinishTime();
+        for (int i = 1; i < lowerTasks.length; i++) {
+            Task task = lowerSchedule.getTasks()[i];
+            int processor = swap(task.getProcessor(), cutTaskCopy.getProcessor(), cutTask.getProcessor());
+            tasks[lowerTasks[i]] = new Task(task.getStartTime() + offset, task.getFinishTime() + offset, processor);
+            finishTime = Math.max(finishTime, task.getFinishTime() + offset);
+        }
+        return new Schedule(tasks, finishTime);
+    }
+
+    /**
+     * Combines the schedules of independent components. Components are placed longest first, each on the
+     * processors that become free the earliest, after all the tasks already on those processors.
+     *
+     * @param numTasks the number of tasks in the whole graph
+     * @param numProcessors number of processors
+     * @param components the tasks of each component
+     * @param schedules the schedule of each component
+     * @return a valid schedule of the whole graph.
+     */
+    public static Schedule combineComponents(int numTasks, int numProcessors, List<int[]> components,
+                                             List<Schedule> schedules) {
+        Task[] tasks = new Task[numTasks];
+        int[] processorFinishTimes = new int[numProcessors];
+        int finishTime = 0;
+
+        Integer[] byFinishTime = new Integer[components.size()];
+        for (int i = 0; i < byFinishTime.length; i++) {
+            byFinishTime[i] = i;
+        }
+        Arrays.sort(byFinishTime, (a, b) -> schedules.get(b).getFinishTime() - schedules.get(a).getFinishTime());
+
+        for (int c : byFinishTime) {
+            int[] componentTasks = components.get(c);
+            Task[] componentSchedule = schedules.get(c).getTasks();
+
+            // renumber the processors the component uses as 0, 1, 2...
+            int[] usedProcessors = new int[numProcessors];
+            Arrays.fill(usedProcessors, -1);
+            int numUsed = 0;
+            for (Task task : componentSchedule) {
+                if (usedProcessors[task.getProcessor()] == -1) {
+                    usedProcessors[task.getProcessor()] = numUsed++;
+                }
+            }
+
+            // take the processors which become free the earliest
+            Integer[] byProcessorFinishTime = new Integer[numProcessors];
+            for (int i = 0; i < numProcessors; i++) {
+                byProcessorFinishTime[i] = i;
+            }
+            Arrays.sort(byProcessorFinishTime, (a, b) -> processorFinishTimes[a] - processorFinishTimes[b]);
+            int offset = numUsed == 0 ? 0 : processorFinishTimes[byProcessorFinishTime[numUsed - 1]];
+
+            for (int i = 0; i < componentTasks.length; i++) {
+                Task task = componentSchedule[i];
+                int processor = byProcessorFinishTime[usedProcessors[task.getProcessor()]];
+                tasks[componentTasks[i]] = new Task(task.getStartTime() + offset, task.getFinishTime() + offset,
+                        processor);
+                processorFinishTimes[processor] = Math.max(processorFinishTimes[processor],
+                        task.getFinishTime() + offset);
+                finishTime = Math.max(finishTime, task.getFinishTime() + offset);
+            }
+        }
+        return new Schedule(tasks, finishTime);
+    }
+
+    /**
+     * Swaps the processor numbers a and b.
+     */
+    private static int swap(int processor, int a, int b) {
+        if (processor == a) {
+            return b;
+        } else if (processor == b) {
+            return a;
+        }
+        return processor;
+    }
+}
@@ -0,0 +1,356 @@
+package solution.helpers;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * The open list of a best-first search, which can hold more states than fit in memory. States are encoded as int
+ * arrays of a fixed length, and are kept in buckets by their f-value, i.e. their lower bound on the finish time.
+ *
+ * The buckets are kept in memory until there are more than a given number of states in memory. Then the bucket with the
+ * largest f-value, which is needed last, is sorted and appended as a run to the file of the bucket in the given
+ * directory with sequential I/O. When the bucket with the smallest f-value is removed, its runs are merged with the
+ * states in memory, and duplicate states are dropped as they are next to each other in sorted order (delayed duplicate
+ * detection).
+ *
+ * Each run is read through a buffer of its own, so a bucket whose file reaches a given number of runs is compacted:
+ * its runs are merged into a single run of distinct states in a new file. At most that many runs, and the states in
+ * memory, are merged at once.
+ *
+ * The frontier is not thread safe. Its files are deleted when the buckets are removed, or when it is closed.
+ */
+public class ExternalFrontier implements Closeable {
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int MAX_RUNS = 64; // runs of a bucket before they are compacted, i.e. files open at once
+
+    private final int recordLength;
+    private final long memoryLimit; // maximum number of states in memory
+    private final int maxRuns; // runs of a bucket before they are compacted
+    private final File directory;
+    private final TreeMap<Integer, Bucket> buckets = new TreeMap<>();
+    private final Comparator<int[]> recordOrder;
+    private long statesInMemory = 0;
+    private long size = 0; // number of states added and not removed, including duplicates
+
+    /**
+     * @param recordLength The number of ints encoding a state.
+     * @param memoryLimit The maximum number of states kept in memory, the rest are written to disk.
+     * @param directory The directory for the files of the buckets, e.g. on a fast local disk.
+     */
+    public ExternalFrontier(int recordLength, long memoryLimit, File directory) {
+        this(recordLength, memoryLimit, directory, MAX_RUNS);
+    }
+
+    /**
+     * @param maxRuns The number of runs of a bucket before they are compacted, at least 2.
+     */
+    ExternalFrontier(int recordLength, long memoryLimit, File directory, int maxRuns) {
+        if (recordLength <= 0 || memoryLimit <= 0 || maxRuns < 2) {
+            throw new IllegalArgumentException("Record length and memory limit must be positive, and at least 2 runs " +
+                    "must be merged at once");
+        }
+        this.recordLength = recordLength;
+        this.memoryLimit = memoryLimit;
+        this.maxRuns = maxRuns;
+        this.directory = directory;
+        recordOrder = (a, b) -> {
+            for (int i = 0; i < recordLength; i++) {
+                if (a[i] != b[i]) {
+                    return Integer.compare(a[i], b[i]);
+                }
+            }
+            return 0;
+        };
+    }
+
+    /**
+     * Adds a state to the bucket of its f-value.
+     * @param f The f-value of the state.
+     * @param record The encoding of the state, which must not be modified afterwards.
+     * @throws IOException If a bucket cannot be written to disk.
+     */
+    public void add(int f, int[] record) throws IOException {
+        if (record.length != recordLength) {
+            throw new IllegalArgumentException("Expected a record of " + recordLength + " ints");
+        }
+        buckets.computeIfAbsent(f, key -> new Bucket()).records.add(record);
+        statesInMemory++;
+        size++;
+
+        // write the buckets needed last to disk
+        if (statesInMemory > memoryLimit) {
+            for (Bucket bucket : buckets.descendingMap().values()) {
+                if (!bucket.records.isEmpty()) {
+                    bucket.spill();
+                    if (statesInMemory <= memoryLimit / 2) {
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @return Whether the frontier has no states.
+     */
+    public boolean isEmpty() {
+        return buckets.isEmpty();
+    }
+
+    /**
+     * @return The smallest f-value of the states in the frontier.
+     */
+    public int getMinF() {
+        return buckets.firstKey();
+    }
+
+    /**
+     * @return The number of states in the frontier, counting duplicates which have not been detected yet.
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Removes the bucket with the smallest f-value. States added with the same f-value while the bucket is read are
+     * put in a new bucket.
+     * @return The distinct states of the bucket, in sorted order. The iterator throws UncheckedIOException if a run
+     * cannot be read.
+     * @throws IOException If a run cannot be opened.
+     */
+    public Iterator<int[]> removeMinBucket() throws IOException {
+        Bucket bucket = buckets.pollFirstEntry().getValue();
+        statesInMemory -= bucket.records.size();
+        size -= bucket.statesOnDisk + bucket.records.size();
+        bucket.records.sort(recordOrder);
+        List<Iterator<int[]>> runs = bucket.openRuns();
+        runs.add(bucket.records.iterator());
+        return new MergeIterator(runs, bucket.file);
+    }
+
+    /**
+     * Deletes the files of the buckets that have not been removed.
+     */
+    @Override
+    public void close() {
+        for (Bucket bucket : buckets.values()) {
+            if (bucket.file != null) {
+                bucket.file.delete();
+            }
+        }
+        buckets.clear();
+        statesInMemory = 0;
+        size = 0;
+    }
+
+    /**
+     * The states of one f-value, in memory and in sorted runs on disk, of which there are fewer than maxRuns.
+     */
+    private class Bucket {
+        private ArrayList<int[]> records = new ArrayList<>();
+        private File file; // null until the first run is written
+        private final List<Long> runLengths = new ArrayList<>(); // number of states of each run in the file
+        private long statesOnDisk = 0;
+
+        /**
+         * Appends the states in memory to the file as a new sorted run.
+         */
+        private void spill() throws IOException {
+            records.sort(recordOrder);
+            if (file == null) {
+                file = File.createTempFile("frontier", ".bucket", directory);
+                file.deleteOnExit();
+            }
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(new FileOutputStream(file, true), BUFFER_SIZE))) {
+                for (int[] record : records) {
+                    for (int value : record) {
+                        out.writeInt(value);
+                    }
+                }
+            }
+            runLengths.add((long) records.size());
+            statesOnDisk += records.size();
+            statesInMemory -= records.size();
+            records = new ArrayList<>();
+
+            if (runLengths.size() >= maxRuns) {
+                compact();
+            }
+        }
+
+        /**
+         * Merges the runs into a single run of distinct states in a new file, and deletes the old file.
+         */
+        private void compact() throws IOException {
+            File compactedFile = File.createTempFile("frontier", ".bucket", directory);
+            compactedFile.deleteOnExit();
+            long length = 0;
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(new FileOutputStream(compactedFile), BUFFER_SIZE))) {
+                MergeIterator merged = new MergeIterator(openRuns(), file);
+                while (merged.hasNext()) {
+                    for (int value : merged.next()) {
+                        out.writeInt(value);
+                    }
+                    length++;
+                }
+            } catch (IOException | UncheckedIOException e) {
+                compactedFile.delete();
+                throw e instanceof UncheckedIOException ? ((UncheckedIOException) e).getCause() : (IOException) e;
+            }
+
+            // the duplicates dropped are no longer in the frontier
+            size -= statesOnDisk - length;
+            file = compactedFile;
+            runLengths.clear();
+            runLengths.add(length);
+            statesOnDisk = length;
+        }
+
+        /**
+         * @return A reader of each run in the file.
+         */
+        private List<Iterator<int[]>> openRuns() throws IOException {
+            List<Iterator<int[]>> runs = new ArrayList<>();
+            long offset = 0;
+            for (long runLength : runLengths) {
+                runs.add(new RunReader(file, offset, runLength));
+                offset += runLength;
+            }
+            return runs;
+        }
+    }
+
+    /**
+     * Merges sorted sequences of states, skipping duplicates, and deletes their file when done.
+     */
+    private class MergeIterator implements Iterator<int[]> {
+        private final PriorityQueue<Cursor> cursors = new PriorityQueue<>((a, b) -> recordOrder.compare(a.head, b.head));
+        private final File file;
+        private int[] next;
+
+        /**
+         * @param runs The sorted sequences of states.
+         * @param file The file the runs are read from, or null if they are all in memory.
+         */
+        private MergeIterator(List<Iterator<int[]>> runs, File file) {
+            this.file = file;
+            for (Iterator<int[]> run : runs) {
+                addCursor(new Cursor(run));
+            }
+            advance();
+        }
+
+        private void addCursor(Cursor cursor) {
+            if (cursor.advance()) {
+                cursors.add(cursor);
+            }
+        }
+
+        /**
+         * Finds the next state that differs from the last one.
+         */
+        private void advance() {
+            int[] previous = next;
+            next = null;
+            while (!cursors.isEmpty()) {
+                Cursor cursor = cursors.poll();
+                int[] record = cursor.head;
+                addCursor(cursor);
+                if (previous == null || recordOrder.compare(previous, record) != 0) {
+                    next = record;
+                    return;
+                }
+            }
+            if (file != null) {
+                file.delete();
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public int[] next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            int[] record = next;
+            advance();
+            return record;
+        }
+    }
+
+    /**
+     * The smallest state of a sorted sequence of states that has not been merged yet.
+     */
+    private static class Cursor {
+        private final Iterator<int[]> records;
+        private int[] head;
+
+        private Cursor(Iterator<int[]> records) {
+            this.records = records;
+        }
+
+        /**
+         * @return false if there are no more states.
+         */
+        private boolean advance() {
+            if (!records.hasNext()) {
+                return false;
+            }
+            head = records.next();
+            return true;
+        }
+    }
+
+    /**
+     * Reads the states of a run in order, and closes the file after the last one.
+     */
+    private class RunReader implements Iterator<int[]> {
+        private final DataInputStream in;
+        private long remaining;
+
+        /**
+         * @param file The file of the bucket.
+         * @param offset The number of states in the file before the run.
+         * @param length The number of states in the run.
+         */
+        private RunReader(File file, long offset, long length) throws IOException {
+            FileInputStream fileInputStream = new FileInputStream(file);
+            fileInputStream.getChannel().position(offset * 4 * recordLength);
+            in = new DataInputStream(new BufferedInputStream(fileInputStream, BUFFER_SIZE));
+            remaining = length;
+            if (remaining == 0) {
+                in.close();
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return remaining > 0;
+        }
+
+        @Override
+        public int[] next() {
+            if (remaining == 0) {
+                throw new NoSuchElementException();
+            }
+            int[] record = new int[recordLength];
+            try {
+                for (int i = 0; i < recordLength; i++) {
+                    record[i] = in.readInt();
+                }
+                if (--remaining == 0) {
+                    in.close();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return record;
+        }
+    }
+}
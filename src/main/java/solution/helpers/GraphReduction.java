@@ -0,0 +1,233 @@
+package solution.helpers;
+
+import data.Schedule;
+import data.Task;
+import data.TaskGraph;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * This class simplifies a task graph before the search, using only reductions that keep the optimal finish time.
+ * An optimal schedule of the reduced graph is expanded back into an optimal schedule of the original graph.
+ *
+ * The reductions are:
+ * - Dominated edges: an edge a -> c is removed if there is a task b with edges a -> b -> c, and the communication
+ *   cost of a -> c is at most the duration of b plus the smaller communication cost of a -> b and b -> c. Whatever
+ *   processors a, b and c are on, the path through b already delays c at least as much as the edge does.
+ * - Zero duration leaves and roots: a task with a duration of 0 and a single parent and no children is placed right
+ *   after its parent on the same processor, and one with a single child and no parents right before its child.
+ *   Neither delays any other task. Tasks with a duration of 0 and no edges are placed at time 0.
+ *
+ * Merging chains of tasks with a single parent and a single child is not done, as it is not safe: the processor of
+ * the first task may be needed right after it finishes by another task, while the second task can run elsewhere.
+ */
+public class GraphReduction {
+    private final TaskGraph originalGraph;
+    private TaskGraph reducedGraph;
+    private int[] keptTasks; // keptTasks[i] => the original task of task i of the reduced graph
+    private final List<int[]> removedTasks = new ArrayList<>(); // {task, neighbour} in the order they were removed
+    private int numOriginalEdges = 0;
+    private int numReducedEdges = 0;
+
+    /**
+     * Reduces the task graph.
+     * @param taskGraph The task graph contains information about the DAG
+     */
+    public GraphReduction(TaskGraph taskGraph) {
+        this.originalGraph = taskGraph;
+        int numTasks = taskGraph.getNumberOfTasks();
+        int[] parentOffsets = taskGraph.getParentOffsets();
+        int[] parents = taskGraph.getParents();
+        int[] parentCommCosts = taskGraph.getParentCommCosts();
+        int[] childOffsets = taskGraph.getChildOffsets();
+        int[] children = taskGraph.getChildren();
+        int[] childCommCosts = taskGraph.getChildCommCosts();
+        numOriginalEdges = taskGraph.getNumberOfEdges();
+
+        // isRemovedEdge[i] => whether the edge to children[i] is dominated
+        boolean[] isRemovedEdge = new boolean[numOriginalEdges];
+        // costFromParent[b] => the communication cost of a -> b while the children of a are checked, -1 if none
+        int[] costFromParent = new int[numTasks];
+        Arrays.fill(costFromParent, -1);
+        for (int a = 0; a < numTasks; a++) {
+            for (int i = childOffsets[a]; i < childOffsets[a + 1]; i++) {
+                costFromParent[children[i]] = childCommCosts[i];
+            }
+            for (int i = childOffsets[a]; i < childOffsets[a + 1]; i++) {
+                int c = children[i];
+                for (int j = parentOffsets[c]; j < parentOffsets[c + 1]; j++) {
+                    int b = parents[j];
+                    if (costFromParent[b] != -1 && childCommCosts[i] <= taskGraph.getDuration(b)
+                            + Math.min(costFromParent[b], parentCommCosts[j])) {
+                        isRemovedEdge[i] = true;
+                        break;
+                    }
+                }
+            }
+            for (int i = childOffsets[a]; i < childOffsets[a + 1]; i++) {
+                costFromParent[children[i]] = -1;
+            }
+        }
+
+        // the number of remaining edges of each task
+        int[] numParents = new int[numTasks];
+        int[] numChildren = new int[numTasks];
+        for (int a = 0; a < numTasks; a++) {
+            for (int i = childOffsets[a]; i < childOffsets[a + 1]; i++) {
+                if (!isRemovedEdge[i]) {
+                    numParents[children[i]]++;
+                    numChildren[a]++;
+                }
+            }
+        }
+
+        // remove zero duration leaves and roots, which may turn their neighbours into leaves and roots
+        boolean[] isRemoved = new boolean[numTasks];
+        Deque<Integer> candidates = new ArrayDeque<>();
+        for (int task = 0; task < numTasks; task++) {
+            candidates.add(task);
+        }
+        while (!candidates.isEmpty()) {
+            int task = candidates.poll();
+            if (isRemoved[task] || taskGraph.getDuration(task) != 0 || numParents[task] + numChildren[task] > 1) {
+                continue;
+            }
+
+            int neighbour = -1;
+            for (int j = parentOffsets[task]; j < parentOffsets[task + 1]; j++) {
+                int parent = parents[j];
+                if (!isRemoved[parent] && !isRemovedEdge[taskGraph.getEdgeIndex(parent, task)]) {
+                    neighbour = parent;
+                    numChildren[parent]--;
+                }
+            }
+            for (int i = childOffsets[task]; i < childOffsets[task + 1]; i++) {
+                int child = children[i];
+                if (!isRemoved[child] && !isRemovedEdge[i]) {
+                    neighbour = child;
+                    numParents[child]--;
+                }
+            }
+            isRemoved[task] = true;
+            removedTasks.add(new int[]{task, neighbour});
+            if (neighbour != -1) {
+                candidates.add(neighbour);
+            }
+        }
+
+        createReducedGraph(isRemovedEdge, isRemoved);
+    }
+
+    /**
+     * Creates the reduced graph from the tasks and edges that were not removed.
+     */
+    private void createReducedGraph(boolean[] isRemovedEdge, boolean[] isRemoved) {
+        int numTasks = originalGraph.getNumberOfTasks();
+        int size = numTasks - removedTasks.size();
+        keptTasks = new int[size];
+        int[] index = new int[numTasks];
+        int[] durations = new int[size];
+        for (int task = 0, i = 0; task < numTasks; task++) {
+            if (!isRemoved[task]) {
+                index[task] = i;
+                durations[i] = originalGraph.getDuration(task);
+                keptTasks[i++] = task;
+            }
+        }
+
+        int[] childOffsets = originalGraph.getChildOffsets();
+        int[] children = originalGraph.getChildren();
+        int[] childCommCosts = originalGraph.getChildCommCosts();
+        for (int task : keptTasks) {
+            for (int i = childOffsets[task]; i < childOffsets[task + 1]; i++) {
+                if (!isRemoved[children[i]] && !isRemovedEdge[i]) {
+                    numReducedEdges++;
+                }
+            }
+        }
+        if (numReducedEdges == numOriginalEdges && removedTasks.isEmpty()) {
+            // keep the same graph, so what is cached on it is shared, e.g. when a reduced graph is run again
+            reducedGraph = originalGraph;
+            return;
+        }
+
+        int[] sources = new int[numReducedEdges];
+        int[] targets = new int[numReducedEdges];
+        int[] commCosts = new int[numReducedEdges];
+        int edge = 0;
+        for (int task : keptTasks) {
+            for (int i = childOffsets[task]; i < childOffsets[task + 1]; i++) {
+                if (!isRemoved[children[i]] && !isRemovedEdge[i]) {
+                    sources[edge] = index[task];
+                    targets[edge] = index[children[i]];
+                    commCosts[edge++] = childCommCosts[i];
+                }
+            }
+        }
+        reducedGraph = new TaskGraph(durations, sources, targets, commCosts);
+    }
+
+    /**
+     * @return The reduced task graph, which has the same optimal finish time as the original one.
+     */
+    public TaskGraph getReducedGraph() {
+        return reducedGraph;
+    }
+
+    /**
+     * @return Whether any task or edge was removed.
+     */
+    public boolean isReduced() {
+        return numReducedEdges < numOriginalEdges || !removedTasks.isEmpty();
+    }
+
+    /**
+     * Turns a schedule of the reduced graph into a schedule of the original graph with the same finish time.
+     * @param schedule A valid schedule of the reduced graph.
+     * @return A valid schedule of the original graph, with the original task ids.
+     */
+    public Schedule expand(Schedule schedule) {
+        Task[] tasks = new Task[originalGraph.getNumberOfTasks()];
+        for (int i = 0; i < keptTasks.length; i++) {
+            tasks[keptTasks[i]] = schedule.getTasks()[i];
+        }
+
+        // a removed task is placed relative to its neighbour, which was removed after it or not at all
+        for (int i = removedTasks.size() - 1; i >= 0; i--) {
+            int task = removedTasks.get(i)[0];
+            int neighbour = removedTasks.get(i)[1];
+            if (neighbour == -1) {
+                tasks[task] = new Task(0, 0, 0);
+            } else if (originalGraph.hasEdge(neighbour, task)) {
+                int finishTime = tasks[neighbour].getFinishTime();
+                tasks[task] = new Task(finishTime, finishTime, tasks[neighbour].getProcessor());
+            } else {
+                int startTime = tasks[neighbour].getStartTime();
+                tasks[task] = new Task(startTime, startTime, tasks[neighbour].getProcessor());
+            }
+        }
+        return new Schedule(tasks, schedule.getFinishTime());
+    }
+
+    /**
+     * Restricts a schedule of the original graph to the tasks of the reduced graph. The reduced graph has a subset of
+     * the edges and the same durations, so the schedule stays valid, and it does not finish any later.
+     * @param schedule A valid schedule of the original graph.
+     * @return A valid schedule of the reduced graph.
+     */
+    public Schedule reduce(Schedule schedule) {
+        return Decomposition.restrictSchedule(schedule, keptTasks, false);
+    }
+
+    /**
+     * @return A description of how much the graph was reduced.
+     */
+    public String getSummary() {
+        return "Reduced graph from " + originalGraph.getNumberOfTasks() + " tasks and " + numOriginalEdges
+                + " edges to " + keptTasks.length + " tasks and " + numReducedEdges + " edges";
+    }
+}
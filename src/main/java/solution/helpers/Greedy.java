@@ -1,195 +1,189 @@
 package solution.helpers;
 
 import data.Schedule;
-import data.Task;
 import data.TaskGraph;
-
-import java.util.Comparator;
-import java.util.LinkedList;
-import java.util.PriorityQueue;
-import java.util.Queue;
-
+import solution.helpers.heuristics.CpopHeuristic;
+import solution.helpers.heuristics.DynamicListHeuristic;
+import solution.helpers.heuristics.Heuristic;
+import solution.helpers.heuristics.HeuristicResult;
+import solution.helpers.heuristics.InsertionListHeuristic;
+import solution.helpers.heuristics.PriorityListHeuristic;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs a portfolio of list scheduling heuristics concurrently on a thread pool and returns the best schedule found.
+ * This is used as the initial bound of the exact search.
+ *
+ * The pool is created on the first run and kept for later runs, e.g. of the smaller graphs a graph is decomposed into.
+ * Its threads are daemons and stop after being idle for a while, so an unused Greedy does not keep them.
+ */
 public class Greedy {
+    // above this many tasks, only heuristics that run in near linear time are used
+    private static final int LARGE_GRAPH_THRESHOLD = 10000;
+    private static final long IDLE_THREAD_TIMEOUT = 10; // seconds before an idle thread of the pool stops
 
-    public Schedule run(TaskGraph taskGraph, int numProcessors){
-        Schedule bestSchedule = runSchedule(taskGraph, numProcessors);
-
-        int[] bLevels = PreProcessor.maxLengthToExitNode(taskGraph);
-        int[] weights = taskGraph.getDurations();
-
-        Schedule reverseBLevelPriority = runScheduleWithPriority(taskGraph, numProcessors, bLevels, true);
-        if(reverseBLevelPriority.getFinishTime() < bestSchedule.getFinishTime()) {
-            bestSchedule = reverseBLevelPriority;
-        }
-
-        Schedule bLevelPriority = runScheduleWithPriority(taskGraph, numProcessors, bLevels, false);
-        if(bLevelPriority.getFinishTime() < bestSchedule.getFinishTime()){
-            bestSchedule = bLevelPriority;
-        }
+    private final List<Heuristic> heuristics;
+    private final int numThreads;
+    private ThreadPoolExecutor executor; // created on the first run on more than one thread
+    private List<HeuristicResult> results = new ArrayList<>();
+    private final Map<String, long[]> totals = new LinkedHashMap<>(); // name => {run time, number of best schedules}
 
-        Schedule reverseTaskWeightPriority = runScheduleWithPriority(taskGraph, numProcessors, weights, true);
-        if(reverseTaskWeightPriority.getFinishTime() < bestSchedule.getFinishTime()){
-            bestSchedule = reverseTaskWeightPriority;
-        }
+    /**
+     * Creates a Greedy that runs the default heuristics on all available cores.
+     */
+    public Greedy() {
+        this(defaultHeuristics(), Runtime.getRuntime().availableProcessors());
+    }
 
-        Schedule taskWeightPriority = runScheduleWithPriority(taskGraph, numProcessors, weights, false);
-        if(taskWeightPriority.getFinishTime() < bestSchedule.getFinishTime()){
-            bestSchedule = taskWeightPriority;
-        }
+    /**
+     * @param heuristics The heuristics to run.
+     * @param numThreads The number of threads to run the heuristics on, or 1 to run them on the calling thread.
+     */
+    public Greedy(List<Heuristic> heuristics, int numThreads) {
+        this.heuristics = heuristics;
+        this.numThreads = numThreads;
+    }
 
-        return bestSchedule;
+    /**
+     * @return The established list scheduling heuristics: first in first out, B-level and task weight priorities in
+     * both directions, insertion based B-level, HEFT, CPOP, ETF and DLS.
+     */
+    public static List<Heuristic> defaultHeuristics() {
+        List<Heuristic> heuristics = new ArrayList<>();
+        heuristics.add(new PriorityListHeuristic("FIFO", null, false));
+        heuristics.add(new PriorityListHeuristic("B-level descending", PreProcessor::maxLengthToExitNode, true));
+        heuristics.add(new PriorityListHeuristic("B-level ascending", PreProcessor::maxLengthToExitNode, false));
+        heuristics.add(new PriorityListHeuristic("Weight descending", TaskGraph::getDurations, true));
+        heuristics.add(new PriorityListHeuristic("Weight ascending", TaskGraph::getDurations, false));
+        heuristics.add(new InsertionListHeuristic("B-level insertion", PreProcessor::maxLengthToExitNode));
+        heuristics.add(new InsertionListHeuristic("HEFT", PreProcessor::upwardRanks));
+        heuristics.add(new CpopHeuristic());
+        heuristics.add(new DynamicListHeuristic(false));
+        heuristics.add(new DynamicListHeuristic(true));
+        return heuristics;
     }
 
     /**
-     * Main method of the algorithm which schedules tasks on parallel processors
-     * n is the number of tasks.
+     * Runs every heuristic and returns the schedule with the earliest finish time. Ties are broken by the order of
+     * the heuristics, so the result does not depend on thread timing. On very large graphs, heuristics that are not
+     * near linear are skipped.
      * @param taskGraph object that encapsulates tasks and their dependencies.
      * @param numProcessors Number of processors.
-     * @return List of scheduled tasks.
+     * @return the best schedule found.
      */
-    public Schedule runSchedule(TaskGraph taskGraph, int numProcessors) {
-        int n = taskGraph.getNumberOfTasks();
-        int finalFinishTime = 0;
-        Task[] output = new Task[n];
-
-        // scheduleCandidates contains all possible tasks which are able to be scheduled
-        Queue<Integer> scheduleCandidates = new LinkedList<>();
-
-        // earliestScheduleTimes[i][j] => earliest possible time to schedule task i on processor j
-        int[][] earliestScheduleTimes = new int[n][numProcessors];
-
-        // Set up the number of parents (in-degrees) of each task. If a task has no parent, then
-        // we add it to the scheduleCandidates queue.
-        int[] inDegrees = new int[n];
-        for (int i = 0; i < n; i++) {
-            inDegrees[i] = taskGraph.getParentsList(i).size();
-            if (inDegrees[i] == 0) {
-                scheduleCandidates.add(i);
+    public Schedule run(TaskGraph taskGraph, int numProcessors) {
+        List<Callable<HeuristicResult>> jobs = new ArrayList<>();
+        boolean isLargeGraph = taskGraph.getNumberOfTasks() > LARGE_GRAPH_THRESHOLD;
+        for (Heuristic heuristic : heuristics) {
+            if (isLargeGraph && !heuristic.isNearLinear()) {
+                continue;
             }
+            jobs.add(() -> {
+                long startTime = System.nanoTime();
+                Schedule schedule = heuristic.run(taskGraph, numProcessors);
+                return new HeuristicResult(heuristic.getName(), schedule, System.nanoTime() - startTime);
+            });
         }
 
-        // repeat until all tasks have been scheduled (and a viable solution is found)
-        while (!scheduleCandidates.isEmpty()) {
-            // find a node with in degree 0
-            int candidate = scheduleCandidates.poll();
-
-            // Choose processor to schedule task on
-            int minStartTime = earliestScheduleTimes[candidate][0];
-            int minProcessor = 0;
-            for (int i = 1; i < numProcessors; i++) {
-                int currStartTime = earliestScheduleTimes[candidate][i];
-                if (currStartTime < minStartTime) {
-                    minStartTime = currStartTime;
-                    minProcessor = i;
+        results = new ArrayList<>();
+        if (numThreads <= 1 || jobs.size() <= 1) {
+            // e.g. when many graphs are scheduled at once, a thread pool for each graph only adds overhead
+            for (Callable<HeuristicResult> job : jobs) {
+                try {
+                    results.add(job.call());
+                } catch (Exception e) {
+                    e.printStackTrace();
                 }
             }
+            return bestSchedule(taskGraph, numProcessors);
+        }
 
-            // schedule task
-            int finishTime = minStartTime + taskGraph.getDuration(candidate);
-            finalFinishTime = Math.max(finalFinishTime, finishTime);
-
-            output[candidate] = new Task(minStartTime, finishTime, minProcessor);
-
-            // Update earliest schedule times for children
-            for (int child: taskGraph.getChildrenList(candidate)) {
-                for (int i = 0; i < numProcessors; i++) {
-                    if (i == minProcessor) {
-                        // for the processor the candidate was applied to,
-                        // the earliest schedule time could be right after the candidate finishes
-                        earliestScheduleTimes[child][minProcessor] = Math.max(finishTime,
-                                earliestScheduleTimes[child][minProcessor]);
-                    } else {
-                        earliestScheduleTimes[child][i] = Math.max(finishTime + taskGraph.getCommCost(candidate, child),
-                                earliestScheduleTimes[child][i]);
-                    }
-                }
-
-                // Decrement in-degree count of child and see if it can be a candidate
-                inDegrees[child]--;
-                if (inDegrees[child] == 0) {
-                    scheduleCandidates.add(child);
+        try {
+            for (Future<HeuristicResult> future : getExecutor().invokeAll(jobs)) {
+                try {
+                    results.add(future.get());
+                } catch (ExecutionException e) {
+                    // a failing heuristic should not stop the others from being used
+                    e.printStackTrace();
                 }
             }
-            // Update earliest schedule times for the processor which the task was scheduled on (minProcessor)
-            for (int i = 0; i < n; i++) {
-                earliestScheduleTimes[i][minProcessor] = Math.max(finishTime, earliestScheduleTimes[i][minProcessor]);
-            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
-
-        return new Schedule(output, finalFinishTime);
+        return bestSchedule(taskGraph, numProcessors);
     }
 
-    public Schedule runScheduleWithPriority(TaskGraph taskGraph, int numProcessors, int[] nodePriorities, boolean reversed) {
-        int reverse = reversed ? -1 : 1;
-
-        int n = taskGraph.getNumberOfTasks();
-        int finalFinishTime = 0;
-        Task[] output = new Task[n];
-
-        // scheduleCandidates contains all possible tasks which are able to be scheduled
-        PriorityQueue<Integer> scheduleCandidates = new PriorityQueue<>(Comparator.comparingInt(a -> reverse * nodePriorities[a]));
-
-        // earliestScheduleTimes[i][j] => earliest possible time to schedule task i on processor j
-        int[][] earliestScheduleTimes = new int[n][numProcessors];
+    private synchronized ThreadPoolExecutor getExecutor() {
+        if (executor == null) {
+            executor = new ThreadPoolExecutor(numThreads, numThreads, IDLE_THREAD_TIMEOUT, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(), runnable -> {
+                        Thread thread = new Thread(runnable, "greedy");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+            executor.allowCoreThreadTimeOut(true);
+        }
+        return executor;
+    }
 
-        // Set up the number of parents (in-degrees) of each task. If a task has no parent, then
-        // we add it to the scheduleCandidates queue.
-        int[] inDegrees = new int[n];
-        for (int i = 0; i < n; i++) {
-            inDegrees[i] = taskGraph.getParentsList(i).size();
-            if (inDegrees[i] == 0) {
-                scheduleCandidates.add(i);
+    /**
+     * @return The schedule with the earliest finish time among the results.
+     */
+    private Schedule bestSchedule(TaskGraph taskGraph, int numProcessors) {
+        HeuristicResult bestResult = null;
+        for (HeuristicResult result : results) {
+            if (bestResult == null || result.getSchedule().getFinishTime() < bestResult.getSchedule().getFinishTime()) {
+                bestResult = result;
             }
         }
-
-        // repeat until all tasks have been scheduled (and a viable solution is found)
-        while (!scheduleCandidates.isEmpty()) {
-            // find a node with in degree 0
-            int candidate = scheduleCandidates.poll();
-
-            // Choose processor to schedule task on
-            int minStartTime = earliestScheduleTimes[candidate][0];
-            int minProcessor = 0;
-            for (int i = 1; i < numProcessors; i++) {
-                int currStartTime = earliestScheduleTimes[candidate][i];
-                if (currStartTime < minStartTime) {
-                    minStartTime = currStartTime;
-                    minProcessor = i;
-                }
+        synchronized (totals) {
+            for (HeuristicResult result : results) {
+                long[] total = totals.computeIfAbsent(result.getName(), name -> new long[2]);
+                total[0] += result.getRunTime();
+                total[1] += result == bestResult ? 1 : 0;
             }
+        }
 
-            // schedule task
-            int finishTime = minStartTime + taskGraph.getDuration(candidate);
-            finalFinishTime = Math.max(finalFinishTime, finishTime);
-
-            output[candidate] = new Task(minStartTime, finishTime, minProcessor);
+        Schedule bestSchedule = bestResult == null ? null : bestResult.getSchedule();
+        if (bestSchedule == null) {
+            // no heuristic finished, so fall back to the simplest one on this thread
+            bestSchedule = heuristics.get(0).run(taskGraph, numProcessors);
+        }
+        return bestSchedule;
+    }
 
-            // Update earliest schedule times for children
-            for (int child: taskGraph.getChildrenList(candidate)) {
-                for (int i = 0; i < numProcessors; i++) {
-                    if (i == minProcessor) {
-                        // for the processor the candidate was applied to,
-                        // the earliest schedule time could be right after the candidate finishes
-                        earliestScheduleTimes[child][minProcessor] = Math.max(finishTime,
-                                earliestScheduleTimes[child][minProcessor]);
-                    } else {
-                        earliestScheduleTimes[child][i] = Math.max(finishTime + taskGraph.getCommCost(candidate, child),
-                                earliestScheduleTimes[child][i]);
-                    }
-                }
+    /**
+     * @return The schedule and run time of each heuristic from the last call to run.
+     */
+    public List<HeuristicResult> getResults() {
+        return results;
+    }
 
-                // Decrement in-degree count of child and see if it can be a candidate
-                inDegrees[child]--;
-                if (inDegrees[child] == 0) {
-                    scheduleCandidates.add(child);
-                }
+    /**
+     * Prints the total run time of each heuristic over every run, and how many times it gave the best schedule.
+     * Nothing is printed if it has not been run.
+     * @param out The stream to print to, e.g. System.out.
+     */
+    public void printSummary(PrintStream out) {
+        synchronized (totals) {
+            if (totals.isEmpty()) {
+                return;
             }
-            // Update earliest schedule times for the processor which the task was scheduled on (minProcessor)
-            for (int i = 0; i < n; i++) {
-                earliestScheduleTimes[i][minProcessor] = Math.max(finishTime, earliestScheduleTimes[i][minProcessor]);
+            out.println("heuristic\ttime (ms)\tbest");
+            for (Map.Entry<String, long[]> total : totals.entrySet()) {
+                out.printf("%s\t%.3f\t%d%n", total.getKey(), total.getValue()[0] / 1e6, total.getValue()[1]);
             }
         }
-
-        return new Schedule(output, finalFinishTime);
     }
 }
@@ -0,0 +1,116 @@
+package solution.helpers;
+
+import java.util.Arrays;
+
+/**
+ * A set of ints, used to store the hash codes of the partial schedules that have been searched.
+ *
+ * The keys are stored in a single int array with open addressing and linear probing, so there is no object per
+ * entry like in a HashSet<Integer>. A key takes 4 bytes of the table, which is between 1/2 and 3/4 full, instead of
+ * about 48 bytes. The capacity is a power of two, and 0 marks an empty slot, so the key 0 is kept in a separate flag.
+ */
+public class IntHashSet implements IntSet {
+    private static final int MIN_CAPACITY = 16;
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private int[] keys;
+    private int mask; // capacity - 1
+    private int size = 0; // number of keys in the table, excluding 0
+    private int resizeAt; // the table grows when its size reaches this number
+    private boolean containsZero = false;
+
+    public IntHashSet() {
+        this(MIN_CAPACITY);
+    }
+
+    /**
+     * @param expectedSize Number of keys the set can hold before it grows.
+     */
+    public IntHashSet(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < MAX_CAPACITY && capacity * 3L / 4 < expectedSize) {
+            capacity <<= 1;
+        }
+        allocate(capacity);
+    }
+
+    @Override
+    public boolean contains(int key) {
+        if (key == 0) {
+            return containsZero;
+        }
+        int slot = mix(key) & mask;
+        while (keys[slot] != 0) {
+            if (keys[slot] == key) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean add(int key) {
+        if (key == 0) {
+            boolean added = !containsZero;
+            containsZero = true;
+            return added;
+        }
+        int slot = mix(key) & mask;
+        while (keys[slot] != 0) {
+            if (keys[slot] == key) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        size++;
+        if (size >= resizeAt) {
+            resize(keys.length << 1);
+        }
+        return true;
+    }
+
+    @Override
+    public long size() {
+        return containsZero ? size + 1 : size;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(keys, 0);
+        size = 0;
+        containsZero = false;
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        mask = capacity - 1;
+        resizeAt = capacity == MAX_CAPACITY ? MAX_CAPACITY - 1 : capacity / 4 * 3;
+    }
+
+    private void resize(int capacity) {
+        if (keys.length == MAX_CAPACITY) {
+            throw new IllegalStateException("IntHashSet is full");
+        }
+        int[] oldKeys = keys;
+        allocate(capacity);
+        for (int key : oldKeys) {
+            if (key != 0) {
+                int slot = mix(key) & mask;
+                while (keys[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = key;
+            }
+        }
+    }
+
+    /**
+     * Spreads the bits of the key, as hash codes of sets of stacks are not uniform in their low bits.
+     */
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,27 @@
+package solution.helpers;
+
+/**
+ * A set of ints, used by the exact search to store the hash codes of the partial schedules it has searched.
+ */
+public interface IntSet {
+    /**
+     * @return Whether the set contains the key.
+     */
+    boolean contains(int key);
+
+    /**
+     * Adds the key to the set.
+     * @return true if the set did not already contain the key.
+     */
+    boolean add(int key);
+
+    /**
+     * @return The number of keys in the set.
+     */
+    long size();
+
+    /**
+     * Removes all keys.
+     */
+    void clear();
+}
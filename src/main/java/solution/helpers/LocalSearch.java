@@ -0,0 +1,202 @@
+package solution.helpers;
+
+import data.Schedule;
+import data.Task;
+import data.TaskGraph;
+
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+/**
+ * Improves an initial schedule with simulated annealing before the exact search is run. A tighter initial finish
+ * time lets the exact search prune much more of the search tree.
+ *
+ * A schedule is represented by a priority list (a topological order of the tasks) and an assignment of tasks to
+ * processors. It is decoded in O(n + e) by appending the tasks in priority order to their processors as early as
+ * possible. Neighbouring schedules are found by moving a task to another processor, or swapping two adjacent
+ * independent tasks in the priority list.
+ */
+public class LocalSearch {
+    private static final int ITERATIONS_PER_TIME_CHECK = 256;
+    // gives up before the time budget once the best schedule has not improved for this many moves, e.g. when the
+    // greedy schedule is already optimal but does not meet the lower bound
+    private static final int MAX_ITERATIONS_WITHOUT_IMPROVEMENT = 20_000;
+
+    private final Random random = new Random(0);
+
+    private TaskGraph taskGraph;
+    private int numProcessors;
+    private int[] order; // order[i] => the task with the i-th highest priority
+    private int[] scheduledOn; // scheduledOn[i] => the processor task i is assigned to
+    private int[] startTimes; // startTimes[i] => start time of task i in the last decoded schedule
+    private int[] processorFinishTimes; // used by the decoder
+
+    /**
+     * Runs simulated annealing starting from the initial schedule until the time budget is used up, the schedule
+     * reaches the lower bound, or it stops improving.
+     * @param taskGraph object that encapsulates tasks and their dependencies.
+     * @param numProcessors Number of processors.
+     * @param initialSchedule a valid schedule to improve on, e.g. from Greedy.
+     * @param timeBudget time to spend improving the schedule in milliseconds.
+     * @return the best schedule found, which is the initial schedule if no better one is found.
+     */
+    public Schedule run(TaskGraph taskGraph, int numProcessors, Schedule initialSchedule, long timeBudget) {
+        int n = taskGraph.getNumberOfTasks();
+        int lowerBound = LowerBound.calculate(taskGraph, numProcessors);
+        if (n < 2 || timeBudget <= 0 || initialSchedule.getFinishTime() <= lowerBound) {
+            return initialSchedule;
+        }
+
+        this.taskGraph = taskGraph;
+        this.numProcessors = numProcessors;
+        startTimes = new int[n];
+        processorFinishTimes = new int[numProcessors];
+        initializeFromSchedule(initialSchedule);
+
+        int currentFinishTime = decode();
+        int bestFinishTime = currentFinishTime;
+        int[] bestStartTimes = startTimes.clone();
+        int[] bestScheduledOn = scheduledOn.clone();
+
+        double initialTemperature = Math.max(1, currentFinishTime * 0.05);
+        long startTime = System.nanoTime();
+        long budget = timeBudget * 1_000_000;
+        double temperature = initialTemperature;
+        long lastImprovement = 0;
+
+        for (long iteration = 0; ; iteration++) {
+            if (iteration - lastImprovement > MAX_ITERATIONS_WITHOUT_IMPROVEMENT) {
+                break;
+            }
+            if (iteration % ITERATIONS_PER_TIME_CHECK == 0) {
+                long elapsed = System.nanoTime() - startTime;
+                if (elapsed >= budget) {
+                    break;
+                }
+                // cool down linearly over the time budget
+                temperature = initialTemperature * (1 - elapsed / (double) budget);
+            }
+
+            // make a random move, remembering how to undo it
+            int movedTask = -1;
+            int oldProcessor = -1;
+            int swapIndex = -1;
+            if (numProcessors > 1 && random.nextBoolean()) {
+                movedTask = random.nextInt(n);
+                oldProcessor = scheduledOn[movedTask];
+                scheduledOn[movedTask] = (oldProcessor + 1 + random.nextInt(numProcessors - 1)) % numProcessors;
+            } else {
+                swapIndex = random.nextInt(n - 1);
+                // the priority list must stay a topological order
+                if (taskGraph.hasEdge(order[swapIndex], order[swapIndex + 1])) {
+                    continue;
+                }
+                swapOrder(swapIndex);
+            }
+
+            int finishTime = decode();
+            int delta = finishTime - currentFinishTime;
+            if (delta <= 0 || random.nextDouble() < Math.exp(-delta / temperature)) {
+                currentFinishTime = finishTime;
+                if (finishTime < bestFinishTime) {
+                    bestFinishTime = finishTime;
+                    lastImprovement = iteration;
+                    System.arraycopy(startTimes, 0, bestStartTimes, 0, n);
+                    System.arraycopy(scheduledOn, 0, bestScheduledOn, 0, n);
+                    if (bestFinishTime <= lowerBound) {
+                        break;
+                    }
+                }
+            } else if (movedTask != -1) {
+                scheduledOn[movedTask] = oldProcessor;
+            } else {
+                swapOrder(swapIndex);
+            }
+        }
+
+        if (bestFinishTime >= initialSchedule.getFinishTime()) {
+            return initialSchedule;
+        }
+
+        Task[] tasks = new Task[n];
+        for (int i = 0; i < n; i++) {
+            tasks[i] = new Task(bestStartTimes[i], bestStartTimes[i] + taskGraph.getDuration(i), bestScheduledOn[i]);
+        }
+        return new Schedule(tasks, bestFinishTime);
+    }
+
+    /**
+     * Takes the processor assignment from the schedule, and orders the tasks topologically by their start time.
+     * @param schedule a valid schedule.
+     */
+    private void initializeFromSchedule(Schedule schedule) {
+        int n = taskGraph.getNumberOfTasks();
+        Task[] tasks = schedule.getTasks();
+        order = new int[n];
+        scheduledOn = new int[n];
+
+        int[] inDegrees = taskGraph.getInDegrees().clone();
+        PriorityQueue<Integer> candidates = new PriorityQueue<>(Comparator.comparingInt(a -> tasks[a].getStartTime()));
+        for (int i = 0; i < n; i++) {
+            scheduledOn[i] = tasks[i].getProcessor();
+            if (inDegrees[i] == 0) {
+                candidates.add(i);
+            }
+        }
+
+        int index = 0;
+        while (!candidates.isEmpty()) {
+            int task = candidates.poll();
+            order[index++] = task;
+            for (int child : taskGraph.getChildrenList(task)) {
+                inDegrees[child]--;
+                if (inDegrees[child] == 0) {
+                    candidates.add(child);
+                }
+            }
+        }
+    }
+
+    /**
+     * Schedules the tasks in priority order, each as early as possible after the last task on its processor.
+     * @return the finish time of the decoded schedule.
+     */
+    private int decode() {
+        int[] parentOffsets = taskGraph.getParentOffsets();
+        int[] parents = taskGraph.getParents();
+        int[] parentCommCosts = taskGraph.getParentCommCosts();
+        int finishTime = 0;
+        for (int i = 0; i < numProcessors; i++) {
+            processorFinishTimes[i] = 0;
+        }
+
+        for (int task : order) {
+            int processor = scheduledOn[task];
+            int startTime = processorFinishTimes[processor];
+            for (int i = parentOffsets[task]; i < parentOffsets[task + 1]; i++) {
+                int parent = parents[i];
+                int dataArrival = startTimes[parent] + taskGraph.getDuration(parent);
+                if (scheduledOn[parent] != processor) {
+                    dataArrival += parentCommCosts[i];
+                }
+                startTime = Math.max(startTime, dataArrival);
+            }
+
+            startTimes[task] = startTime;
+            processorFinishTimes[processor] = startTime + taskGraph.getDuration(task);
+            finishTime = Math.max(finishTime, processorFinishTimes[processor]);
+        }
+
+        return finishTime;
+    }
+
+    /**
+     * Swaps the tasks at index i and i + 1 of the priority list.
+     */
+    private void swapOrder(int i) {
+        int temp = order[i];
+        order[i] = order[i + 1];
+        order[i + 1] = temp;
+    }
+}
@@ -0,0 +1,42 @@
+package solution.helpers;
+
+import data.TaskGraph;
+
+/**
+ * This class calculates a global lower bound on the finish time of any valid schedule of a task graph.
+ * If a schedule is found with a finish time equal to this bound, then it is optimal and the search can stop.
+ */
+public class LowerBound {
+
+    /**
+     * Calculates the strongest lower bound available: the maximum of the critical path length (the largest B-level,
+     * ignoring communication costs) and the total work evenly distributed amongst all processors.
+     *
+     * @param taskGraph The task graph contains information about the DAG
+     * @param numProcessors number of processors to schedule the tasks on
+     * @return the lower bound on the finish time of any schedule.
+     */
+    public static int calculate(TaskGraph taskGraph, int numProcessors) {
+        return calculate(taskGraph, numProcessors, PreProcessor.maxLengthToExitNode(taskGraph));
+    }
+
+    /**
+     * Calculates the lower bound with B-levels that have already been computed.
+     *
+     * @param taskGraph The task graph contains information about the DAG
+     * @param numProcessors number of processors to schedule the tasks on
+     * @param bLevels bLevels[i] => B-level of task i
+     * @return the lower bound on the finish time of any schedule.
+     */
+    public static int calculate(TaskGraph taskGraph, int numProcessors, int[] bLevels) {
+        int criticalPath = 0;
+        int totalDuration = 0;
+        for (int task = 0; task < taskGraph.getNumberOfTasks(); task++) {
+            criticalPath = Math.max(criticalPath, bLevels[task]);
+            totalDuration += taskGraph.getDuration(task);
+        }
+
+        int loadBalancedTime = (int) Math.ceil(totalDuration / (double) numProcessors);
+        return Math.max(criticalPath, loadBalancedTime);
+    }
+}
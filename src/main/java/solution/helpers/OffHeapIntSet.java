@@ -0,0 +1,187 @@
+package solution.helpers;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+
+/**
+ * A fixed size set of ints kept outside of the Java heap, either in direct buffers or in a memory mapped file. It
+ * lets the duplicate detection of the exact search use more memory than the heap, or than the RAM when the table is
+ * mapped to a file and paged by the OS, without adding to the work of the garbage collector.
+ *
+ * The table is split into buckets of 16 ints, the size of a cache line. A key is looked up in one bucket only, and
+ * when its bucket is full a key in it is replaced. Forgetting a key only means that a partial schedule may be searched
+ * again, so the search stays optimal however small the table is. 0 marks an empty slot, so the key 0 is kept in a
+ * separate flag.
+ *
+ * The first int of a bucket is the generation it was last written in, and the other 15 hold keys. A bucket of an older
+ * generation is empty, and is reset when a key is added to it, so clearing the table only starts a new generation
+ * instead of writing the whole table.
+ */
+public class OffHeapIntSet implements IntSet {
+    private static final int SEGMENT_BITS = 30; // a buffer holds at most 2 GB, so the table is split into 1 GB segments
+    private static final int SEGMENT_SIZE = 1 << SEGMENT_BITS;
+    private static final int BUCKET_SIZE = 16; // ints per bucket
+    private static final int BUCKET_BYTES = BUCKET_SIZE * 4;
+
+    private final ByteBuffer[] segments;
+    private final long bucketMask; // number of buckets - 1
+    private long size = 0; // number of keys added, excluding 0 and replaced keys
+    private boolean containsZero = false;
+    private int generation = 1; // buckets of other generations are empty, and a new table is all of generation 0
+
+    private OffHeapIntSet(ByteBuffer[] segments, long numberOfBuckets) {
+        this.segments = segments;
+        this.bucketMask = numberOfBuckets - 1;
+    }
+
+    /**
+     * Creates a table in direct buffers. Their total size is limited by -XX:MaxDirectMemorySize.
+     * @param bytes The maximum size of the table in bytes, rounded down to a power of two.
+     */
+    public static OffHeapIntSet allocate(long bytes) {
+        long numberOfBuckets = numberOfBuckets(bytes);
+        ByteBuffer[] segments = new ByteBuffer[numberOfSegments(numberOfBuckets)];
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = ByteBuffer.allocateDirect((int) segmentBytes(numberOfBuckets, i))
+                    .order(ByteOrder.nativeOrder());
+        }
+        return new OffHeapIntSet(segments, numberOfBuckets);
+    }
+
+    /**
+     * Creates a table mapped to a file, which is overwritten. The OS writes the pages of the table that do not fit in
+     * memory to the file.
+     * @param file The file backing the table.
+     * @param bytes The maximum size of the table in bytes, rounded down to a power of two.
+     * @throws IOException If the file cannot be created or mapped.
+     */
+    public static OffHeapIntSet map(File file, long bytes) throws IOException {
+        long numberOfBuckets = numberOfBuckets(bytes);
+        ByteBuffer[] segments = new ByteBuffer[numberOfSegments(numberOfBuckets)];
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+             FileChannel channel = randomAccessFile.getChannel()) {
+            // a new file reads as zeros, i.e. empty slots
+            randomAccessFile.setLength(0);
+            randomAccessFile.setLength(numberOfBuckets * BUCKET_BYTES);
+            for (int i = 0; i < segments.length; i++) {
+                // the mapping stays valid after the channel is closed
+                segments[i] = channel.map(FileChannel.MapMode.READ_WRITE, (long) i * SEGMENT_SIZE,
+                        segmentBytes(numberOfBuckets, i)).order(ByteOrder.nativeOrder());
+            }
+        }
+        return new OffHeapIntSet(segments, numberOfBuckets);
+    }
+
+    private static long numberOfBuckets(long bytes) {
+        if (bytes < BUCKET_BYTES) {
+            throw new IllegalArgumentException("The table must hold at least one bucket of " + BUCKET_BYTES + " bytes");
+        }
+        return Long.highestOneBit(bytes / BUCKET_BYTES);
+    }
+
+    private static int numberOfSegments(long numberOfBuckets) {
+        return (int) ((numberOfBuckets * BUCKET_BYTES + SEGMENT_SIZE - 1) >>> SEGMENT_BITS);
+    }
+
+    private static long segmentBytes(long numberOfBuckets, int segment) {
+        return Math.min(SEGMENT_SIZE, numberOfBuckets * BUCKET_BYTES - (long) segment * SEGMENT_SIZE);
+    }
+
+    @Override
+    public boolean contains(int key) {
+        if (key == 0) {
+            return containsZero;
+        }
+        long hash = hash(key);
+        long bucketOffset = (hash & bucketMask) * BUCKET_BYTES;
+        ByteBuffer segment = segments[(int) (bucketOffset >>> SEGMENT_BITS)];
+        int start = (int) (bucketOffset & (SEGMENT_SIZE - 1));
+        if (segment.getInt(start) != generation) {
+            return false;
+        }
+        for (int offset = start + 4; offset < start + BUCKET_BYTES; offset += 4) {
+            int slot = segment.getInt(offset);
+            if (slot == key) {
+                return true;
+            } else if (slot == 0) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean add(int key) {
+        if (key == 0) {
+            boolean added = !containsZero;
+            containsZero = true;
+            return added;
+        }
+        long hash = hash(key);
+        long bucketOffset = (hash & bucketMask) * BUCKET_BYTES;
+        ByteBuffer segment = segments[(int) (bucketOffset >>> SEGMENT_BITS)];
+        int start = (int) (bucketOffset & (SEGMENT_SIZE - 1));
+        if (segment.getInt(start) != generation) {
+            // the keys of an older generation are dropped, as a lookup reads up to the first empty slot
+            segment.putInt(start, generation);
+            segment.putInt(start + 4, key);
+            for (int offset = start + 8; offset < start + BUCKET_BYTES; offset += 4) {
+                segment.putInt(offset, 0);
+            }
+            size++;
+            return true;
+        }
+        for (int offset = start + 4; offset < start + BUCKET_BYTES; offset += 4) {
+            int slot = segment.getInt(offset);
+            if (slot == key) {
+                return false;
+            } else if (slot == 0) {
+                segment.putInt(offset, key);
+                size++;
+                return true;
+            }
+        }
+
+        // the bucket is full, replace the key in a slot picked by the bits of the hash not used for the bucket
+        int victim = 1 + (int) ((hash >>> 40) % (BUCKET_SIZE - 1));
+        segment.putInt(start + victim * 4, key);
+        return true;
+    }
+
+    /**
+     * @return The number of keys in the set, which stops growing once keys start to be replaced.
+     */
+    @Override
+    public long size() {
+        return containsZero ? size + 1 : size;
+    }
+
+    @Override
+    public void clear() {
+        generation++;
+        if (generation == 0) {
+            // the generations have wrapped around, so buckets could be of the new generation, which is rare enough
+            // to write the whole table
+            for (ByteBuffer segment : segments) {
+                for (int offset = 0; offset < segment.capacity(); offset += 8) {
+                    segment.putLong(offset, 0);
+                }
+            }
+            generation = 1;
+        }
+        size = 0;
+        containsZero = false;
+    }
+
+    /**
+     * Spreads the bits of the key, as hash codes of sets of stacks are not uniform in their low bits.
+     */
+    private static long hash(int key) {
+        long h = (key & 0xFFFFFFFFL) * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 29);
+    }
+}
@@ -1,9 +1,5 @@
 package solution.helpers;
 
-import java.util.HashSet;
-import java.util.Set;
-import java.util.Stack;
-
 /**
  * The PartialScheduleHashGenerator class encapsulates the logic behind creating a unique hashcode to represent partial schedules.
  *
@@ -13,38 +9,39 @@ import java.util.Stack;
  */
 public class PartialScheduleHashGenerator {
 
-     /**
+    /**
      * Generates a hashcode that represents a partial schedule.
      * The hashcode is used to check whether we have explored an equivalent partial schedule.
-     * The hashcode is generated from the start times and which processor each task in scheduled on,
-     * which means it will be unique for each schedule in the solution space that have different overall finish times.
-     * @param startTimes startTimes[i] => start time of task i
+     * The hashcode is generated from the start times and which processor each task in scheduled on. The tasks of a
+     * processor are hashed as a set of (task, start time) pairs, and the processors as a set of those, so schedules
+     * that only differ in the numbering of their processors get the same hashcode. Each pair and each processor is
+     * mixed before it is added, so start times cannot be moved between tasks or processors without changing the
+     * hashcode.
+     * @param startTimes startTimes[i] => start time of task i, or -1 if it is not scheduled
      * @param scheduledOn scheduledOn[i] => the processor task i is scheduled on
      * @param numProcessors number of processors
      * @return hashcode representing partial solution
      */
     public static int generateHashCode(int[] startTimes, int[] scheduledOn, int numProcessors) {
-        //Each stack represents a processor
-        Set<Stack<Integer>> schedule = new HashSet<>();
-        Stack<Integer>[] stacks = new Stack[numProcessors];
-
-        for (int i = 0; i < stacks.length; i++) {
-            stacks[i] = new Stack<>();
-        }
-
-        //Add tasks ids and start times to the stack which represents the processor
-        for(int i = 0; i < startTimes.length; i++){
-            if(startTimes[i] != -1){
-                stacks[scheduledOn[i]].add(i);
-                stacks[scheduledOn[i]].add(startTimes[i]);
+        long[] processorHashes = new long[numProcessors];
+        for (int i = 0; i < startTimes.length; i++) {
+            if (startTimes[i] != -1) {
+                // the task is counted from 1, as task 0 at time 0 would otherwise mix to 0, like an empty processor
+                processorHashes[scheduledOn[i]] += mix(((long) (i + 1) << 32) | (startTimes[i] & 0xFFFFFFFFL));
             }
         }
 
-        // Add the stacks to a set.
-        for(Stack<Integer> stack : stacks) {
-            schedule.add(stack);
+        long hash = 0;
+        for (long processorHash : processorHashes) {
+            hash += mix(processorHash);
         }
+        return (int) (hash ^ (hash >>> 32));
+    }
 
-        return schedule.hashCode();
+    private static long mix(long h) {
+        h *= 0x9E3779B97F4A7C15L;
+        h ^= h >>> 31;
+        h *= 0xBF58476D1CE4E5B9L;
+        return h ^ (h >>> 29);
     }
-}
\ No newline at end of file
+}
@@ -6,139 +6,146 @@ import java.util.*;
 
 /**
  * This class calculates information needed for pruning and optimization in the Solution classes.
- * It contains methods for calculating B-Levels of nodes and node equivalence.
+ * It contains methods for calculating B-Levels of nodes and node equivalence. The topological order and levels are
+ * calculated by the TaskGraph itself, once, and shared between the heuristics and the solutions.
  */
 public class PreProcessor {
 
-
     /**
-     * This method is called by a client to calculate the B-levels of the nodes in the DAG
+     * This method is called by a client to get the B-levels of the nodes in the DAG. They are calculated once per
+     * task graph and cached on it, so the returned array must not be modified.
      *
      * @param taskGraph The task graph contains information about the DAG
      * @return an array of ints where index i is the B-Level of node i.
      */
     public static int[] maxLengthToExitNode(TaskGraph taskGraph){
-        int numberOfTasks = taskGraph.getNumberOfTasks();
-        int[] lengths = new int[numberOfTasks];
-
-        //For every node in the graph, call b-levels.
-        for(int node = 0; node < numberOfTasks; node++){
-            bLevels(node, lengths, taskGraph);
-        }
-
-        return lengths;
+        return taskGraph.getBLevels();
     }
 
-
     /**
-     * This method finds the B-Level of a node.
+     * This method, for every node, finds the set of nodes that are equivalent to it. Nodes are grouped by their
+     * signature, so every node is only looked at once.
      *
-     * @param node the node that we want to find the B-Level for.
-     * @param lengths the memoization table with the found B-Levels
      * @param taskGraph an object that contains information about the DAG
-     * @return
+     * @return an array of integer arraylists that for index i contains a list of nodes equivalent to node i.
      */
-    private static int bLevels(int node, int[] lengths, TaskGraph taskGraph){
-        //If the b-level of this node has already been calculated return it.
-        if(lengths[node] != 0){
-            return lengths[node];
+    public static ArrayList<Integer>[] getNodeEquivalence(TaskGraph taskGraph){
+        int numTasks = taskGraph.getNumberOfTasks();
+        ArrayList<Integer>[] equivalentNodesList = new ArrayList[numTasks];
+        Map<Signature, ArrayList<Integer>> equivalenceClasses = new HashMap<>();
+
+        for(int i = 0; i<numTasks; i++) {
+            //Nodes with the same signature share one list of equivalent nodes.
+            ArrayList<Integer> equivalentNodes = equivalenceClasses.computeIfAbsent(new Signature(i, taskGraph),
+                    signature -> new ArrayList<>());
+            equivalentNodes.add(i);
+            equivalentNodesList[i] = equivalentNodes;
         }
+        return equivalentNodesList;
+    }
+
+    /**
+     * The duration of a node along with its parents and children and the edge costs to them. Two nodes are
+     * equivalent if their signatures are equal.
+     */
+    private static class Signature {
+        private final int duration;
+        private final long[] parents; // sorted, each parent in the upper 32 bits and the edge cost in the lower
+        private final long[] children; // sorted, each child in the upper 32 bits and the edge cost in the lower
+        private final int hashCode;
+
+        private Signature(int node, TaskGraph taskGraph) {
+            duration = taskGraph.getDuration(node);
+
+            // the rows of the task graph are already sorted by task
+            int parentOffset = taskGraph.getParentOffsets()[node];
+            parents = new long[taskGraph.getNumberOfParents(node)];
+            for (int i = 0; i < parents.length; i++) {
+                parents[i] = ((long) taskGraph.getParents()[parentOffset + i] << 32)
+                        | taskGraph.getParentCommCosts()[parentOffset + i];
+            }
+
+            int childOffset = taskGraph.getChildOffsets()[node];
+            children = new long[taskGraph.getNumberOfChildren(node)];
+            for (int i = 0; i < children.length; i++) {
+                children[i] = ((long) taskGraph.getChildren()[childOffset + i] << 32)
+                        | taskGraph.getChildCommCosts()[childOffset + i];
+            }
 
-        //If the node does not have any children, then the B-Level is its duration.
-        List<Integer> childrenList  = taskGraph.getChildrenList(node);
-        if(childrenList.isEmpty()){
-            lengths[node] = taskGraph.getDuration(node);
-            return lengths[node];
+            hashCode = 31 * (31 * duration + Arrays.hashCode(parents)) + Arrays.hashCode(children);
         }
 
-        //If this node has children, then we must get the B-levels its children and use the max.
-        int maxLength = 0;
-        for(int child : childrenList){
-            maxLength = Math.max(maxLength, bLevels(child, lengths, taskGraph));
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Signature)) {
+                return false;
+            }
+            Signature other = (Signature) o;
+            return duration == other.duration && Arrays.equals(parents, other.parents)
+                    && Arrays.equals(children, other.children);
         }
 
-        lengths[node] = maxLength + taskGraph.getDuration(node);
-        return lengths[node];
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
     }
 
     /**
-     * This method, for every node, finds the set of nodes that are equivalent to it.
+     * This method finds an order of the tasks in which every task comes after all of its parents. The order is
+     * calculated once per task graph and cached on it, so the returned array must not be modified.
      *
      * @param taskGraph an object that contains information about the DAG
-     * @return an array of integer arraylists that for index i contains a list of nodes equivalent to node i.
+     * @return an array of ints containing every task once, in topological order.
      */
-    public static ArrayList<Integer>[] getNodeEquivalence(TaskGraph taskGraph){
-        HashSet<Integer> seen = new HashSet<>();
-        int numTasks = taskGraph.getNumberOfTasks();
-        ArrayList<Integer>[] equivalentNodesList = new ArrayList[numTasks];
+    public static int[] topologicalOrder(TaskGraph taskGraph) {
+        return taskGraph.getTopologicalOrder();
+    }
 
-        for(int i = 0; i<numTasks; i++) {
-            //If we have seen a task before, then we already know the list of nodes it is equivalent to it.
-            if (!seen.contains(i)) {
-                ArrayList<Integer> equivalentNodes = new ArrayList<>();
-                equivalentNodes.add(i);
-                //Go through all the tasks and check for equality
-                for (int j = 0; j < numTasks; j++) {
-                    //If we have seen this node before, then we can be sure that it is not equal.
-                    if (j != i && !seen.contains(j)) {
-                        boolean equivalent = compare(i, j, taskGraph);
-                        if (equivalent) {
-                            equivalentNodes.add(j);
-                        }
-                    }
-                }
-                //For the list of equivalent nodes to i, associate their corresponding index in equivalentNodesList with
-                //the equivalent nodes list.
-                for (int j = 0; j < equivalentNodes.size(); j++) {
-                    equivalentNodesList[equivalentNodes.get(j)] = equivalentNodes;
-                    seen.add(equivalentNodes.get(j));
-                }
+    /**
+     * This method finds the upward rank of every node: the length of the longest path from the node to an exit
+     * node, including communication costs.
+     *
+     * @param taskGraph an object that contains information about the DAG
+     * @return an array of ints where index i is the upward rank of node i.
+     */
+    public static int[] upwardRanks(TaskGraph taskGraph) {
+        int[] order = topologicalOrder(taskGraph);
+        int[] childOffsets = taskGraph.getChildOffsets();
+        int[] children = taskGraph.getChildren();
+        int[] childCommCosts = taskGraph.getChildCommCosts();
+        int[] ranks = new int[order.length];
+        for (int i = order.length - 1; i >= 0; i--) {
+            int task = order[i];
+            int maxChildRank = 0;
+            for (int j = childOffsets[task]; j < childOffsets[task + 1]; j++) {
+                maxChildRank = Math.max(maxChildRank, childCommCosts[j] + ranks[children[j]]);
             }
+            ranks[task] = taskGraph.getDuration(task) + maxChildRank;
         }
-        return equivalentNodesList;
+        return ranks;
     }
 
     /**
-     * This method checks if two nodes are equivalent.
+     * This method finds the downward rank of every node: the length of the longest path from an entry node to the
+     * node, including communication costs but excluding the duration of the node itself.
      *
-     * @param a first node that we are comparing
-     * @param b second node that we are comparing
      * @param taskGraph an object that contains information about the DAG
-     * @return
+     * @return an array of ints where index i is the downward rank of node i.
      */
-    private static boolean compare(int a, int b, TaskGraph taskGraph){
-        if(taskGraph.getDuration(a) != taskGraph.getDuration(b)) {
-            return false;
-        }
-
-        List<Integer> aParents = taskGraph.getParentsList(a);
-        List<Integer> bParents = taskGraph.getParentsList(b);
-        List<Integer> aChildren = taskGraph.getChildrenList(a);;
-        List<Integer> bChildren = taskGraph.getChildrenList(b);
-
-        // the two tasks are only equal if they have the same parents and children.
-        if((aParents.size() != bParents.size()) || (aChildren.size() != bChildren.size())){
-            return false;
-        }
-        Collections.sort(aParents);
-        Collections.sort(bParents);
-        for(int i = 0; i<aParents.size(); i++){
-            int aParent = aParents.get(i);
-            int bParent = bParents.get(i);
-            if((aParent != bParent) ||taskGraph.getCommCost(aParent, a) != taskGraph.getCommCost(bParent, b)){
-                return false;
+    public static int[] downwardRanks(TaskGraph taskGraph) {
+        int[] order = topologicalOrder(taskGraph);
+        int[] parentOffsets = taskGraph.getParentOffsets();
+        int[] parents = taskGraph.getParents();
+        int[] parentCommCosts = taskGraph.getParentCommCosts();
+        int[] ranks = new int[order.length];
+        for (int task : order) {
+            for (int i = parentOffsets[task]; i < parentOffsets[task + 1]; i++) {
+                int parent = parents[i];
+                ranks[task] = Math.max(ranks[task],
+                        ranks[parent] + taskGraph.getDuration(parent) + parentCommCosts[i]);
             }
         }
-        Collections.sort(aChildren);
-        Collections.sort(bChildren);
-        for(int i = 0; i<aChildren.size(); i++){
-            int aChild = aChildren.get(i);
-            int bChild= bChildren.get(i);
-            if( (aChild != bChild) || taskGraph.getCommCost(a, aChild) != taskGraph.getCommCost(b, bChild)){
-                return false;
-            }
-        }
-
-        return true;
+        return ranks;
     }
 }
@@ -0,0 +1,238 @@
+package solution.helpers;
+
+import data.Schedule;
+import data.Task;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps the optimal schedules found earlier in a directory, so scheduling the same graph again on the same number of
+ * processors, e.g. in a later run, a batch or the server, is a lookup instead of a search. Graphs are matched by their
+ * canonical graph, so a graph with other task ids or tasks in another order still finds its schedule, which is mapped
+ * back onto its own tasks.
+ *
+ * Each schedule is a file named by the fingerprint of the graph and the number of processors, holding the canonical
+ * graph, so a fingerprint shared by two graphs is a miss rather than a wrong schedule. Each file also holds the version
+ * of the scheduler that wrote it, and a file of an older version is deleted when it is read, so a schedule found
+ * before a fix to the search is found again rather than trusted. The most recently used entries are also kept in
+ * memory. The cache can be shared by threads and by processes, as each file is written to a temporary file first and
+ * then renamed.
+ */
+public class ResultCache {
+    private static final int MAGIC = 0x53434852; // "SCHR"
+    private static final int VERSION = 2;
+    // bumped whenever a change to the scheduler may make the schedules it found before wrong or not optimal
+    private static final int ENGINE_VERSION = 1;
+    private static final int MAX_ENTRIES_IN_MEMORY = 256;
+
+    private final File directory;
+    private final Map<String, CachedSchedule> entries = new LinkedHashMap<String, CachedSchedule>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedSchedule> eldest) {
+            return size() > MAX_ENTRIES_IN_MEMORY;
+        }
+    };
+
+    /**
+     * @param directory The directory of the cache, which is created if it does not exist.
+     * @throws IOException If the directory cannot be created.
+     */
+    public ResultCache(File directory) throws IOException {
+        this.directory = directory;
+        Files.createDirectories(directory.toPath());
+    }
+
+    /**
+     * @param canonicalGraph The canonical graph of the task graph.
+     * @param numProcessors The number of processors.
+     * @return An optimal schedule of the task graph found earlier, or null if there is none.
+     */
+    public Schedule get(CanonicalGraph canonicalGraph, int numProcessors) {
+        String key = getKey(canonicalGraph, numProcessors);
+        CachedSchedule entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+        }
+        if (entry == null) {
+            try {
+                entry = readEntry(new File(directory, key), canonicalGraph);
+            } catch (IOException e) {
+                // not cached yet, or e.g. a file of an older version, which is replaced once the graph is scheduled
+                return null;
+            }
+            synchronized (entries) {
+                entries.put(key, entry);
+            }
+        }
+        if (!entry.canonicalGraph.isSameGraph(canonicalGraph)) {
+            return null;
+        }
+
+        int[] durations = entry.canonicalGraph.getDurations();
+        Task[] tasks = new Task[durations.length];
+        for (int i = 0; i < durations.length; i++) {
+            tasks[canonicalGraph.getTask(i)] = new Task(entry.startTimes[i], entry.startTimes[i] + durations[i],
+                    entry.processors[i]);
+        }
+        return new Schedule(tasks, entry.finishTime);
+    }
+
+    /**
+     * Keeps an optimal schedule of the task graph. Errors writing the file are ignored, as the schedule is only lost
+     * from later runs.
+     * @param canonicalGraph The canonical graph of the task graph.
+     * @param numProcessors The number of processors.
+     * @param schedule An optimal schedule of the task graph.
+     */
+    public void put(CanonicalGraph canonicalGraph, int numProcessors, Schedule schedule) {
+        String key = getKey(canonicalGraph, numProcessors);
+        Task[] tasks = schedule.getTasks();
+        int numTasks = canonicalGraph.getNumberOfTasks();
+        int[] startTimes = new int[numTasks];
+        int[] processors = new int[numTasks];
+        for (int i = 0; i < numTasks; i++) {
+            Task task = tasks[canonicalGraph.getTask(i)];
+            startTimes[i] = task.getStartTime();
+            processors[i] = task.getProcessor();
+        }
+        CachedSchedule entry = new CachedSchedule(canonicalGraph, schedule.getFinishTime(), startTimes, processors);
+        synchronized (entries) {
+            entries.put(key, entry);
+        }
+
+        try {
+            writeEntry(new File(directory, key).toPath(), entry);
+        } catch (IOException e) {
+            System.err.println("Could not write to the result cache: " + e.getMessage());
+        }
+    }
+
+    private static String getKey(CanonicalGraph canonicalGraph, int numProcessors) {
+        return String.format("%016x-%d", canonicalGraph.getFingerprint(), numProcessors);
+    }
+
+    /**
+     * @param canonicalGraph The canonical graph looked up, whose size the file must have.
+     */
+    private static CachedSchedule readEntry(File file, CanonicalGraph canonicalGraph) throws IOException {
+        int engineVersion;
+        try (InputStream stream = Files.newInputStream(file.toPath());
+             DataInputStream in = new DataInputStream(new BufferedInputStream(stream))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Not a result cache file: " + file);
+            }
+            engineVersion = in.readInt();
+            if (engineVersion == ENGINE_VERSION) {
+                return readEntry(in, file, canonicalGraph);
+            }
+        } catch (EOFException e) {
+            throw new IOException("Result cache file is truncated: " + file);
+        }
+
+        // deleted once it is closed, while a newer scheduler sharing the cache keeps its files
+        if (engineVersion < ENGINE_VERSION) {
+            Files.deleteIfExists(file.toPath());
+        }
+        throw new IOException("Result cache file is of another version of the scheduler: " + file);
+    }
+
+    /**
+     * @param in The file after its header.
+     */
+    private static CachedSchedule readEntry(DataInputStream in, File file, CanonicalGraph canonicalGraph)
+            throws IOException {
+        int numTasks = in.readInt();
+        int numEdges = in.readInt();
+        if (numTasks != canonicalGraph.getNumberOfTasks()
+                || numEdges != canonicalGraph.getChildren().length) {
+            throw new IOException("Result cache file is of another graph: " + file);
+        }
+        int[] durations = readInts(in, numTasks);
+        int[] childOffsets = readInts(in, numTasks + 1);
+        long[] children = new long[numEdges];
+        for (int i = 0; i < numEdges; i++) {
+            children[i] = in.readLong();
+        }
+        int finishTime = in.readInt();
+        int[] startTimes = readInts(in, numTasks);
+        int[] processors = readInts(in, numTasks);
+        return new CachedSchedule(CanonicalGraph.fromArrays(durations, childOffsets, children), finishTime, startTimes,
+                processors);
+    }
+
+    private static int[] readInts(DataInputStream in, int length) throws IOException {
+        int[] values = new int[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = in.readInt();
+        }
+        return values;
+    }
+
+    private void writeEntry(Path path, CachedSchedule entry) throws IOException {
+        Path temporary = Files.createTempFile(directory.toPath(), path.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream stream = Files.newOutputStream(temporary);
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream))) {
+                int[] durations = entry.canonicalGraph.getDurations();
+                long[] children = entry.canonicalGraph.getChildren();
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(ENGINE_VERSION);
+                out.writeInt(durations.length);
+                out.writeInt(children.length);
+                writeInts(out, durations);
+                writeInts(out, entry.canonicalGraph.getChildOffsets());
+                for (long child : children) {
+                    out.writeLong(child);
+                }
+                out.writeInt(entry.finishTime);
+                writeInts(out, entry.startTimes);
+                writeInts(out, entry.processors);
+            }
+            try {
+                Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private static void writeInts(DataOutputStream out, int[] values) throws IOException {
+        for (int value : values) {
+            out.writeInt(value);
+        }
+    }
+
+    /**
+     * A schedule of a canonical graph, with the tasks by their position in it.
+     */
+    private static class CachedSchedule {
+        private final CanonicalGraph canonicalGraph;
+        private final int finishTime;
+        private final int[] startTimes;
+        private final int[] processors;
+
+        private CachedSchedule(CanonicalGraph canonicalGraph, int finishTime, int[] startTimes, int[] processors) {
+            this.canonicalGraph = canonicalGraph;
+            this.finishTime = finishTime;
+            this.startTimes = startTimes;
+            this.processors = processors;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package solution.helpers;
+
+import data.Schedule;
+import data.Task;
+import data.TaskGraph;
+
+import java.util.PriorityQueue;
+
+/**
+ * Turns a schedule of an earlier version of a task graph, e.g. before a weight was changed or an edge was added, into
+ * a valid schedule of the task graph, which is usually close to optimal as most of the graph is the same.
+ *
+ * The tasks are scheduled in a topological order that follows their previous start times, each on its previous
+ * processor as early as possible after the tasks before it. New tasks are ordered by their t-level, and put on the
+ * processor where they start earliest. If nothing has changed, every task starts no later than before, so the
+ * finish time does not increase.
+ */
+public class ScheduleRepair {
+    public static final int NEW_TASK = -1; // the previous start time and processor of a task that is new
+
+    /**
+     * @param taskGraph The task graph.
+     * @param numProcessors The number of processors.
+     * @param previousStartTimes previousStartTimes[i] => the start time of task i in the previous schedule, or
+     *                           NEW_TASK.
+     * @param previousProcessors previousProcessors[i] => the processor of task i in the previous schedule, or
+     *                           NEW_TASK.
+     * @return A valid schedule of the task graph.
+     */
+    public static Schedule repair(TaskGraph taskGraph, int numProcessors, int[] previousStartTimes,
+                                  int[] previousProcessors) {
+        int numTasks = taskGraph.getNumberOfTasks();
+        int[] parentOffsets = taskGraph.getParentOffsets();
+        int[] parents = taskGraph.getParents();
+        int[] parentCommCosts = taskGraph.getParentCommCosts();
+        int[] tLevels = taskGraph.getTLevels();
+        int[] priorities = new int[numTasks];
+        for (int task = 0; task < numTasks; task++) {
+            priorities[task] = previousStartTimes[task] == NEW_TASK ? tLevels[task] : previousStartTimes[task];
+        }
+
+        // of two tasks that started at the same time, one of no duration went first, as it did not hold the processor
+        int[] inDegrees = taskGraph.getInDegrees().clone();
+        PriorityQueue<Integer> candidates = new PriorityQueue<>((a, b) -> {
+            if (priorities[a] != priorities[b]) {
+                return Integer.compare(priorities[a], priorities[b]);
+            }
+            int durationA = taskGraph.getDuration(a);
+            int durationB = taskGraph.getDuration(b);
+            return durationA != durationB ? Integer.compare(durationA, durationB) : a - b;
+        });
+        for (int task = 0; task < numTasks; task++) {
+            if (inDegrees[task] == 0) {
+                candidates.add(task);
+            }
+        }
+
+        Task[] tasks = new Task[numTasks];
+        int[] processorFinishTimes = new int[numProcessors];
+        int finishTime = 0;
+        while (!candidates.isEmpty()) {
+            int task = candidates.poll();
+            int bestProcessor = -1;
+            int bestStartTime = Integer.MAX_VALUE;
+            for (int processor = 0; processor < numProcessors; processor++) {
+                if (previousProcessors[task] >= 0 && previousProcessors[task] < numProcessors
+                        && processor != previousProcessors[task]) {
+                    continue;
+                }
+                int startTime = processorFinishTimes[processor];
+                for (int i = parentOffsets[task]; i < parentOffsets[task + 1]; i++) {
+                    Task parent = tasks[parents[i]];
+                    int dataArrival = parent.getFinishTime()
+                            + (parent.getProcessor() != processor ? parentCommCosts[i] : 0);
+                    startTime = Math.max(startTime, dataArrival);
+                }
+                if (startTime < bestStartTime) {
+                    bestStartTime = startTime;
+                    bestProcessor = processor;
+                }
+            }
+
+            tasks[task] = new Task(bestStartTime, bestStartTime + taskGraph.getDuration(task), bestProcessor);
+            processorFinishTimes[bestProcessor] = tasks[task].getFinishTime();
+            finishTime = Math.max(finishTime, tasks[task].getFinishTime());
+            for (int child : taskGraph.getChildrenList(task)) {
+                inDegrees[child]--;
+                if (inDegrees[child] == 0) {
+                    candidates.add(child);
+                }
+            }
+        }
+        return new Schedule(tasks, finishTime);
+    }
+}
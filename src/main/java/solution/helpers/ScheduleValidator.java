@@ -0,0 +1,111 @@
+package solution.helpers;
+
+import data.Schedule;
+import data.Task;
+import data.TaskGraph;
+
+import java.util.Arrays;
+import java.util.function.IntFunction;
+
+/**
+ * Checks that a schedule from outside the scheduler, e.g. a file given by the user, is a valid schedule of a task
+ * graph, so it can be trusted as the initial schedule of the search.
+ *
+ * The dependencies are checked in one pass over the edges, and the tasks are grouped by processor in one pass. Only
+ * sorting the tasks of each processor by start time, to check that they do not overlap, is not linear.
+ */
+public class ScheduleValidator {
+
+    /**
+     * @param taskGraph The task graph.
+     * @param numProcessors The number of processors.
+     * @param schedule The schedule, with a task for every task of the graph.
+     * @return Why the schedule is not valid, or null if it is valid.
+     */
+    public static String findError(TaskGraph taskGraph, int numProcessors, Schedule schedule) {
+        return findError(taskGraph, numProcessors, schedule, Integer::toString);
+    }
+
+    /**
+     * @param taskGraph The task graph.
+     * @param numProcessors The number of processors.
+     * @param schedule The schedule, with a task for every task of the graph.
+     * @param taskIds The id of each task, e.g. in the dot file, used in the error.
+     * @return Why the schedule is not valid, or null if it is valid.
+     */
+    public static String findError(TaskGraph taskGraph, int numProcessors, Schedule schedule,
+                                   IntFunction<String> taskIds) {
+        int numTasks = taskGraph.getNumberOfTasks();
+        Task[] tasks = schedule.getTasks();
+        if (tasks.length != numTasks) {
+            return "the schedule has " + tasks.length + " tasks, the graph has " + numTasks;
+        }
+
+        int finishTime = 0;
+        for (int task = 0; task < numTasks; task++) {
+            Task scheduled = tasks[task];
+            if (scheduled == null) {
+                return "task " + taskIds.apply(task) + " is not scheduled";
+            }
+            if (scheduled.getProcessor() < 0 || scheduled.getProcessor() >= numProcessors) {
+                return "task " + taskIds.apply(task) + " is on processor " + (scheduled.getProcessor() + 1) + " of " +
+                        numProcessors;
+            }
+            if (scheduled.getStartTime() < 0
+                    || scheduled.getFinishTime() - scheduled.getStartTime() != taskGraph.getDuration(task)) {
+                return "task " + taskIds.apply(task) + " does not take its Weight of " + taskGraph.getDuration(task);
+            }
+            finishTime = Math.max(finishTime, scheduled.getFinishTime());
+        }
+        if (finishTime != schedule.getFinishTime()) {
+            return "the finish time is " + schedule.getFinishTime() + " instead of " + finishTime;
+        }
+
+        int[] childOffsets = taskGraph.getChildOffsets();
+        int[] children = taskGraph.getChildren();
+        int[] childCommCosts = taskGraph.getChildCommCosts();
+        for (int parent = 0; parent < numTasks; parent++) {
+            for (int i = childOffsets[parent]; i < childOffsets[parent + 1]; i++) {
+                int child = children[i];
+                int dataArrival = tasks[parent].getFinishTime()
+                        + (tasks[parent].getProcessor() != tasks[child].getProcessor() ? childCommCosts[i] : 0);
+                if (tasks[child].getStartTime() < dataArrival) {
+                    return "task " + taskIds.apply(child) + " starts before the data from task " + taskIds.apply(parent)
+                            + " arrives";
+                }
+            }
+        }
+
+        // group the tasks by processor, each with its start time in the upper 32 bits and the task in the lower
+        int[] processorOffsets = new int[numProcessors + 1];
+        for (Task scheduled : tasks) {
+            processorOffsets[scheduled.getProcessor() + 1]++;
+        }
+        for (int processor = 0; processor < numProcessors; processor++) {
+            processorOffsets[processor + 1] += processorOffsets[processor];
+        }
+        int[] nextSlots = Arrays.copyOf(processorOffsets, numProcessors);
+        long[] slots = new long[numTasks];
+        for (int task = 0; task < numTasks; task++) {
+            slots[nextSlots[tasks[task].getProcessor()]++] = ((long) tasks[task].getStartTime() << 32) | task;
+        }
+
+        // a task of no duration cannot overlap another
+        for (int processor = 0; processor < numProcessors; processor++) {
+            Arrays.sort(slots, processorOffsets[processor], processorOffsets[processor + 1]);
+            int previousFinishTime = 0;
+            for (int i = processorOffsets[processor]; i < processorOffsets[processor + 1]; i++) {
+                Task scheduled = tasks[(int) slots[i]];
+                if (scheduled.getStartTime() == scheduled.getFinishTime()) {
+                    continue;
+                }
+                if (scheduled.getStartTime() < previousFinishTime) {
+                    return "two tasks overlap on processor " + (processor + 1) + " at time " +
+                            scheduled.getStartTime();
+                }
+                previousFinishTime = scheduled.getFinishTime();
+            }
+        }
+        return null;
+    }
+}
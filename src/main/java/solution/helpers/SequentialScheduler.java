@@ -3,8 +3,6 @@ package solution.helpers;
 import data.Schedule;
 import data.Task;
 import data.TaskGraph;
-import java.util.LinkedList;
-import java.util.Queue;
 
 /**
  * This is a scheduler only used when there is one processor. In
@@ -28,35 +26,14 @@ public class SequentialScheduler {
         int numTasks = taskGraph.getNumberOfTasks();
         int finishTime = 0;
         Task[] tasks = new Task[numTasks];
-        int[] inDegrees = new int[numTasks];
-        Queue<Integer> candidateTasks = new LinkedList<>();
 
-        // initialize all the inDegrees of the tasks and put them
-        // as a candidate if they have don't have any dependencies.
-        for (int task = 0; task < numTasks; task++) {
-            int inDegree = taskGraph.getParentsList(task).size();
-            if (inDegree == 0) {
-                candidateTasks.add(task);
-            }
-            inDegrees[task] = inDegree;
-        }
-
-        while (!candidateTasks.isEmpty()) {
-            int task = candidateTasks.poll();
+        // tasks in topological order can run one after another, as their parents always come first.
+        for (int task : taskGraph.getTopologicalOrder()) {
             // the task will start at the finish time of the previous task.
             int startTime = finishTime;
             // update the finish time to include the scheduled task.
             finishTime += taskGraph.getDuration(task);
             tasks[task] = new Task(startTime, finishTime, 0);
-
-            // since this task is done, its children would
-            // no longer have this dependency
-            for (int child: taskGraph.getChildrenList(task)) {
-                inDegrees[child]--;
-                if (inDegrees[child] == 0) {
-                    candidateTasks.add(child);
-                }
-            }
         }
 
         return new Schedule(tasks, finishTime);
@@ -0,0 +1,75 @@
+package solution.helpers.heuristics;
+
+import data.Schedule;
+import data.TaskGraph;
+import solution.helpers.PreProcessor;
+
+import java.util.PriorityQueue;
+
+/**
+ * CPOP (Critical Path On a Processor) heuristic. The priority of a task is the sum of its upward and downward ranks,
+ * and tasks with the largest priority lie on the critical path. All critical path tasks are placed on the same
+ * processor, and every other task is placed with insertion on the processor where it finishes the earliest.
+ */
+public class CpopHeuristic implements Heuristic {
+
+    @Override
+    public String getName() {
+        return "CPOP";
+    }
+
+    @Override
+    public Schedule run(TaskGraph taskGraph, int numProcessors) {
+        int n = taskGraph.getNumberOfTasks();
+        int[] childOffsets = taskGraph.getChildOffsets();
+        int[] children = taskGraph.getChildren();
+        int[] upwardRanks = PreProcessor.upwardRanks(taskGraph);
+        int[] downwardRanks = PreProcessor.downwardRanks(taskGraph);
+        int[] priorities = new int[n];
+        int criticalPathLength = 0;
+        for (int i = 0; i < n; i++) {
+            priorities[i] = upwardRanks[i] + downwardRanks[i];
+            criticalPathLength = Math.max(criticalPathLength, priorities[i]);
+        }
+
+        ScheduleBuilder builder = new ScheduleBuilder(taskGraph, numProcessors);
+        // processors are identical, so any processor can hold the critical path
+        int criticalPathProcessor = 0;
+
+        PriorityQueue<Integer> candidates = new PriorityQueue<>((a, b) ->
+                priorities[a] != priorities[b] ? Integer.compare(priorities[b], priorities[a]) : Integer.compare(a, b));
+        int[] inDegrees = taskGraph.getInDegrees().clone();
+        for (int i = 0; i < n; i++) {
+            if (inDegrees[i] == 0) {
+                candidates.add(i);
+            }
+        }
+
+        while (!candidates.isEmpty()) {
+            int task = candidates.poll();
+
+            int bestProcessor = criticalPathProcessor;
+            int bestStartTime = builder.earliestStartTime(task, criticalPathProcessor, true);
+            if (priorities[task] != criticalPathLength) {
+                for (int processor = 0; processor < numProcessors; processor++) {
+                    int startTime = builder.earliestStartTime(task, processor, true);
+                    if (startTime < bestStartTime) {
+                        bestStartTime = startTime;
+                        bestProcessor = processor;
+                    }
+                }
+            }
+            builder.schedule(task, bestProcessor, bestStartTime);
+
+            for (int i = childOffsets[task]; i < childOffsets[task + 1]; i++) {
+                int child = children[i];
+                inDegrees[child]--;
+                if (inDegrees[child] == 0) {
+                    candidates.add(child);
+                }
+            }
+        }
+
+        return builder.build();
+    }
+}
@@ -0,0 +1,87 @@
+package solution.helpers.heuristics;
+
+import data.Schedule;
+import data.TaskGraph;
+import solution.helpers.PreProcessor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * List scheduling heuristic which, at every step, considers all pairs of a free task and a processor and schedules
+ * the best pair. This is more expensive than a static priority list but adapts to the partial schedule.
+ *
+ * ETF (Earliest Task First) picks the pair with the earliest start time, breaking ties by the larger B-level.
+ * DLS (Dynamic Level Scheduling) picks the pair with the largest dynamic level: B-level minus earliest start time.
+ */
+public class DynamicListHeuristic implements Heuristic {
+    private final boolean dynamicLevel;
+
+    /**
+     * @param dynamicLevel true for DLS, false for ETF.
+     */
+    public DynamicListHeuristic(boolean dynamicLevel) {
+        this.dynamicLevel = dynamicLevel;
+    }
+
+    @Override
+    public String getName() {
+        return dynamicLevel ? "DLS" : "ETF";
+    }
+
+    @Override
+    public Schedule run(TaskGraph taskGraph, int numProcessors) {
+        int n = taskGraph.getNumberOfTasks();
+        int[] childOffsets = taskGraph.getChildOffsets();
+        int[] children = taskGraph.getChildren();
+        int[] bLevels = PreProcessor.maxLengthToExitNode(taskGraph);
+        ScheduleBuilder builder = new ScheduleBuilder(taskGraph, numProcessors);
+
+        List<Integer> candidates = new ArrayList<>();
+        int[] inDegrees = taskGraph.getInDegrees().clone();
+        for (int i = 0; i < n; i++) {
+            if (inDegrees[i] == 0) {
+                candidates.add(i);
+            }
+        }
+
+        while (!candidates.isEmpty()) {
+            int bestIndex = -1;
+            int bestProcessor = -1;
+            int bestStartTime = Integer.MAX_VALUE;
+            int bestLevel = Integer.MIN_VALUE;
+            for (int i = 0; i < candidates.size(); i++) {
+                int task = candidates.get(i);
+                for (int processor = 0; processor < numProcessors; processor++) {
+                    int startTime = builder.earliestStartTime(task, processor, false);
+                    boolean better;
+                    if (dynamicLevel) {
+                        better = bLevels[task] - startTime > bestLevel;
+                    } else {
+                        better = startTime < bestStartTime
+                                || (startTime == bestStartTime && bLevels[task] > bLevels[candidates.get(bestIndex)]);
+                    }
+                    if (better) {
+                        bestIndex = i;
+                        bestProcessor = processor;
+                        bestStartTime = startTime;
+                        bestLevel = bLevels[task] - startTime;
+                    }
+                }
+            }
+
+            int task = candidates.remove(bestIndex);
+            builder.schedule(task, bestProcessor, bestStartTime);
+
+            for (int i = childOffsets[task]; i < childOffsets[task + 1]; i++) {
+                int child = children[i];
+                inDegrees[child]--;
+                if (inDegrees[child] == 0) {
+                    candidates.add(child);
+                }
+            }
+        }
+
+        return builder.build();
+    }
+}
@@ -0,0 +1,32 @@
+package solution.helpers.heuristics;
+
+import data.Schedule;
+import data.TaskGraph;
+
+/**
+ * A heuristic that quickly creates a valid, but not necessarily optimal, schedule. The best schedule from a set of
+ * heuristics is used as the initial bound of the exact search.
+ */
+public interface Heuristic {
+
+    /**
+     * @return The name of the heuristic, used when reporting results.
+     */
+    String getName();
+
+    /**
+     * Creates a valid schedule of the tasks.
+     * @param taskGraph object that encapsulates tasks and their dependencies.
+     * @param numProcessors Number of processors.
+     * @return a valid schedule.
+     */
+    Schedule run(TaskGraph taskGraph, int numProcessors);
+
+    /**
+     * @return Whether the heuristic runs in near linear time in the size of the graph, so it can be used on very
+     * large graphs.
+     */
+    default boolean isNearLinear() {
+        return false;
+    }
+}
@@ -0,0 +1,44 @@
+package solution.helpers.heuristics;
+
+import data.Schedule;
+
+/**
+ * The schedule created by a heuristic and how long the heuristic took to create it.
+ */
+public class HeuristicResult {
+    private final String name;
+    private final Schedule schedule;
+    private final long runTime;
+
+    /**
+     * @param name The name of the heuristic.
+     * @param schedule The schedule created by the heuristic.
+     * @param runTime The time the heuristic took in nanoseconds.
+     */
+    public HeuristicResult(String name, Schedule schedule, long runTime) {
+        this.name = name;
+        this.schedule = schedule;
+        this.runTime = runTime;
+    }
+
+    /**
+     * @return The name of the heuristic.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return The schedule created by the heuristic.
+     */
+    public Schedule getSchedule() {
+        return schedule;
+    }
+
+    /**
+     * @return The time the heuristic took in nanoseconds.
+     */
+    public long getRunTime() {
+        return runTime;
+    }
+}
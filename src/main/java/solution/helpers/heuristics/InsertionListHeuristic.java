@@ -0,0 +1,76 @@
+package solution.helpers.heuristics;
+
+import data.Schedule;
+import data.TaskGraph;
+
+import java.util.PriorityQueue;
+import java.util.function.Function;
+
+/**
+ * Insertion based list scheduling heuristic. Free tasks are taken highest priority first, and each one is placed on
+ * the processor where it finishes the earliest, possibly in an idle gap between tasks already on that processor.
+ * With upward ranks as the priority this is HEFT (Heterogeneous Earliest Finish Time) on identical processors.
+ */
+public class InsertionListHeuristic implements Heuristic {
+    private final String name;
+    private final Function<TaskGraph, int[]> priorityFunction;
+
+    /**
+     * @param name The name of the heuristic.
+     * @param priorityFunction calculates the priority of each task from the task graph, higher is scheduled first.
+     */
+    public InsertionListHeuristic(String name, Function<TaskGraph, int[]> priorityFunction) {
+        this.name = name;
+        this.priorityFunction = priorityFunction;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Schedule run(TaskGraph taskGraph, int numProcessors) {
+        int n = taskGraph.getNumberOfTasks();
+        int[] childOffsets = taskGraph.getChildOffsets();
+        int[] children = taskGraph.getChildren();
+        int[] priorities = priorityFunction.apply(taskGraph);
+        ScheduleBuilder builder = new ScheduleBuilder(taskGraph, numProcessors);
+
+        // highest priority first, ties broken by task index so the result is deterministic
+        PriorityQueue<Integer> candidates = new PriorityQueue<>((a, b) ->
+                priorities[a] != priorities[b] ? Integer.compare(priorities[b], priorities[a]) : Integer.compare(a, b));
+        int[] inDegrees = taskGraph.getInDegrees().clone();
+        for (int i = 0; i < n; i++) {
+            if (inDegrees[i] == 0) {
+                candidates.add(i);
+            }
+        }
+
+        while (!candidates.isEmpty()) {
+            int task = candidates.poll();
+
+            // all processors are identical, so the earliest finish time is on the processor with the earliest start
+            int bestProcessor = 0;
+            int bestStartTime = builder.earliestStartTime(task, 0, true);
+            for (int processor = 1; processor < numProcessors; processor++) {
+                int startTime = builder.earliestStartTime(task, processor, true);
+                if (startTime < bestStartTime) {
+                    bestStartTime = startTime;
+                    bestProcessor = processor;
+                }
+            }
+            builder.schedule(task, bestProcessor, bestStartTime);
+
+            for (int i = childOffsets[task]; i < childOffsets[task + 1]; i++) {
+                int child = children[i];
+                inDegrees[child]--;
+                if (inDegrees[child] == 0) {
+                    candidates.add(child);
+                }
+            }
+        }
+
+        return builder.build();
+    }
+}
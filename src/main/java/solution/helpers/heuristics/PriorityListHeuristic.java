@@ -0,0 +1,149 @@
+package solution.helpers.heuristics;
+
+import data.Schedule;
+import data.Task;
+import data.TaskGraph;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.function.Function;
+
+/**
+ * List scheduling heuristic which takes free tasks in order of a priority, and appends each one to the processor
+ * where it can start the earliest. Without a priority, free tasks are taken in the order they become free.
+ */
+public class PriorityListHeuristic implements Heuristic {
+    private final String name;
+    private final Function<TaskGraph, int[]> priorityFunction;
+    private final boolean reversed;
+
+    /**
+     * @param name The name of the heuristic.
+     * @param priorityFunction calculates the priority of each task from the task graph, null for first in first out.
+     * @param reversed whether tasks with a higher priority value are taken first.
+     */
+    public PriorityListHeuristic(String name, Function<TaskGraph, int[]> priorityFunction, boolean reversed) {
+        this.name = name;
+        this.priorityFunction = priorityFunction;
+        this.reversed = reversed;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Main method of the algorithm which schedules tasks on parallel processors.
+     * The earliest start time of a task on each processor is calculated only when the task is scheduled, from the
+     * finish times of its parents and of the processors. This takes O(e + n * P) time and O(n + P) memory, where
+     * n is the number of tasks, e is the number of edges and P is the number of processors.
+     * @param taskGraph object that encapsulates tasks and their dependencies.
+     * @param numProcessors Number of processors.
+     * @return List of scheduled tasks.
+     */
+    @Override
+    public Schedule run(TaskGraph taskGraph, int numProcessors) {
+        int reverse = reversed ? -1 : 1;
+
+        int n = taskGraph.getNumberOfTasks();
+        int[] parentOffsets = taskGraph.getParentOffsets();
+        int[] parents = taskGraph.getParents();
+        int[] parentCommCosts = taskGraph.getParentCommCosts();
+        int[] childOffsets = taskGraph.getChildOffsets();
+        int[] children = taskGraph.getChildren();
+        int finalFinishTime = 0;
+        Task[] output = new Task[n];
+        int[] finishTimes = new int[n]; // finishTimes[i] => finish time of task i
+        int[] scheduledOn = new int[n]; // scheduledOn[i] => the processor task i is scheduled on
+        int[] processorFinishTimes = new int[numProcessors];
+        // localDataArrival[i] => latest finish time of a parent on processor i, for the task being scheduled
+        int[] localDataArrival = new int[numProcessors];
+
+        // scheduleCandidates contains all possible tasks which are able to be scheduled
+        Queue<Integer> scheduleCandidates;
+        if (priorityFunction == null) {
+            scheduleCandidates = new ArrayDeque<>();
+        } else {
+            int[] nodePriorities = priorityFunction.apply(taskGraph);
+            scheduleCandidates = new PriorityQueue<>(Comparator.comparingInt(a -> reverse * nodePriorities[a]));
+        }
+
+        // Set up the number of parents (in-degrees) of each task. If a task has no parent, then
+        // we add it to the scheduleCandidates queue.
+        int[] inDegrees = taskGraph.getInDegrees().clone();
+        for (int i = 0; i < n; i++) {
+            if (inDegrees[i] == 0) {
+                scheduleCandidates.add(i);
+            }
+        }
+
+        // repeat until all tasks have been scheduled (and a viable solution is found)
+        while (!scheduleCandidates.isEmpty()) {
+            // find a node with in degree 0
+            int candidate = scheduleCandidates.poll();
+
+            // Find the latest data arrival from a parent on another processor. Only the two largest arrivals coming
+            // from different processors are needed, as a parent's data is free on its own processor.
+            int maxDataArrival = 0;
+            int processorCausingMaxDataArrival = -1;
+            int secondMaxDataArrival = 0;
+            Arrays.fill(localDataArrival, 0);
+            for (int i = parentOffsets[candidate]; i < parentOffsets[candidate + 1]; i++) {
+                int parent = parents[i];
+                int parentProcessor = scheduledOn[parent];
+                int dataArrival = finishTimes[parent] + parentCommCosts[i];
+                localDataArrival[parentProcessor] = Math.max(localDataArrival[parentProcessor], finishTimes[parent]);
+                if (dataArrival > maxDataArrival) {
+                    if (parentProcessor != processorCausingMaxDataArrival) {
+                        secondMaxDataArrival = maxDataArrival;
+                    }
+                    maxDataArrival = dataArrival;
+                    processorCausingMaxDataArrival = parentProcessor;
+                } else if (dataArrival > secondMaxDataArrival && parentProcessor != processorCausingMaxDataArrival) {
+                    secondMaxDataArrival = dataArrival;
+                }
+            }
+
+            // Choose processor to schedule task on
+            int minStartTime = Integer.MAX_VALUE;
+            int minProcessor = 0;
+            for (int i = 0; i < numProcessors; i++) {
+                int remoteDataArrival = i == processorCausingMaxDataArrival ? secondMaxDataArrival : maxDataArrival;
+                int currStartTime = Math.max(processorFinishTimes[i], Math.max(remoteDataArrival, localDataArrival[i]));
+                if (currStartTime < minStartTime) {
+                    minStartTime = currStartTime;
+                    minProcessor = i;
+                }
+            }
+
+            // schedule task
+            int finishTime = minStartTime + taskGraph.getDuration(candidate);
+            finalFinishTime = Math.max(finalFinishTime, finishTime);
+            finishTimes[candidate] = finishTime;
+            scheduledOn[candidate] = minProcessor;
+            processorFinishTimes[minProcessor] = finishTime;
+
+            output[candidate] = new Task(minStartTime, finishTime, minProcessor);
+
+            for (int i = childOffsets[candidate]; i < childOffsets[candidate + 1]; i++) {
+                int child = children[i];
+                // Decrement in-degree count of child and see if it can be a candidate
+                inDegrees[child]--;
+                if (inDegrees[child] == 0) {
+                    scheduleCandidates.add(child);
+                }
+            }
+        }
+
+        return new Schedule(output, finalFinishTime);
+    }
+
+    @Override
+    public boolean isNearLinear() {
+        return true;
+    }
+}
@@ -0,0 +1,110 @@
+package solution.helpers.heuristics;
+
+import data.Schedule;
+import data.Task;
+import data.TaskGraph;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps track of a partial schedule while a heuristic places tasks one at a time. Supports both appending a task
+ * after the last task of a processor, and inserting it into an idle gap between tasks already on the processor.
+ */
+class ScheduleBuilder {
+    private final TaskGraph taskGraph;
+    private final int[] startTimes; // startTimes[i] => start time of task i
+    private final int[] scheduledOn; // scheduledOn[i] => the processor task i is scheduled on, -1 if unscheduled
+    private final int[] processorFinishTimes; // processorFinishTimes[i] => finish time of the last task on processor i
+    private final List<int[]>[] processorSlots; // processorSlots[i] => {start, finish} of the tasks on processor i, sorted
+    private int finishTime = 0;
+
+    ScheduleBuilder(TaskGraph taskGraph, int numProcessors) {
+        this.taskGraph = taskGraph;
+        int n = taskGraph.getNumberOfTasks();
+        startTimes = new int[n];
+        scheduledOn = new int[n];
+        for (int i = 0; i < n; i++) {
+            scheduledOn[i] = -1;
+        }
+        processorFinishTimes = new int[numProcessors];
+        @SuppressWarnings("unchecked")
+        List<int[]>[] slots = (List<int[]>[]) new List<?>[numProcessors];
+        processorSlots = slots;
+        for (int i = 0; i < numProcessors; i++) {
+            processorSlots[i] = new ArrayList<>();
+        }
+    }
+
+    /**
+     * @return the time at which data from all parents of the task is available on the processor.
+     */
+    int dataReadyTime(int task, int processor) {
+        int dataReadyTime = 0;
+        int[] parentOffsets = taskGraph.getParentOffsets();
+        int[] parents = taskGraph.getParents();
+        int[] parentCommCosts = taskGraph.getParentCommCosts();
+        for (int i = parentOffsets[task]; i < parentOffsets[task + 1]; i++) {
+            int parent = parents[i];
+            int dataArrival = startTimes[parent] + taskGraph.getDuration(parent);
+            if (scheduledOn[parent] != processor) {
+                dataArrival += parentCommCosts[i];
+            }
+            dataReadyTime = Math.max(dataReadyTime, dataArrival);
+        }
+        return dataReadyTime;
+    }
+
+    /**
+     * Finds the earliest time the task can start on the processor. All parents of the task must be scheduled.
+     * @param insertion whether the task may be placed in an idle gap between tasks already on the processor.
+     */
+    int earliestStartTime(int task, int processor, boolean insertion) {
+        int dataReadyTime = dataReadyTime(task, processor);
+        if (!insertion) {
+            return Math.max(dataReadyTime, processorFinishTimes[processor]);
+        }
+
+        int duration = taskGraph.getDuration(task);
+        int previousFinishTime = 0;
+        for (int[] slot : processorSlots[processor]) {
+            int startTime = Math.max(previousFinishTime, dataReadyTime);
+            if (startTime + duration <= slot[0]) {
+                return startTime;
+            }
+            previousFinishTime = Math.max(previousFinishTime, slot[1]);
+        }
+        return Math.max(previousFinishTime, dataReadyTime);
+    }
+
+    /**
+     * Places the task on the processor. The start time must come from earliestStartTime.
+     */
+    void schedule(int task, int processor, int startTime) {
+        int taskFinishTime = startTime + taskGraph.getDuration(task);
+        startTimes[task] = startTime;
+        scheduledOn[task] = processor;
+
+        List<int[]> slots = processorSlots[processor];
+        int index = slots.size();
+        while (index > 0 && slots.get(index - 1)[0] > startTime) {
+            index--;
+        }
+        slots.add(index, new int[]{startTime, taskFinishTime});
+
+        processorFinishTimes[processor] = Math.max(processorFinishTimes[processor], taskFinishTime);
+        finishTime = Math.max(finishTime, taskFinishTime);
+    }
+
+    /**
+     * @return the schedule of all the placed tasks.
+     */
+    Schedule build() {
+        int n = taskGraph.getNumberOfTasks();
+        Task[] tasks = new Task[n];
+        for (int i = 0; i < n; i++) {
+            tasks[i] = new Task(startTimes[i], startTimes[i] + taskGraph.getDuration(i), scheduledOn[i]);
+        }
+        return new Schedule(tasks, finishTime);
+    }
+}
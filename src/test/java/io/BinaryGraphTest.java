@@ -0,0 +1,154 @@
+package io;
+
+import data.TaskGraph;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class BinaryGraphTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static DotGraph createGraph(Random random, int numTasks) {
+        String[] ids = new String[numTasks];
+        int[] durations = new int[numTasks];
+        int numEdges = numTasks == 0 ? 0 : random.nextInt(numTasks * 2);
+        int[] sources = new int[numEdges];
+        int[] targets = new int[numEdges];
+        int[] commCosts = new int[numEdges];
+        for (int task = 0; task < numTasks; task++) {
+            ids[task] = task % 5 == 0 ? "tâche " + task : "t" + task;
+            durations[task] = random.nextInt(100);
+        }
+        for (int i = 0; i < numEdges; i++) {
+            // distinct edges from a lower to a higher task
+            int source = random.nextInt(numTasks);
+            int target = random.nextInt(numTasks);
+            sources[i] = Math.min(source, target);
+            targets[i] = Math.max(source, target);
+            commCosts[i] = random.nextInt(100);
+        }
+        int distinct = 0;
+        for (int i = 0; i < numEdges; i++) {
+            boolean isDuplicate = sources[i] == targets[i];
+            for (int j = 0; j < distinct && !isDuplicate; j++) {
+                isDuplicate = sources[j] == sources[i] && targets[j] == targets[i];
+            }
+            if (!isDuplicate) {
+                sources[distinct] = sources[i];
+                targets[distinct] = targets[i];
+                commCosts[distinct] = commCosts[i];
+                distinct++;
+            }
+        }
+        return new DotGraph("g", ids, new TaskGraph(durations, Arrays.copyOf(sources, distinct),
+                Arrays.copyOf(targets, distinct), Arrays.copyOf(commCosts, distinct)));
+    }
+
+    private File write(DotGraph dotGraph) throws IOException {
+        File file = folder.newFile();
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+            new BinaryGraphWriter(channel).write(dotGraph);
+        }
+        return file;
+    }
+
+    private static DotGraph read(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            return new BinaryGraphReader(channel).read();
+        }
+    }
+
+    private static void assertSameGraph(DotGraph expected, DotGraph actual) {
+        TaskGraph expectedGraph = expected.getTaskGraph();
+        TaskGraph actualGraph = actual.getTaskGraph();
+        assertEquals(expected.getName(), actual.getName());
+        assertEquals(expectedGraph.getNumberOfTasks(), actualGraph.getNumberOfTasks());
+        assertTrue(Arrays.equals(expectedGraph.getDurations(), actualGraph.getDurations()));
+        assertTrue(Arrays.equals(expectedGraph.getChildOffsets(), actualGraph.getChildOffsets()));
+        assertTrue(Arrays.equals(expectedGraph.getChildren(), actualGraph.getChildren()));
+        assertTrue(Arrays.equals(expectedGraph.getChildCommCosts(), actualGraph.getChildCommCosts()));
+        assertTrue(Arrays.equals(expectedGraph.getParentOffsets(), actualGraph.getParentOffsets()));
+        assertTrue(Arrays.equals(expectedGraph.getParents(), actualGraph.getParents()));
+        for (int task = 0; task < expectedGraph.getNumberOfTasks(); task++) {
+            assertEquals(expected.getTaskId(task), actual.getTaskId(task));
+        }
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        Random random = new Random(1);
+        for (int numTasks : new int[]{0, 1, 2, 10, 100, 20000}) {
+            DotGraph dotGraph = createGraph(random, numTasks);
+            File file = write(dotGraph);
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+                assertTrue(BinaryGraphReader.isBinaryGraph(channel));
+            }
+            assertSameGraph(dotGraph, read(file));
+        }
+    }
+
+    @Test
+    public void testDotFileIsNotBinary() throws IOException {
+        File file = folder.newFile();
+        Files.write(file.toPath(), "digraph g {}".getBytes("US-ASCII"));
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            assertFalse(BinaryGraphReader.isBinaryGraph(channel));
+        }
+        File empty = folder.newFile();
+        try (FileChannel channel = FileChannel.open(empty.toPath(), StandardOpenOption.READ)) {
+            assertFalse(BinaryGraphReader.isBinaryGraph(channel));
+        }
+    }
+
+    /**
+     * Every truncated file is rejected with an IOException.
+     */
+    @Test
+    public void testTruncated() throws IOException {
+        byte[] bytes = Files.readAllBytes(write(createGraph(new Random(2), 20)).toPath());
+        File file = folder.newFile();
+        for (int length = 0; length < bytes.length; length++) {
+            Files.write(file.toPath(), Arrays.copyOf(bytes, length));
+            try {
+                read(file);
+                fail("read a file truncated to " + length + " bytes");
+            } catch (IOException e) {
+                // expected
+            }
+        }
+    }
+
+    /**
+     * A corrupt file is either rejected with an IOException or read as some graph, but never fails otherwise.
+     */
+    @Test
+    public void testCorrupt() throws IOException {
+        Random random = new Random(3);
+        byte[] bytes = Files.readAllBytes(write(createGraph(random, 20)).toPath());
+        File file = folder.newFile();
+        for (int i = 0; i < 2000; i++) {
+            byte[] corrupt = bytes.clone();
+            corrupt[random.nextInt(corrupt.length)] = (byte) random.nextInt(256);
+            Files.write(file.toPath(), corrupt);
+            try {
+                read(file);
+            } catch (IOException e) {
+                // expected
+            }
+        }
+    }
+}
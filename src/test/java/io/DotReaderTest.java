@@ -0,0 +1,140 @@
+package io;
+
+import data.TaskGraph;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class DotReaderTest {
+    private static final String GRAPH = "digraph \"example\" {\n" +
+            "  // a comment\n" +
+            "  a [Weight=2];\n" +
+            "  b [Weight=3];\n" +
+            "  /* a comment\n over lines */\n" +
+            "  c [ Weight = 0 ] ;\n" +
+            "  a -> b [Weight=1];\n" +
+            "  # a comment\n" +
+            "  a -> c [Weight=4];\n" +
+            "  b -> c [Weight=0]\n" +
+            "}\n";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static DotGraph read(String dot) throws IOException {
+        return new DotReader(new StringReader(dot)).read();
+    }
+
+    private DotGraph readMapped(String dot, int chunkSize) throws IOException {
+        File file = folder.newFile();
+        Files.write(file.toPath(), dot.getBytes(StandardCharsets.US_ASCII));
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            return new DotReader(channel, chunkSize).read();
+        }
+    }
+
+    private static void assertFormatError(String dot, String expectedMessage) throws IOException {
+        try {
+            read(dot);
+            fail("read " + dot);
+        } catch (DotFormatException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains(expectedMessage));
+        }
+    }
+
+    private static void checkExample(DotGraph dotGraph) {
+        TaskGraph taskGraph = dotGraph.getTaskGraph();
+        assertEquals("example", dotGraph.getName());
+        assertEquals(3, taskGraph.getNumberOfTasks());
+        assertEquals(3, taskGraph.getNumberOfEdges());
+        assertEquals("a", dotGraph.getTaskId(0));
+        assertEquals("c", dotGraph.getTaskId(2));
+        assertEquals(2, taskGraph.getDuration(0));
+        assertEquals(0, taskGraph.getDuration(2));
+        assertEquals(1, taskGraph.getCommCost(0, 1));
+        assertEquals(4, taskGraph.getCommCost(0, 2));
+        assertEquals(0, taskGraph.getCommCost(1, 2));
+        assertNull(dotGraph.getSchedule());
+    }
+
+    @Test
+    public void testRead() throws IOException {
+        checkExample(read(GRAPH));
+    }
+
+    @Test
+    public void testReadMappedInChunks() throws IOException {
+        for (int chunkSize = 1; chunkSize < 8; chunkSize++) {
+            checkExample(readMapped(GRAPH, chunkSize));
+        }
+        checkExample(readMapped(GRAPH, 1 << 20));
+    }
+
+    @Test
+    public void testReadSchedule() throws IOException {
+        DotGraph dotGraph = read("digraph g { a [Weight=2, Start=0, Processor=1]; b [Weight=3, Start=2, " +
+                "Processor=2]; a -> b [Weight=0]; }");
+        assertNotNull(dotGraph.getSchedule());
+        assertEquals(5, dotGraph.getSchedule().getFinishTime());
+        assertEquals(1, dotGraph.getSchedule().getTasks()[1].getProcessor());
+    }
+
+    @Test
+    public void testEmptyGraph() throws IOException {
+        assertEquals(0, read("digraph {}").getTaskGraph().getNumberOfTasks());
+    }
+
+    /**
+     * The end of the file must stay the end, instead of reading the buffer again.
+     */
+    @Test
+    public void testUnterminatedCommentAtEnd() throws IOException {
+        assertFormatError("digraph g { a [Weight=1]; } /* x", "unterminated comment");
+        assertFormatError("digraph g { a [Weight=1]; } /*", "unterminated comment");
+        assertFormatError("digraph g { a [Weight=1]; /* }", "unterminated comment");
+    }
+
+    @Test
+    public void testCommentAtEnd() throws IOException {
+        assertEquals(1, read("digraph g { a [Weight=1]; } // x").getTaskGraph().getNumberOfTasks());
+        assertEquals(1, read("digraph g { a [Weight=1]; } /* x */").getTaskGraph().getNumberOfTasks());
+        assertEquals(1, readMapped("digraph g { a [Weight=1]; } /* x */", 3).getTaskGraph().getNumberOfTasks());
+    }
+
+    @Test
+    public void testMalformed() throws IOException {
+        assertFormatError("digraph g { a [Weight=1]; } }", "expected the end of the file");
+        assertFormatError("graph g { a [Weight=1]; }", "expected digraph");
+        assertFormatError("digraph g { a [Weight=1];", "expected a statement");
+        assertFormatError("digraph g { a [Weight=\"1]; }", "unterminated string");
+        assertFormatError("digraph g { a [Weight=1]; b; a -> b [Weight=1]; }", "Task b has no Weight");
+        assertFormatError("digraph g { a -- b; }", "unsupported character");
+        assertFormatError("digraph g { node [shape=box]; }", "unsupported statement node");
+        assertFormatError("", "expected digraph");
+    }
+
+    @Test
+    public void testMappedNonAscii() throws IOException {
+        try {
+            readMapped("digraph g { é [Weight=1]; }", 1 << 20);
+            fail();
+        } catch (DotFormatException e) {
+            assertFalse(e.getMessage().isEmpty());
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package io;
+
+import data.Schedule;
+import data.Task;
+import data.TaskGraph;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class DotWriterTest {
+    private static final String[] IDS = {"a", "node", "Graph", "STRICT", "with space", "quote\"d", "1", "-2", "1a",
+            "_b2", "é", ""};
+
+    private static DotGraph createGraph() {
+        int numTasks = IDS.length;
+        int[] durations = new int[numTasks];
+        int[] sources = new int[numTasks - 1];
+        int[] targets = new int[numTasks - 1];
+        int[] commCosts = new int[numTasks - 1];
+        for (int task = 0; task < numTasks; task++) {
+            durations[task] = task % 3;
+            if (task > 0) {
+                sources[task - 1] = task / 2;
+                targets[task - 1] = task;
+                commCosts[task - 1] = task * 1000;
+            }
+        }
+        return new DotGraph("digraph", IDS, new TaskGraph(durations, sources, targets, commCosts));
+    }
+
+    private static String write(DotGraph dotGraph, Schedule schedule) throws IOException {
+        StringWriter writer = new StringWriter();
+        if (schedule == null) {
+            new DotWriter(writer).write(dotGraph);
+        } else {
+            new DotWriter(writer).write(dotGraph, schedule);
+        }
+        return writer.toString();
+    }
+
+    private static void assertSameGraph(DotGraph expected, DotGraph actual) {
+        TaskGraph expectedGraph = expected.getTaskGraph();
+        TaskGraph actualGraph = actual.getTaskGraph();
+        assertEquals(expected.getName(), actual.getName());
+        assertEquals(expectedGraph.getNumberOfTasks(), actualGraph.getNumberOfTasks());
+        assertEquals(expectedGraph.getNumberOfEdges(), actualGraph.getNumberOfEdges());
+        for (int task = 0; task < expectedGraph.getNumberOfTasks(); task++) {
+            assertEquals(expected.getTaskId(task), actual.getTaskId(task));
+            assertEquals(expectedGraph.getDuration(task), actualGraph.getDuration(task));
+            assertEquals(expectedGraph.getChildrenList(task), actualGraph.getChildrenList(task));
+            for (int child : expectedGraph.getChildrenList(task)) {
+                assertEquals(expectedGraph.getCommCost(task, child), actualGraph.getCommCost(task, child));
+            }
+        }
+    }
+
+    /**
+     * Ids which are keywords, numbers or need quotes are read back as the same ids.
+     */
+    @Test
+    public void testRoundTrip() throws IOException {
+        DotGraph dotGraph = createGraph();
+        String dot = write(dotGraph, null);
+        assertTrue(dot, dot.startsWith("digraph \"digraph\" {"));
+        assertTrue(dot, dot.contains("\t\"node\"\t [Weight=1];"));
+        assertTrue(dot, dot.contains("\t\"quote\\\"d\"\t [Weight=2];"));
+        assertTrue(dot, dot.contains("\t_b2\t [Weight=0];"));
+
+        DotGraph read = new DotReader(new StringReader(dot)).read();
+        assertSameGraph(dotGraph, read);
+        assertNull(read.getSchedule());
+    }
+
+    @Test
+    public void testRoundTripWithSchedule() throws IOException {
+        DotGraph dotGraph = createGraph();
+        Task[] tasks = new Task[IDS.length];
+        int time = 0;
+        for (int task = 0; task < tasks.length; task++) {
+            int duration = dotGraph.getTaskGraph().getDuration(task);
+            tasks[task] = new Task(time, time + duration, task % 2);
+            time += duration;
+        }
+        Schedule schedule = new Schedule(tasks, time);
+
+        DotGraph read = new DotReader(new StringReader(write(dotGraph, schedule))).read();
+        assertSameGraph(dotGraph, read);
+        assertEquals(time, read.getSchedule().getFinishTime());
+        for (int task = 0; task < tasks.length; task++) {
+            assertEquals(tasks[task].getStartTime(), read.getSchedule().getTasks()[task].getStartTime());
+            assertEquals(tasks[task].getProcessor(), read.getSchedule().getTasks()[task].getProcessor());
+        }
+    }
+
+    /**
+     * A graph larger than the buffer of the writer.
+     */
+    @Test
+    public void testLargeGraph() throws IOException {
+        int numTasks = 20000;
+        String[] ids = new String[numTasks];
+        int[] durations = new int[numTasks];
+        int[] sources = new int[numTasks - 1];
+        int[] targets = new int[numTasks - 1];
+        int[] commCosts = new int[numTasks - 1];
+        for (int task = 0; task < numTasks; task++) {
+            ids[task] = "t" + task;
+            durations[task] = Integer.MAX_VALUE - task;
+            if (task > 0) {
+                sources[task - 1] = task - 1;
+                targets[task - 1] = task;
+                commCosts[task - 1] = task;
+            }
+        }
+        DotGraph dotGraph = new DotGraph("large", ids, new TaskGraph(durations, sources, targets, commCosts));
+        assertSameGraph(dotGraph, new DotReader(new StringReader(write(dotGraph, null))).read());
+    }
+}
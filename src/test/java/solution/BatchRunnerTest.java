@@ -0,0 +1,92 @@
+package solution;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class BatchRunnerTest {
+    private static final String GRAPH = "digraph \"g\" {\n a [Weight=2];\n b [Weight=3];\n a -> b [Weight=1];\n}\n";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File writeGraph(File directory, String name) throws IOException {
+        File file = new File(directory, name);
+        Files.write(file.toPath(), GRAPH.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private static void runBatch(List<BatchRunner.Job> jobs, File outputDirectory) throws IOException {
+        BatchRunner batchRunner = new BatchRunner(jobs, 2, 0, outputDirectory);
+        batchRunner.run();
+        assertEquals(0, batchRunner.getNumberOfFailedJobs());
+    }
+
+    @Test
+    public void testOutputFilesOfOneGraph() throws IOException {
+        File graph = writeGraph(folder.getRoot(), "a.dot");
+        runBatch(Arrays.asList(new BatchRunner.Job(graph.getPath(), 1)), null);
+        assertTrue(new File(folder.getRoot(), "a-output.dot").isFile());
+
+        runBatch(Arrays.asList(new BatchRunner.Job(graph.getPath(), 1), new BatchRunner.Job(graph.getPath(), 2)),
+                null);
+        assertTrue(new File(folder.getRoot(), "a-1-output.dot").isFile());
+        assertTrue(new File(folder.getRoot(), "a-2-output.dot").isFile());
+    }
+
+    @Test
+    public void testGraphsThatOnlyDifferInTheirExtension() throws IOException {
+        writeGraph(folder.getRoot(), "a.dot");
+        writeGraph(folder.getRoot(), "a.tgf");
+        writeGraph(folder.getRoot(), "b.dot");
+        runBatch(BatchRunner.listJobs(folder.getRoot().getPath(), 1), null);
+        assertTrue(new File(folder.getRoot(), "a.dot-output.dot").isFile());
+        assertTrue(new File(folder.getRoot(), "a.tgf-output.dot").isFile());
+        assertTrue(new File(folder.getRoot(), "b-output.dot").isFile());
+    }
+
+    @Test
+    public void testGraphsOfTheSameNameInOneOutputDirectory() throws IOException {
+        File x = writeGraph(folder.newFolder("x"), "a.dot");
+        File y = writeGraph(folder.newFolder("y"), "a.dot");
+        File output = folder.newFolder("output");
+        try {
+            runBatch(Arrays.asList(new BatchRunner.Job(x.getPath(), 1), new BatchRunner.Job(y.getPath(), 1)),
+                    output);
+            fail("expected the graphs to be written to the same file");
+        } catch (IOException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("would both be written to"));
+        }
+        assertEquals(0, output.list().length);
+
+        // without an output directory each is written next to its graph
+        runBatch(Arrays.asList(new BatchRunner.Job(x.getPath(), 1), new BatchRunner.Job(y.getPath(), 1)), null);
+        assertTrue(new File(x.getParentFile(), "a-output.dot").isFile());
+        assertTrue(new File(y.getParentFile(), "a-output.dot").isFile());
+    }
+
+    @Test
+    public void testGraphListedTwiceInAManifest() throws IOException {
+        writeGraph(folder.getRoot(), "a.dot");
+        File manifest = new File(folder.getRoot(), "graphs.txt");
+        Files.write(manifest.toPath(), "a.dot 2\n./a.dot 2\n".getBytes(StandardCharsets.UTF_8));
+        try {
+            runBatch(BatchRunner.listJobs(manifest.getPath(), 1), null);
+            fail("expected the graph to be written twice");
+        } catch (IOException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("would both be written to"));
+        }
+        assertTrue(!new File(folder.getRoot(), "a-output.dot").exists());
+    }
+}
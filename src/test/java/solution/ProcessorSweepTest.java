@@ -0,0 +1,50 @@
+package solution;
+
+import data.Schedule;
+import data.TaskGraph;
+import org.junit.Test;
+import solution.helpers.Greedy;
+import solution.helpers.ScheduleValidator;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ProcessorSweepTest {
+
+    private static SolutionPipeline createPipeline(int numProcessors) {
+        SolutionPipeline pipeline = new SolutionPipeline(numProcessors);
+        pipeline.setGreedy(new Greedy(Greedy.defaultHeuristics(), 1));
+        pipeline.setLocalSearchBudget(0);
+        return pipeline;
+    }
+
+    /**
+     * The schedule on each number of processors must be optimal, also where the schedule on one processor fewer is
+     * taken as it is, because it meets the lower bound or there are more processors than tasks.
+     */
+    @Test
+    public void testOptimalOnEveryNumberOfProcessors() {
+        for (int seed = 0; seed < 100; seed++) {
+            Random random = new Random(seed);
+            int maxProcessors = 1 + random.nextInt(4);
+            TaskGraph taskGraph = TestGraphs.random(random, 1 + random.nextInt(6), random.nextDouble() * 0.6,
+                    random.nextInt(10));
+            Schedule[] schedules = new ProcessorSweep(maxProcessors, ProcessorSweepTest::createPipeline)
+                    .run(taskGraph);
+
+            assertEquals(maxProcessors, schedules.length);
+            for (int p = 1; p <= maxProcessors; p++) {
+                String name = "seed " + seed + " on " + p + " processors";
+                Schedule schedule = schedules[p - 1];
+                assertNull(name, ScheduleValidator.findError(taskGraph, p, schedule));
+                assertEquals(name, TestGraphs.optimalFinishTime(taskGraph, p), schedule.getFinishTime());
+                if (p > 1) {
+                    assertTrue(name, schedule.getFinishTime() <= schedules[p - 2].getFinishTime());
+                }
+            }
+        }
+    }
+}
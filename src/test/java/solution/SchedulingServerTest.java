@@ -0,0 +1,116 @@
+package solution;
+
+import io.DotGraph;
+import io.DotWriter;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SchedulingServerTest {
+    private SchedulingServer server;
+
+    @Before
+    public void startServer() throws IOException {
+        server = new SchedulingServer(0, 2, 16, 0);
+        server.start();
+    }
+
+    @After
+    public void stopServer() {
+        server.stop();
+    }
+
+    /**
+     * @param numTasks 1 for a graph scheduled at once, or e.g. 30 for a graph whose search takes minutes.
+     */
+    private static String createGraph(int numTasks) throws IOException {
+        String[] ids = new String[numTasks];
+        for (int task = 0; task < numTasks; task++) {
+            ids[task] = "t" + task;
+        }
+        StringWriter writer = new StringWriter();
+        new DotWriter(writer).write(new DotGraph("g", ids, TestGraphs.random(new Random(0), numTasks, 0.15, 20)));
+        return writer.toString();
+    }
+
+    private HttpURLConnection request(String method, String path, String body) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL("http://localhost:" + server.getPort() + path)
+                .openConnection();
+        connection.setRequestMethod(method);
+        if (body != null) {
+            connection.setDoOutput(true);
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(body.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        return connection;
+    }
+
+    private long submit(String graph) throws IOException {
+        HttpURLConnection connection = request("POST", "/schedule?processors=4&wait=false", graph);
+        assertEquals(202, connection.getResponseCode());
+        return Long.parseLong(connection.getHeaderField("Location").substring("/jobs/".length()));
+    }
+
+    private int waitForJob(long id) throws IOException, InterruptedException {
+        for (int i = 0; i < 500; i++) {
+            int status = request("GET", "/jobs/" + id, null).getResponseCode();
+            if (status != 202) {
+                return status;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("job " + id + " is not done");
+    }
+
+    @Test(timeout = 10000)
+    public void testTimeLimitStopsTheSearch() throws IOException {
+        long startTime = System.currentTimeMillis();
+        HttpURLConnection connection = request("POST", "/schedule?processors=4&timeLimit=200", createGraph(30));
+        assertEquals(410, connection.getResponseCode());
+        assertTrue(System.currentTimeMillis() - startTime < 5000);
+    }
+
+    @Test(timeout = 10000)
+    public void testCancel() throws IOException, InterruptedException {
+        // the two threads are taken by the first jobs, so the third is still queued
+        long first = submit(createGraph(30));
+        long second = submit(createGraph(30));
+        long queued = submit(createGraph(30));
+        for (long id : new long[]{queued, first, second}) {
+            assertEquals(202, request("DELETE", "/jobs/" + id, null).getResponseCode());
+            assertEquals(410, waitForJob(id));
+            assertEquals(409, request("DELETE", "/jobs/" + id, null).getResponseCode());
+        }
+
+        // the threads of the cancelled searches run the next jobs
+        long id = submit(createGraph(1));
+        assertEquals(200, waitForJob(id));
+        assertEquals(404, request("DELETE", "/jobs/" + (id + 1), null).getResponseCode());
+    }
+
+    @Test(timeout = 10000)
+    public void testFinishedJobsAreForgottenInOrder() throws IOException, InterruptedException {
+        long running = submit(createGraph(30));
+        String graph = createGraph(1);
+        for (int i = 0; i <= 1024; i++) {
+            assertEquals(200, request("POST", "/schedule?processors=4", graph).getResponseCode());
+        }
+
+        // the first job to finish is forgotten, and the older job that is still running is not
+        assertEquals(404, request("GET", "/jobs/" + (running + 1), null).getResponseCode());
+        assertEquals(200, request("GET", "/jobs/" + (running + 2), null).getResponseCode());
+        assertEquals(202, request("GET", "/jobs/" + running, null).getResponseCode());
+    }
+}
@@ -0,0 +1,67 @@
+package solution;
+
+import data.Schedule;
+import data.TaskGraph;
+import org.junit.Test;
+import solution.helpers.ScheduleValidator;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Differential tests of SolutionBitset against SolutionSequential, which must search the same states in the same
+ * order.
+ */
+public class SolutionBitsetTest {
+
+    /**
+     * Runs a search from a bound just above the schedule of all tasks on one processor, so it always finds a schedule.
+     */
+    private static Schedule search(Solution solution, TaskGraph taskGraph) {
+        Schedule sequential = TestGraphs.sequentialSchedule(taskGraph);
+        solution.setInitialSchedule(new Schedule(sequential.getTasks(), sequential.getFinishTime() + 1));
+        return solution.run();
+    }
+
+    private static void assertSameSearch(TaskGraph taskGraph, int numProcessors, String name) {
+        SolutionBitset bitset = new SolutionBitset(taskGraph, numProcessors);
+        SolutionSequential sequential = new SolutionSequential(taskGraph, numProcessors);
+        Schedule bitsetSchedule = search(bitset, taskGraph);
+        Schedule sequentialSchedule = search(sequential, taskGraph);
+
+        assertNull(name, ScheduleValidator.findError(taskGraph, numProcessors, bitsetSchedule));
+        assertNull(name, ScheduleValidator.findError(taskGraph, numProcessors, sequentialSchedule));
+        assertEquals(name, sequentialSchedule.getFinishTime(), bitsetSchedule.getFinishTime());
+        assertEquals(name, sequential.stateCount, bitset.stateCount);
+    }
+
+    /**
+     * Small random graphs, including tasks and edges of no weight, and equivalent tasks.
+     */
+    @Test
+    public void testSameSearchAsSequential() {
+        for (int seed = 0; seed < 500; seed++) {
+            Random random = new Random(seed);
+            int numTasks = 1 + random.nextInt(9);
+            int numProcessors = 1 + random.nextInt(3);
+            TaskGraph taskGraph = TestGraphs.random(random, numTasks, random.nextDouble() * 0.6, 1 + random.nextInt(10));
+            assertSameSearch(taskGraph, numProcessors, "seed " + seed);
+        }
+    }
+
+    /**
+     * Graphs of more than 64 tasks, which use the upper mask. The search is only quick on one processor, where the
+     * first schedule meets the lower bound, or without edges.
+     */
+    @Test
+    public void testSameSearchAsSequentialOnMoreThan64Tasks() {
+        for (int seed = 0; seed < 5; seed++) {
+            Random random = new Random(seed);
+            int numTasks = 65 + random.nextInt(SolutionBitset.MAX_TASKS - 64);
+            assertSameSearch(TestGraphs.random(random, numTasks, 0.2, 10), 1, "seed " + seed);
+            assertSameSearch(TestGraphs.random(random, numTasks, 0, 10), 2, "seed " + seed);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package solution;
+
+import data.Schedule;
+import data.TaskGraph;
+import org.junit.Test;
+import solution.helpers.ScheduleValidator;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks the pruned searches against an exhaustive search of every order of the tasks, so a pruning rule such as the
+ * swap of the last two tasks on a processor cannot cut off every optimal schedule.
+ */
+public class SolutionSequentialTest {
+
+    /**
+     * Runs a search from a bound just above the schedule of all tasks on one processor, so it always finds a schedule.
+     */
+    private static Schedule search(Solution solution, TaskGraph taskGraph) {
+        Schedule sequential = TestGraphs.sequentialSchedule(taskGraph);
+        solution.setInitialSchedule(new Schedule(sequential.getTasks(), sequential.getFinishTime() + 1));
+        return solution.run();
+    }
+
+    private static void assertOptimal(Solution solution, TaskGraph taskGraph, int numProcessors, String name) {
+        Schedule schedule = search(solution, taskGraph);
+        assertNull(name, ScheduleValidator.findError(taskGraph, numProcessors, schedule));
+        assertEquals(name, TestGraphs.optimalFinishTime(taskGraph, numProcessors), schedule.getFinishTime());
+    }
+
+    /**
+     * Small random graphs, including tasks and edges of no weight, and independent tasks that can be swapped.
+     */
+    @Test
+    public void testOptimalOnRandomGraphs() {
+        for (int seed = 0; seed < 300; seed++) {
+            Random random = new Random(seed);
+            int numTasks = 1 + random.nextInt(8);
+            int numProcessors = 2 + random.nextInt(2);
+            TaskGraph taskGraph = TestGraphs.random(random, numTasks, random.nextDouble() * 0.5, random.nextInt(10));
+            assertOptimal(new SolutionSequential(taskGraph, numProcessors), taskGraph, numProcessors, "seed " + seed);
+
+            SolutionParallel parallel = new SolutionParallel(taskGraph, numProcessors);
+            parallel.setNumCores(2);
+            assertOptimal(parallel, taskGraph, numProcessors, "seed " + seed);
+        }
+    }
+
+    /**
+     * A fork of children whose order on the processor of their parent matters, as their communication costs differ.
+     */
+    @Test
+    public void testOptimalOnForks() {
+        for (int seed = 0; seed < 100; seed++) {
+            Random random = new Random(seed);
+            int numChildren = 2 + random.nextInt(5);
+            int[] durations = new int[numChildren + 1];
+            int[] sources = new int[numChildren];
+            int[] targets = new int[numChildren];
+            int[] commCosts = new int[numChildren];
+            durations[0] = random.nextInt(5);
+            for (int child = 1; child <= numChildren; child++) {
+                durations[child] = random.nextInt(10);
+                targets[child - 1] = child;
+                commCosts[child - 1] = random.nextInt(10);
+            }
+            TaskGraph taskGraph = new TaskGraph(durations, sources, targets, commCosts);
+            assertOptimal(new SolutionSequential(taskGraph, 2), taskGraph, 2, "seed " + seed);
+        }
+    }
+
+    /**
+     * Independent tasks of one unit fill the processors evenly, which meets the lower bound, so the search stops at the
+     * first schedule that does rather than trying the other orders of the tasks.
+     */
+    @Test
+    public void testStopsAtLowerBound() {
+        int[] durations = new int[12];
+        Arrays.fill(durations, 1);
+        TaskGraph taskGraph = new TaskGraph(durations, new int[0], new int[0], new int[0]);
+        SolutionSequential sequential = new SolutionSequential(taskGraph, 4);
+        assertEquals(3, search(sequential, taskGraph).getFinishTime());
+        assertTrue(String.valueOf(sequential.stateCount), sequential.stateCount < 100);
+
+        SolutionBitset bitset = new SolutionBitset(taskGraph, 4);
+        assertEquals(3, search(bitset, taskGraph).getFinishTime());
+        assertTrue(String.valueOf(bitset.stateCount), bitset.stateCount < 100);
+    }
+
+    /**
+     * A search seeded with an optimal schedule finds nothing better, and must return that schedule rather than none.
+     */
+    @Test
+    public void testOptimalInitialSchedule() {
+        for (int seed = 0; seed < 50; seed++) {
+            Random random = new Random(seed);
+            TaskGraph taskGraph = TestGraphs.random(random, 1 + random.nextInt(7), 0.3, 10);
+            Schedule optimal = search(new SolutionSequential(taskGraph, 2), taskGraph);
+
+            Solution[] solutions = {new SolutionSequential(taskGraph, 2), new SolutionBitset(taskGraph, 2)};
+            for (Solution solution : solutions) {
+                solution.setInitialSchedule(optimal);
+                Schedule schedule = solution.run();
+                assertNull("seed " + seed, ScheduleValidator.findError(taskGraph, 2, schedule));
+                assertEquals("seed " + seed, optimal.getFinishTime(), schedule.getFinishTime());
+            }
+        }
+    }
+}
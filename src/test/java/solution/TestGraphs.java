@@ -0,0 +1,111 @@
+package solution;
+
+import data.Schedule;
+import data.Task;
+import data.TaskGraph;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Random task graphs and an exhaustive search of their optimal finish time, for tests.
+ */
+public class TestGraphs {
+
+    /**
+     * @param random The random generator, seeded so failures can be repeated.
+     * @param numTasks The number of tasks.
+     * @param edgeProbability The probability of an edge from each task to each later task.
+     * @param maxWeight The largest duration and communication cost, which start from 0.
+     * @return A random task graph, whose tasks are in topological order.
+     */
+    public static TaskGraph random(Random random, int numTasks, double edgeProbability, int maxWeight) {
+        int[] durations = new int[numTasks];
+        for (int task = 0; task < numTasks; task++) {
+            durations[task] = random.nextInt(maxWeight + 1);
+        }
+        List<int[]> edges = new ArrayList<>();
+        for (int parent = 0; parent < numTasks; parent++) {
+            for (int child = parent + 1; child < numTasks; child++) {
+                if (random.nextDouble() < edgeProbability) {
+                    edges.add(new int[]{parent, child, random.nextInt(maxWeight + 1)});
+                }
+            }
+        }
+        int[] sources = new int[edges.size()];
+        int[] targets = new int[edges.size()];
+        int[] commCosts = new int[edges.size()];
+        for (int i = 0; i < edges.size(); i++) {
+            sources[i] = edges.get(i)[0];
+            targets[i] = edges.get(i)[1];
+            commCosts[i] = edges.get(i)[2];
+        }
+        return new TaskGraph(durations, sources, targets, commCosts);
+    }
+
+    /**
+     * Tries every order of the tasks and every processor for each, starting each task as early as possible after the
+     * tasks before it on its processor. Every schedule can be moved earlier into one of these, so the best of them is
+     * optimal. Only for a handful of tasks.
+     * @return The optimal finish time of the task graph.
+     */
+    public static int optimalFinishTime(TaskGraph taskGraph, int numProcessors) {
+        int numTasks = taskGraph.getNumberOfTasks();
+        int[] bestFinishTime = {Integer.MAX_VALUE};
+        search(taskGraph, numProcessors, new Task[numTasks], new int[numProcessors], taskGraph.getInDegrees().clone(),
+                0, 0, bestFinishTime);
+        return numTasks == 0 ? 0 : bestFinishTime[0];
+    }
+
+    private static void search(TaskGraph taskGraph, int numProcessors, Task[] tasks, int[] processorFinishTimes,
+                               int[] inDegrees, int numScheduled, int finishTime, int[] bestFinishTime) {
+        if (finishTime >= bestFinishTime[0]) {
+            return;
+        }
+        if (numScheduled == tasks.length) {
+            bestFinishTime[0] = finishTime;
+            return;
+        }
+        for (int task = 0; task < tasks.length; task++) {
+            if (tasks[task] != null || inDegrees[task] != 0) {
+                continue;
+            }
+            for (int child : taskGraph.getChildrenList(task)) {
+                inDegrees[child]--;
+            }
+            for (int processor = 0; processor < numProcessors; processor++) {
+                int startTime = processorFinishTimes[processor];
+                for (int parent : taskGraph.getParentsList(task)) {
+                    int dataArrival = tasks[parent].getFinishTime()
+                            + (tasks[parent].getProcessor() != processor ? taskGraph.getCommCost(parent, task) : 0);
+                    startTime = Math.max(startTime, dataArrival);
+                }
+                int previousFinishTime = processorFinishTimes[processor];
+                tasks[task] = new Task(startTime, startTime + taskGraph.getDuration(task), processor);
+                processorFinishTimes[processor] = tasks[task].getFinishTime();
+                search(taskGraph, numProcessors, tasks, processorFinishTimes, inDegrees, numScheduled + 1,
+                        Math.max(finishTime, tasks[task].getFinishTime()), bestFinishTime);
+                processorFinishTimes[processor] = previousFinishTime;
+            }
+            tasks[task] = null;
+            for (int child : taskGraph.getChildrenList(task)) {
+                inDegrees[child]++;
+            }
+        }
+    }
+
+    /**
+     * @return A schedule of all tasks on the first processor in the order of their indices, which is valid if the
+     * tasks are in topological order, e.g. to start a search from.
+     */
+    public static Schedule sequentialSchedule(TaskGraph taskGraph) {
+        Task[] tasks = new Task[taskGraph.getNumberOfTasks()];
+        int time = 0;
+        for (int task = 0; task < tasks.length; task++) {
+            tasks[task] = new Task(time, time + taskGraph.getDuration(task), 0);
+            time = tasks[task].getFinishTime();
+        }
+        return new Schedule(tasks, time);
+    }
+}
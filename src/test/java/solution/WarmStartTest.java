@@ -0,0 +1,60 @@
+package solution;
+
+import data.Schedule;
+import data.TaskGraph;
+import io.DotGraph;
+import org.junit.Test;
+import solution.helpers.Greedy;
+import solution.helpers.ScheduleValidator;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class WarmStartTest {
+
+    private static String[] ids(int numTasks) {
+        String[] ids = new String[numTasks];
+        for (int task = 0; task < numTasks; task++) {
+            ids[task] = "t" + task;
+        }
+        return ids;
+    }
+
+    /**
+     * The previous schedule is only a starting bound, so the schedule of the changed graph must still be optimal, also
+     * when the weights change or a task is added.
+     */
+    @Test
+    public void testOptimalAfterChange() {
+        for (int seed = 0; seed < 100; seed++) {
+            Random random = new Random(seed);
+            int numProcessors = 2 + random.nextInt(2);
+            int numTasks = 1 + random.nextInt(6);
+            TaskGraph previousGraph = TestGraphs.random(new Random(seed), numTasks, 0.3, 8);
+            SolutionPipeline pipeline = new SolutionPipeline(numProcessors);
+            pipeline.setGreedy(new Greedy(Greedy.defaultHeuristics(), 1));
+            pipeline.setLocalSearchBudget(0);
+            DotGraph previous = new DotGraph("g", ids(numTasks), previousGraph, pipeline.run(previousGraph));
+
+            // other weights and edges on the same tasks, or on one more task
+            int numChangedTasks = numTasks + (seed % 2);
+            TaskGraph changedGraph = TestGraphs.random(new Random(seed % 2 == 0 ? seed + 1000 : seed),
+                    numChangedTasks, 0.3, 8);
+            Schedule schedule = new WarmStart(pipeline, numProcessors).run(previous,
+                    new DotGraph("g", ids(numChangedTasks), changedGraph));
+
+            String name = "seed " + seed;
+            assertNull(name, ScheduleValidator.findError(changedGraph, numProcessors, schedule));
+            assertEquals(name, TestGraphs.optimalFinishTime(changedGraph, numProcessors), schedule.getFinishTime());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPreviousGraphWithoutSchedule() {
+        TaskGraph taskGraph = TestGraphs.random(new Random(0), 3, 0.3, 8);
+        new WarmStart(new SolutionPipeline(2), 2).run(new DotGraph("g", ids(3), taskGraph),
+                new DotGraph("g", ids(3), taskGraph));
+    }
+}
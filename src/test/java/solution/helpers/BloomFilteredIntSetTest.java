@@ -0,0 +1,78 @@
+package solution.helpers;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class BloomFilteredIntSetTest {
+
+    /**
+     * The filter must never hide a key of the set, and must pass few lookups of new keys on to it.
+     */
+    @Test
+    public void testSameAsSet() {
+        Random random = new Random(1);
+        BloomFilteredIntSet set = new BloomFilteredIntSet(new IntHashSet(), 10000, 0.01);
+        for (int round = 0; round < 3; round++) {
+            Set<Integer> expected = new HashSet<>();
+            for (int i = 0; i < 10000; i++) {
+                int key = random.nextInt();
+                assertEquals(expected.add(key), set.add(key));
+            }
+            for (int key : expected) {
+                assertTrue(set.contains(key));
+            }
+            long falsePositives = set.getFalsePositives();
+            for (int i = 0; i < 100000; i++) {
+                int key = random.nextInt();
+                assertEquals(expected.contains(key), set.contains(key));
+            }
+            assertTrue(set.getFalsePositives() - falsePositives < 2000);
+            assertEquals(expected.size(), set.size());
+
+            set.clear();
+            assertEquals(0, set.size());
+        }
+    }
+
+    /**
+     * A filter for more keys than an array of longs can hold is capped instead of overflowing its size.
+     */
+    @Test
+    public void testSizeIsCapped() {
+        BloomFilteredIntSet set;
+        try {
+            set = new BloomFilteredIntSet(new IntHashSet(), 1L << 40, 0.01);
+        } catch (OutOfMemoryError e) {
+            // the capped filter of 16 GB does not fit in the heap of the test
+            return;
+        }
+        assertTrue(set.getSizeInBytes() <= (long) Integer.MAX_VALUE * Long.BYTES);
+    }
+
+    /**
+     * The filter is not rounded up to a power of two.
+     */
+    @Test
+    public void testSize() {
+        // 1.44 * log2(100) = 9.6 bits per key
+        long bytes = new BloomFilteredIntSet(new IntHashSet(), 1 << 20, 0.01).getSizeInBytes();
+        assertTrue(bytes >= (1 << 20) * 9.5 / 8 && bytes <= (1 << 20) * 9.7 / 8 + 64);
+        assertEquals(64, new BloomFilteredIntSet(new IntHashSet(), 1, 0.5).getSizeInBytes());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidRate() {
+        new BloomFilteredIntSet(new IntHashSet(), 100, 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidExpectedKeys() {
+        new BloomFilteredIntSet(new IntHashSet(), 0, 0.01);
+    }
+}
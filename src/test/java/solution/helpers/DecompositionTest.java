@@ -0,0 +1,144 @@
+package solution.helpers;
+
+import data.Schedule;
+import data.TaskGraph;
+import org.junit.Test;
+import solution.SolutionPipeline;
+import solution.TestGraphs;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class DecompositionTest {
+
+    /**
+     * Joins random graphs, one after the other through a cut task when inSeries, or side by side otherwise.
+     */
+    private static TaskGraph join(Random random, int numParts, boolean inSeries) {
+        List<Integer> durations = new ArrayList<>();
+        List<int[]> edges = new ArrayList<>();
+        int previousLast = -1;
+        for (int part = 0; part < numParts; part++) {
+            TaskGraph taskGraph = TestGraphs.random(random, 1 + random.nextInt(3), 0.5, random.nextInt(10));
+            int first = durations.size();
+            for (int task = 0; task < taskGraph.getNumberOfTasks(); task++) {
+                durations.add(taskGraph.getDuration(task));
+                for (int child : taskGraph.getChildrenList(task)) {
+                    edges.add(new int[]{first + task, first + child, taskGraph.getCommCost(task, child)});
+                }
+            }
+            if (inSeries) {
+                // a cut task has an edge to every task of the part after it, and from every task of the part before it
+                int cut = durations.size();
+                durations.add(random.nextInt(5));
+                for (int task = first; task < cut; task++) {
+                    if (previousLast != -1) {
+                        edges.add(new int[]{previousLast, task, random.nextInt(5)});
+                    }
+                    edges.add(new int[]{task, cut, random.nextInt(5)});
+                }
+                previousLast = cut;
+            }
+        }
+        if (inSeries) {
+            int last = durations.size();
+            durations.add(random.nextInt(5));
+            edges.add(new int[]{previousLast, last, random.nextInt(5)});
+        }
+
+        int[] sources = new int[edges.size()];
+        int[] targets = new int[edges.size()];
+        int[] commCosts = new int[edges.size()];
+        for (int i = 0; i < edges.size(); i++) {
+            sources[i] = edges.get(i)[0];
+            targets[i] = edges.get(i)[1];
+            commCosts[i] = edges.get(i)[2];
+        }
+        return new TaskGraph(durations.stream().mapToInt(Integer::intValue).toArray(), sources, targets, commCosts);
+    }
+
+    private static Schedule runPipeline(TaskGraph taskGraph, int numProcessors) {
+        SolutionPipeline pipeline = new SolutionPipeline(numProcessors);
+        pipeline.setGreedy(new Greedy(Greedy.defaultHeuristics(), 1));
+        pipeline.setLocalSearchBudget(0);
+        return pipeline.run(taskGraph);
+    }
+
+    @Test
+    public void testComponents() {
+        Random random = new Random(0);
+        for (int round = 0; round < 100; round++) {
+            TaskGraph taskGraph = TestGraphs.random(random, random.nextInt(20), 0.1, 10);
+            int[] component = new int[taskGraph.getNumberOfTasks()];
+            int numTasks = 0;
+            List<int[]> components = Decomposition.findComponents(taskGraph);
+            for (int i = 0; i < components.size(); i++) {
+                for (int task : components.get(i)) {
+                    component[task] = i;
+                    numTasks++;
+                }
+            }
+            assertEquals(taskGraph.getNumberOfTasks(), numTasks);
+            for (int task = 0; task < taskGraph.getNumberOfTasks(); task++) {
+                for (int child : taskGraph.getChildrenList(task)) {
+                    assertEquals(component[task], component[child]);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testCutTaskSeparatesAncestorsFromDescendants() {
+        Random random = new Random(1);
+        int numCuts = 0;
+        for (int round = 0; round < 200; round++) {
+            TaskGraph taskGraph = round % 2 == 0 ? join(random, 2 + random.nextInt(2), true)
+                    : TestGraphs.random(random, random.nextInt(15), 0.4, 10);
+            int[] order = PreProcessor.topologicalOrder(taskGraph);
+            int cutPosition = Decomposition.findCutPosition(taskGraph, order);
+            if (round % 2 == 0) {
+                assertTrue(cutPosition != -1);
+            }
+            if (cutPosition == -1) {
+                continue;
+            }
+            numCuts++;
+            int[] position = new int[order.length];
+            for (int i = 0; i < order.length; i++) {
+                position[order[i]] = i;
+            }
+            // every edge starts at or before the cut task and ends at or after it, except within either side
+            for (int task = 0; task < order.length; task++) {
+                for (int child : taskGraph.getChildrenList(task)) {
+                    assertTrue(position[task] >= cutPosition || position[child] <= cutPosition);
+                }
+            }
+        }
+        assertTrue(numCuts >= 100);
+    }
+
+    /**
+     * Series parts are solved optimally on their own, and components are searched again unless their combined
+     * schedule meets the lower bound, so the pipeline stays optimal.
+     */
+    @Test
+    public void testPipelineIsOptimal() {
+        for (int seed = 0; seed < 200; seed++) {
+            Random random = new Random(seed);
+            int numProcessors = 2 + random.nextInt(2);
+            TaskGraph taskGraph = join(random, 2, seed % 2 == 0);
+            if (taskGraph.getNumberOfTasks() > 8) {
+                continue;
+            }
+            Schedule schedule = runPipeline(taskGraph, numProcessors);
+            String name = "seed " + seed;
+            assertNull(name, ScheduleValidator.findError(taskGraph, numProcessors, schedule));
+            assertEquals(name, TestGraphs.optimalFinishTime(taskGraph, numProcessors), schedule.getFinishTime());
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package solution.helpers;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ExternalFrontierTest {
+    private static final int RECORD_LENGTH = 3;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Adds random states, with many duplicates, and removes buckets in between, checking each bucket against the
+     * distinct states of its f-value in a TreeSet.
+     */
+    private void fuzz(int numSteps, long memoryLimit, int maxRuns, long seed) throws IOException {
+        Random random = new Random(seed);
+        File directory = folder.newFolder();
+        TreeMap<Integer, TreeSet<int[]>> expected = new TreeMap<>();
+        try (ExternalFrontier frontier = new ExternalFrontier(RECORD_LENGTH, memoryLimit, directory, maxRuns)) {
+            for (int step = 0; step < numSteps; step++) {
+                if (random.nextInt(200) != 0) {
+                    int f = random.nextInt(8);
+                    int[] record = new int[RECORD_LENGTH];
+                    for (int i = 0; i < RECORD_LENGTH; i++) {
+                        record[i] = random.nextInt(6) - 3;
+                    }
+                    frontier.add(f, record);
+                    expected.computeIfAbsent(f, key -> new TreeSet<>(ExternalFrontierTest::compare)).add(record.clone());
+                } else if (!frontier.isEmpty()) {
+                    checkMinBucket(frontier, expected);
+                }
+            }
+            while (!frontier.isEmpty()) {
+                checkMinBucket(frontier, expected);
+            }
+            assertTrue(expected.isEmpty());
+            assertEquals(0, frontier.size());
+        }
+        assertEquals(0, directory.list().length);
+    }
+
+    private static void checkMinBucket(ExternalFrontier frontier, TreeMap<Integer, TreeSet<int[]>> expected)
+            throws IOException {
+        Map.Entry<Integer, TreeSet<int[]>> bucket = expected.pollFirstEntry();
+        assertEquals((int) bucket.getKey(), frontier.getMinF());
+        Iterator<int[]> records = frontier.removeMinBucket();
+        for (int[] record : bucket.getValue()) {
+            assertTrue(records.hasNext());
+            assertArrayEquals(record, records.next());
+        }
+        assertFalse(records.hasNext());
+    }
+
+    private static int compare(int[] a, int[] b) {
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] != b[i]) {
+                return Integer.compare(a[i], b[i]);
+            }
+        }
+        return 0;
+    }
+
+    @Test
+    public void testInMemory() throws IOException {
+        fuzz(20000, 1 << 20, 64, 1);
+    }
+
+    @Test
+    public void testSpilled() throws IOException {
+        for (long seed = 0; seed < 5; seed++) {
+            fuzz(5000, 16, 64, seed);
+        }
+    }
+
+    @Test
+    public void testCompacted() throws IOException {
+        for (long seed = 0; seed < 5; seed++) {
+            fuzz(2000, 4, 2, seed);
+            fuzz(2000, 8, 3, seed);
+        }
+    }
+
+    @Test
+    public void testDuplicatesDroppedByCompaction() throws IOException {
+        File directory = folder.newFolder();
+        try (ExternalFrontier frontier = new ExternalFrontier(1, 1, directory, 2)) {
+            for (int i = 0; i < 10; i++) {
+                frontier.add(0, new int[]{7});
+                frontier.add(1, new int[]{i});
+            }
+            // the duplicates of 7 written to disk are merged away once a second run is written
+            assertTrue(frontier.size() < 20);
+            Iterator<int[]> records = frontier.removeMinBucket();
+            assertArrayEquals(new int[]{7}, records.next());
+            assertFalse(records.hasNext());
+            assertEquals(10, frontier.size());
+            assertEquals(1, frontier.getMinF());
+        }
+        assertEquals(0, directory.list().length);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWrongRecordLength() throws IOException {
+        try (ExternalFrontier frontier = new ExternalFrontier(2, 10, folder.getRoot())) {
+            frontier.add(0, new int[]{1, 2, 3});
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTooFewRuns() {
+        new ExternalFrontier(2, 10, folder.getRoot(), 1);
+    }
+}
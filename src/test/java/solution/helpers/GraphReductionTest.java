@@ -0,0 +1,70 @@
+package solution.helpers;
+
+import data.Schedule;
+import data.TaskGraph;
+import org.junit.Test;
+import solution.SolutionSequential;
+import solution.TestGraphs;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class GraphReductionTest {
+
+    private static Schedule search(TaskGraph taskGraph, int numProcessors) {
+        Schedule sequential = TestGraphs.sequentialSchedule(taskGraph);
+        SolutionSequential solution = new SolutionSequential(taskGraph, numProcessors);
+        solution.setInitialSchedule(new Schedule(sequential.getTasks(), sequential.getFinishTime() + 1));
+        return solution.run();
+    }
+
+    /**
+     * The reductions must keep the optimal finish time, and an optimal schedule of the reduced graph must expand into
+     * a valid schedule of the original graph that finishes at the same time.
+     */
+    @Test
+    public void testReductionKeepsOptimum() {
+        int numReduced = 0;
+        for (int seed = 0; seed < 300; seed++) {
+            Random random = new Random(seed);
+            int numProcessors = 2 + random.nextInt(2);
+            TaskGraph taskGraph = TestGraphs.random(random, 1 + random.nextInt(8), random.nextDouble() * 0.7,
+                    random.nextInt(6));
+            GraphReduction reduction = new GraphReduction(taskGraph);
+            TaskGraph reducedGraph = reduction.getReducedGraph();
+            if (reduction.isReduced()) {
+                numReduced++;
+            }
+            String name = "seed " + seed;
+            int optimum = TestGraphs.optimalFinishTime(taskGraph, numProcessors);
+            assertEquals(name, optimum, TestGraphs.optimalFinishTime(reducedGraph, numProcessors));
+
+            Schedule schedule = reduction.expand(search(reducedGraph, numProcessors));
+            assertNull(name, ScheduleValidator.findError(taskGraph, numProcessors, schedule));
+            assertEquals(name, optimum, schedule.getFinishTime());
+
+            // and a schedule of the original graph stays valid on the reduced graph
+            Schedule sequential = TestGraphs.sequentialSchedule(taskGraph);
+            assertNull(name, ScheduleValidator.findError(reducedGraph, numProcessors, reduction.reduce(sequential)));
+        }
+        assertTrue(numReduced > 100);
+    }
+
+    @Test
+    public void testDominatedEdge() {
+        // 0 -> 2 costs no more than going through 1, which takes 3 plus the cheaper edge of 2
+        TaskGraph dominated = new TaskGraph(new int[]{1, 3, 1}, new int[]{0, 0, 1}, new int[]{1, 2, 2},
+                new int[]{2, 5, 4});
+        GraphReduction reduction = new GraphReduction(dominated);
+        assertTrue(reduction.isReduced());
+        assertEquals(2, reduction.getReducedGraph().getNumberOfEdges());
+
+        TaskGraph notDominated = new TaskGraph(new int[]{1, 3, 1}, new int[]{0, 0, 1}, new int[]{1, 2, 2},
+                new int[]{2, 6, 4});
+        assertFalse(new GraphReduction(notDominated).isReduced());
+    }
+}
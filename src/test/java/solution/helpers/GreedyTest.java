@@ -0,0 +1,58 @@
+package solution.helpers;
+
+import data.Schedule;
+import data.TaskGraph;
+import org.junit.Test;
+import solution.TestGraphs;
+import solution.helpers.heuristics.Heuristic;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class GreedyTest {
+
+    /**
+     * Every heuristic must give a valid schedule, also with tasks and edges of no weight, which tie every priority.
+     */
+    @Test
+    public void testEveryHeuristicIsValid() {
+        for (int seed = 0; seed < 200; seed++) {
+            Random random = new Random(seed);
+            int numProcessors = 1 + random.nextInt(4);
+            TaskGraph taskGraph = TestGraphs.random(random, random.nextInt(30), random.nextDouble() * 0.4,
+                    random.nextInt(10));
+            for (Heuristic heuristic : Greedy.defaultHeuristics()) {
+                Schedule schedule = heuristic.run(taskGraph, numProcessors);
+                assertNull(heuristic.getName() + " seed " + seed,
+                        ScheduleValidator.findError(taskGraph, numProcessors, schedule));
+            }
+        }
+    }
+
+    @Test
+    public void testBestOfAllHeuristics() {
+        for (int seed = 0; seed < 50; seed++) {
+            Random random = new Random(seed);
+            int numProcessors = 2 + random.nextInt(3);
+            TaskGraph taskGraph = TestGraphs.random(random, 1 + random.nextInt(30), 0.2, 10);
+            int best = Integer.MAX_VALUE;
+            for (Heuristic heuristic : Greedy.defaultHeuristics()) {
+                best = Math.min(best, heuristic.run(taskGraph, numProcessors).getFinishTime());
+            }
+
+            // the schedule of the thread pool is the same as on the calling thread
+            Schedule schedule = new Greedy(Greedy.defaultHeuristics(), 4).run(taskGraph, numProcessors);
+            assertNull(ScheduleValidator.findError(taskGraph, numProcessors, schedule));
+            assertTrue("seed " + seed, schedule.getFinishTime() <= best);
+            Schedule onCallingThread = new Greedy(Greedy.defaultHeuristics(), 1).run(taskGraph, numProcessors);
+            assertEquals(schedule.getFinishTime(), onCallingThread.getFinishTime());
+            for (int task = 0; task < taskGraph.getNumberOfTasks(); task++) {
+                assertEquals(schedule.getTasks()[task].getStartTime(), onCallingThread.getTasks()[task].getStartTime());
+                assertEquals(schedule.getTasks()[task].getProcessor(), onCallingThread.getTasks()[task].getProcessor());
+            }
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package solution.helpers;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class IntHashSetTest {
+
+    /**
+     * Adds random keys, including 0 and -1, past several resizes of a set that starts small.
+     */
+    @Test
+    public void testAgainstHashSet() {
+        Random random = new Random(0);
+        IntHashSet set = new IntHashSet(4);
+        for (int round = 0; round < 3; round++) {
+            Set<Integer> expected = new HashSet<>();
+            for (int i = 0; i < 100000; i++) {
+                int key = i == 0 ? 0 : i == 1 ? -1 : random.nextInt(200000) - 100000;
+                assertEquals(expected.add(key), set.add(key));
+            }
+            assertEquals(expected.size(), set.size());
+            for (int key = -100000; key < 100000; key++) {
+                assertEquals(expected.contains(key), set.contains(key));
+            }
+            set.clear();
+            assertEquals(0, set.size());
+            assertFalse(set.contains(0));
+        }
+    }
+
+    /**
+     * Two schedules whose tasks start at the same times on other processors are different schedules, unless their
+     * processors are just renamed.
+     */
+    @Test
+    public void testHashOfSchedulesOnOtherProcessors() {
+        // tasks 0 and 1 start at 0 and 2, once on one processor each, and once swapped
+        int[] startTimes = {0, 2, 0, 2, -1};
+        int hash = PartialScheduleHashGenerator.generateHashCode(startTimes, new int[]{0, 0, 1, 1, 0}, 2);
+        assertNotEquals(hash, PartialScheduleHashGenerator.generateHashCode(startTimes, new int[]{0, 1, 1, 0, 0}, 2));
+        assertEquals(hash, PartialScheduleHashGenerator.generateHashCode(startTimes, new int[]{1, 1, 0, 0, 1}, 2));
+
+        // task 0 at time 0 is not an empty processor
+        int[] oneTask = {0, -1};
+        assertNotEquals(PartialScheduleHashGenerator.generateHashCode(new int[]{-1, -1}, new int[2], 2),
+                PartialScheduleHashGenerator.generateHashCode(oneTask, new int[2], 2));
+    }
+
+    /**
+     * @return The tasks and start times on each processor, in an order that does not depend on the processor names.
+     */
+    private static List<String> processorsOf(int[] startTimes, int[] scheduledOn, int numProcessors) {
+        List<String> processors = new ArrayList<>();
+        for (int processor = 0; processor < numProcessors; processor++) {
+            StringBuilder tasks = new StringBuilder();
+            for (int task = 0; task < startTimes.length; task++) {
+                if (scheduledOn[task] == processor) {
+                    tasks.append(task).append('@').append(startTimes[task]).append(' ');
+                }
+            }
+            processors.add(tasks.toString());
+        }
+        Collections.sort(processors);
+        return processors;
+    }
+
+    @Test
+    public void testFewCollisionsOfRandomSchedules() {
+        Random random = new Random(1);
+        Set<Integer> hashes = new HashSet<>();
+        Set<List<String>> schedules = new HashSet<>();
+        for (int i = 0; i < 100000; i++) {
+            int[] startTimes = new int[6];
+            int[] scheduledOn = new int[6];
+            for (int task = 0; task < 6; task++) {
+                startTimes[task] = random.nextInt(20);
+                scheduledOn[task] = random.nextInt(3);
+            }
+            if (schedules.add(processorsOf(startTimes, scheduledOn, 3))) {
+                hashes.add(PartialScheduleHashGenerator.generateHashCode(startTimes, scheduledOn, 3));
+            }
+        }
+        // about one pair of 100000 random hashes is expected to collide
+        assertTrue(schedules.size() - hashes.size() < 10);
+    }
+}
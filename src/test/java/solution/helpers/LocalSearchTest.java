@@ -0,0 +1,47 @@
+package solution.helpers;
+
+import data.Schedule;
+import data.TaskGraph;
+import org.junit.Test;
+import solution.TestGraphs;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class LocalSearchTest {
+
+    /**
+     * Starts from all tasks on one processor, which leaves the most to improve.
+     */
+    @Test
+    public void testImprovedScheduleIsValid() {
+        int numImproved = 0;
+        for (int seed = 0; seed < 100; seed++) {
+            Random random = new Random(seed);
+            int numProcessors = 2 + random.nextInt(2);
+            TaskGraph taskGraph = TestGraphs.random(random, 1 + random.nextInt(7), random.nextDouble() * 0.5,
+                    random.nextInt(10));
+            Schedule initialSchedule = TestGraphs.sequentialSchedule(taskGraph);
+            Schedule schedule = new LocalSearch().run(taskGraph, numProcessors, initialSchedule, 50);
+
+            String name = "seed " + seed;
+            assertNull(name, ScheduleValidator.findError(taskGraph, numProcessors, schedule));
+            assertTrue(name, schedule.getFinishTime() <= initialSchedule.getFinishTime());
+            assertTrue(name, schedule.getFinishTime() >= TestGraphs.optimalFinishTime(taskGraph, numProcessors));
+            if (schedule.getFinishTime() < initialSchedule.getFinishTime()) {
+                numImproved++;
+            }
+        }
+        assertTrue(numImproved > 0);
+    }
+
+    @Test
+    public void testNoBudget() {
+        TaskGraph taskGraph = TestGraphs.random(new Random(0), 10, 0.3, 10);
+        Schedule initialSchedule = TestGraphs.sequentialSchedule(taskGraph);
+        assertSame(initialSchedule, new LocalSearch().run(taskGraph, 2, initialSchedule, 0));
+    }
+}
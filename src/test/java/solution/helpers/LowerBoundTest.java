@@ -0,0 +1,43 @@
+package solution.helpers;
+
+import data.TaskGraph;
+import org.junit.Test;
+import solution.TestGraphs;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LowerBoundTest {
+
+    /**
+     * The bound must never be above the optimum, or a search would stop with a schedule that is not optimal.
+     */
+    @Test
+    public void testNotAboveOptimum() {
+        for (int seed = 0; seed < 300; seed++) {
+            Random random = new Random(seed);
+            int numProcessors = 1 + random.nextInt(3);
+            TaskGraph taskGraph = TestGraphs.random(random, 1 + random.nextInt(7), random.nextDouble() * 0.6,
+                    random.nextInt(10));
+            int optimum = TestGraphs.optimalFinishTime(taskGraph, numProcessors);
+            assertTrue("seed " + seed, LowerBound.calculate(taskGraph, numProcessors) <= optimum);
+        }
+    }
+
+    @Test
+    public void testCriticalPathAndLoad() {
+        // a chain of 2 + 3 + 4 is the critical path, whatever the number of processors
+        TaskGraph chain = new TaskGraph(new int[]{2, 3, 4}, new int[]{0, 1}, new int[]{1, 2}, new int[]{5, 5});
+        assertEquals(9, LowerBound.calculate(chain, 1));
+        assertEquals(9, LowerBound.calculate(chain, 4));
+
+        // 7 independent tasks of 3 are spread over 2 processors, rounding up
+        TaskGraph independent = new TaskGraph(new int[]{3, 3, 3, 3, 3, 3, 3}, new int[0], new int[0], new int[0]);
+        assertEquals(21, LowerBound.calculate(independent, 1));
+        assertEquals(11, LowerBound.calculate(independent, 2));
+        assertEquals(3, LowerBound.calculate(independent, 7));
+        assertEquals(0, LowerBound.calculate(new TaskGraph(new int[0], new int[0], new int[0], new int[0]), 2));
+    }
+}
@@ -0,0 +1,74 @@
+package solution.helpers;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class OffHeapIntSetTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Adds random keys, including 0, to the set and a HashSet. Keys may be forgotten once a bucket is full, but a key
+     * that was not added since the last clear must never be found.
+     */
+    private static void checkAgainstHashSet(OffHeapIntSet set, int numKeys, boolean mayForget) {
+        Random random = new Random(numKeys);
+        for (int round = 0; round < 3; round++) {
+            Set<Integer> expected = new HashSet<>();
+            for (int i = 0; i < numKeys; i++) {
+                int key = i == 0 ? 0 : random.nextInt();
+                if (expected.add(key)) {
+                    assertTrue(set.add(key));
+                }
+            }
+            for (int i = 0; i < numKeys; i++) {
+                int key = random.nextInt();
+                assertEquals(expected.contains(key), set.contains(key));
+            }
+            for (int key : expected) {
+                assertTrue(mayForget || set.contains(key));
+            }
+            if (!mayForget) {
+                assertEquals(expected.size(), set.size());
+            }
+
+            set.clear();
+            assertEquals(0, set.size());
+            for (int key : expected) {
+                assertFalse(set.contains(key));
+            }
+        }
+    }
+
+    @Test
+    public void testAllocated() {
+        checkAgainstHashSet(OffHeapIntSet.allocate(1 << 20), 1000, false);
+    }
+
+    @Test
+    public void testMapped() throws IOException {
+        File file = new File(folder.getRoot(), "table");
+        checkAgainstHashSet(OffHeapIntSet.map(file, 1 << 20), 1000, false);
+    }
+
+    @Test
+    public void testFullBucketsReplaceKeys() {
+        checkAgainstHashSet(OffHeapIntSet.allocate(1 << 8), 10000, true);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTooSmall() {
+        OffHeapIntSet.allocate(32);
+    }
+}
@@ -0,0 +1,159 @@
+package solution.helpers;
+
+import data.Schedule;
+import data.TaskGraph;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import solution.SolutionPipeline;
+import solution.TestGraphs;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ResultCacheTest {
+    private static final int NUM_PROCESSORS = 3;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * @return The graph with task i renamed to task permutation[i].
+     */
+    private static TaskGraph relabel(TaskGraph taskGraph, int[] permutation) {
+        int numTasks = taskGraph.getNumberOfTasks();
+        int[] durations = new int[numTasks];
+        List<Integer> sources = new ArrayList<>();
+        List<Integer> targets = new ArrayList<>();
+        List<Integer> commCosts = new ArrayList<>();
+        for (int task = 0; task < numTasks; task++) {
+            durations[permutation[task]] = taskGraph.getDuration(task);
+            for (int child : taskGraph.getChildrenList(task)) {
+                sources.add(permutation[task]);
+                targets.add(permutation[child]);
+                commCosts.add(taskGraph.getCommCost(task, child));
+            }
+        }
+        return new TaskGraph(durations, toArray(sources), toArray(targets), toArray(commCosts));
+    }
+
+    private static int[] toArray(List<Integer> values) {
+        return values.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static int[] randomPermutation(Random random, int length) {
+        List<Integer> permutation = new ArrayList<>();
+        for (int i = 0; i < length; i++) {
+            permutation.add(i);
+        }
+        Collections.shuffle(permutation, random);
+        return toArray(permutation);
+    }
+
+    @Test
+    public void testCanonicalGraphOfRelabelledGraph() {
+        Random random = new Random(1);
+        for (int round = 0; round < 200; round++) {
+            TaskGraph taskGraph = TestGraphs.random(random, 1 + random.nextInt(20), 0.3, 10);
+            TaskGraph relabelled = relabel(taskGraph, randomPermutation(random, taskGraph.getNumberOfTasks()));
+            CanonicalGraph canonicalGraph = new CanonicalGraph(taskGraph);
+            CanonicalGraph relabelledCanonicalGraph = new CanonicalGraph(relabelled);
+
+            // equivalent tasks may be ordered differently, but a graph equal to its canonical graph always matches
+            if (canonicalGraph.isSameGraph(relabelledCanonicalGraph)) {
+                assertEquals(canonicalGraph.getFingerprint(), relabelledCanonicalGraph.getFingerprint());
+            }
+            int[] order = new int[taskGraph.getNumberOfTasks()];
+            for (int i = 0; i < order.length; i++) {
+                order[canonicalGraph.getTask(i)] = i;
+            }
+            CanonicalGraph canonicalOrder = new CanonicalGraph(relabel(taskGraph, order));
+            assertTrue(canonicalGraph.isSameGraph(canonicalOrder));
+            assertEquals(canonicalGraph.getFingerprint(), canonicalOrder.getFingerprint());
+        }
+    }
+
+    @Test
+    public void testOtherWeightsAreAnotherGraph() {
+        TaskGraph taskGraph = new TaskGraph(new int[]{2, 3, 4}, new int[]{0, 0}, new int[]{1, 2}, new int[]{1, 1});
+        TaskGraph otherDuration = new TaskGraph(new int[]{2, 3, 5}, new int[]{0, 0}, new int[]{1, 2},
+                new int[]{1, 1});
+        TaskGraph otherCommCost = new TaskGraph(new int[]{2, 3, 4}, new int[]{0, 0}, new int[]{1, 2},
+                new int[]{1, 2});
+        CanonicalGraph canonicalGraph = new CanonicalGraph(taskGraph);
+        assertFalse(canonicalGraph.isSameGraph(new CanonicalGraph(otherDuration)));
+        assertFalse(canonicalGraph.isSameGraph(new CanonicalGraph(otherCommCost)));
+    }
+
+    @Test
+    public void testScheduleOfRelabelledGraph() throws IOException {
+        Random random = new Random(2);
+        int numHits = 0;
+        for (int round = 0; round < 50; round++) {
+            TaskGraph taskGraph = TestGraphs.random(random, 1 + random.nextInt(10), 0.3, 10);
+            Schedule schedule = new SolutionPipeline(NUM_PROCESSORS).run(taskGraph);
+            ResultCache resultCache = new ResultCache(folder.newFolder());
+            resultCache.put(new CanonicalGraph(taskGraph), NUM_PROCESSORS, schedule);
+
+            // the tasks of the cached schedule are mapped onto the relabelled graph, from memory and from the file
+            TaskGraph relabelled = relabel(taskGraph, randomPermutation(random, taskGraph.getNumberOfTasks()));
+            CanonicalGraph canonicalGraph = new CanonicalGraph(relabelled);
+            for (int i = 0; i < 2; i++) {
+                Schedule cached = resultCache.get(canonicalGraph, NUM_PROCESSORS);
+                if (cached != null) {
+                    numHits++;
+                    assertNull(ScheduleValidator.findError(relabelled, NUM_PROCESSORS, cached));
+                    assertEquals(schedule.getFinishTime(), cached.getFinishTime());
+                }
+                assertNull(resultCache.get(canonicalGraph, NUM_PROCESSORS + 1));
+            }
+        }
+        // only graphs with equivalent tasks may miss
+        assertTrue(numHits > 50);
+    }
+
+    /**
+     * Puts the schedule of a graph in a new cache, and sets the version of the scheduler in its file.
+     * @return The file of the schedule.
+     */
+    private File putWithEngineVersion(File directory, TaskGraph taskGraph, int engineVersion) throws IOException {
+        new ResultCache(directory).put(new CanonicalGraph(taskGraph), 1, TestGraphs.sequentialSchedule(taskGraph));
+        File[] files = directory.listFiles();
+        assertEquals(1, files.length);
+        try (RandomAccessFile file = new RandomAccessFile(files[0], "rw")) {
+            file.seek(8); // after the magic number and the version of the format
+            file.writeInt(engineVersion);
+        }
+        return files[0];
+    }
+
+    @Test
+    public void testFilesOfOtherVersionsAreMisses() throws IOException {
+        TaskGraph taskGraph = TestGraphs.random(new Random(3), 8, 0.3, 10);
+        CanonicalGraph canonicalGraph = new CanonicalGraph(taskGraph);
+
+        File directory = folder.newFolder();
+        File file = putWithEngineVersion(directory, taskGraph, 1);
+        assertNotNull(new ResultCache(directory).get(canonicalGraph, 1));
+
+        // a file of an older scheduler is deleted, and one of a newer scheduler is kept for it
+        putWithEngineVersion(directory, taskGraph, 0);
+        assertNull(new ResultCache(directory).get(canonicalGraph, 1));
+        assertFalse(file.exists());
+
+        putWithEngineVersion(directory, taskGraph, 2);
+        assertNull(new ResultCache(directory).get(canonicalGraph, 1));
+        assertTrue(file.exists());
+    }
+}
@@ -0,0 +1,95 @@
+package solution.helpers;
+
+import data.Schedule;
+import data.Task;
+import data.TaskGraph;
+import org.junit.Test;
+import solution.TestGraphs;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ScheduleRepairTest {
+
+    private static int[] startTimesOf(Schedule schedule) {
+        Task[] tasks = schedule.getTasks();
+        int[] startTimes = new int[tasks.length];
+        for (int task = 0; task < tasks.length; task++) {
+            startTimes[task] = tasks[task].getStartTime();
+        }
+        return startTimes;
+    }
+
+    private static int[] processorsOf(Schedule schedule) {
+        Task[] tasks = schedule.getTasks();
+        int[] processors = new int[tasks.length];
+        for (int task = 0; task < tasks.length; task++) {
+            processors[task] = tasks[task].getProcessor();
+        }
+        return processors;
+    }
+
+    /**
+     * A schedule of the same graph is kept as it is, or moved earlier, including tasks of no weight that start at the
+     * same time as another task on their processor.
+     */
+    @Test
+    public void testUnchangedGraph() {
+        for (int seed = 0; seed < 300; seed++) {
+            Random random = new Random(seed);
+            int numProcessors = 1 + random.nextInt(3);
+            TaskGraph taskGraph = TestGraphs.random(random, 1 + random.nextInt(15), random.nextDouble() * 0.4,
+                    random.nextInt(6));
+            Schedule previous = new Greedy(Greedy.defaultHeuristics(), 1).run(taskGraph, numProcessors);
+            Schedule schedule = ScheduleRepair.repair(taskGraph, numProcessors, startTimesOf(previous),
+                    processorsOf(previous));
+
+            String name = "seed " + seed;
+            assertNull(name, ScheduleValidator.findError(taskGraph, numProcessors, schedule));
+            assertTrue(name, schedule.getFinishTime() <= previous.getFinishTime());
+            for (int task = 0; task < taskGraph.getNumberOfTasks(); task++) {
+                assertTrue(name, schedule.getTasks()[task].getStartTime() <= previous.getTasks()[task].getStartTime());
+            }
+        }
+    }
+
+    /**
+     * After the weights change and a task is added, the schedule must still be valid, also on fewer processors.
+     */
+    @Test
+    public void testChangedGraph() {
+        for (int seed = 0; seed < 300; seed++) {
+            Random random = new Random(seed);
+            int numProcessors = 2 + random.nextInt(3);
+            TaskGraph taskGraph = TestGraphs.random(random, 2 + random.nextInt(15), 0.3, 6);
+            Schedule previous = new Greedy(Greedy.defaultHeuristics(), 1).run(taskGraph, numProcessors);
+
+            // every weight is changed, and a new task is added after the others
+            TaskGraph changedGraph = TestGraphs.random(new Random(seed + 1000), taskGraph.getNumberOfTasks() + 1, 0.3,
+                    6);
+            int numTasks = changedGraph.getNumberOfTasks();
+            int[] previousStartTimes = new int[numTasks];
+            int[] previousProcessors = new int[numTasks];
+            System.arraycopy(startTimesOf(previous), 0, previousStartTimes, 0, numTasks - 1);
+            System.arraycopy(processorsOf(previous), 0, previousProcessors, 0, numTasks - 1);
+            previousStartTimes[numTasks - 1] = ScheduleRepair.NEW_TASK;
+            previousProcessors[numTasks - 1] = ScheduleRepair.NEW_TASK;
+
+            for (int newNumProcessors = 1; newNumProcessors <= numProcessors; newNumProcessors++) {
+                Schedule schedule = ScheduleRepair.repair(changedGraph, newNumProcessors, previousStartTimes,
+                        previousProcessors);
+                assertNull("seed " + seed,
+                        ScheduleValidator.findError(changedGraph, newNumProcessors, schedule));
+            }
+        }
+    }
+
+    @Test
+    public void testEmptyGraph() {
+        TaskGraph taskGraph = new TaskGraph(new int[0], new int[0], new int[0], new int[0]);
+        assertEquals(0, ScheduleRepair.repair(taskGraph, 2, new int[0], new int[0]).getFinishTime());
+    }
+}
@@ -0,0 +1,54 @@
+package solution.helpers;
+
+import data.Schedule;
+import data.Task;
+import data.TaskGraph;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class ScheduleValidatorTest {
+    // a -> b costs 2, a -> c costs 1, and d has no edges
+    private static final TaskGraph GRAPH = new TaskGraph(new int[]{2, 3, 1, 0}, new int[]{0, 0}, new int[]{1, 2},
+            new int[]{2, 1});
+    private static final String[] IDS = {"a", "b", "c", "d"};
+
+    private static String findError(int finishTime, Task... tasks) {
+        return ScheduleValidator.findError(GRAPH, 2, new Schedule(tasks, finishTime), task -> IDS[task]);
+    }
+
+    @Test
+    public void testValid() {
+        // b waits for the data of a on the other processor, c follows a on the same processor
+        assertNull(findError(7, new Task(0, 2, 0), new Task(4, 7, 1), new Task(2, 3, 0), new Task(0, 0, 0)));
+        // d of no duration may start within another task
+        assertNull(findError(7, new Task(0, 2, 0), new Task(4, 7, 1), new Task(2, 3, 0), new Task(1, 1, 0)));
+    }
+
+    @Test
+    public void testInvalid() {
+        assertEquals("the schedule has 3 tasks, the graph has 4",
+                findError(7, new Task(0, 2, 0), new Task(4, 7, 1), new Task(2, 3, 0)));
+        assertEquals("task d is not scheduled",
+                findError(7, new Task(0, 2, 0), new Task(4, 7, 1), new Task(2, 3, 0), null));
+        assertEquals("task b is on processor 3 of 2",
+                findError(7, new Task(0, 2, 0), new Task(4, 7, 2), new Task(2, 3, 0), new Task(0, 0, 0)));
+        assertEquals("task b does not take its Weight of 3",
+                findError(8, new Task(0, 2, 0), new Task(4, 8, 1), new Task(2, 3, 0), new Task(0, 0, 0)));
+        assertEquals("task a does not take its Weight of 2",
+                findError(7, new Task(-1, 1, 0), new Task(4, 7, 1), new Task(2, 3, 0), new Task(0, 0, 0)));
+        assertEquals("the finish time is 6 instead of 7",
+                findError(6, new Task(0, 2, 0), new Task(4, 7, 1), new Task(2, 3, 0), new Task(0, 0, 0)));
+        assertEquals("task b starts before the data from task a arrives",
+                findError(6, new Task(0, 2, 0), new Task(3, 6, 1), new Task(2, 3, 0), new Task(0, 0, 0)));
+        assertEquals("two tasks overlap on processor 1 at time 2",
+                findError(5, new Task(0, 2, 0), new Task(2, 5, 0), new Task(2, 3, 0), new Task(0, 0, 0)));
+    }
+
+    @Test
+    public void testTaskIdsDefaultToNumbers() {
+        Schedule schedule = new Schedule(new Task[]{new Task(0, 2, 0), new Task(4, 7, 1), new Task(2, 3, 0), null}, 7);
+        assertEquals("task 3 is not scheduled", ScheduleValidator.findError(GRAPH, 2, schedule));
+    }
+}